@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * Synthetic result sets shared by the benchmarks. A result set has a single datasource whose
+ * columns cycle through int, string, double, document and array values.
+ */
+final class BenchmarkData {
+    static final String DATASOURCE = "foo";
+    private static final String[] BSON_TYPES = {"int", "string", "double", "object", "array"};
+
+    private BenchmarkData() {}
+
+    static MongoLogger logger() {
+        return new MongoLogger(Logger.getLogger(BenchmarkData.class.getName()), 0);
+    }
+
+    static String label(int column) {
+        return "col" + column;
+    }
+
+    private static String bsonType(int column) {
+        return BSON_TYPES[column % BSON_TYPES.length];
+    }
+
+    /** @return true if the values of the column, starting at 0, are ints. */
+    static boolean isInt(int column) {
+        return bsonType(column).equals("int");
+    }
+
+    /**
+     * @param columns The number of columns.
+     * @return the result set schema, as returned by the translation.
+     */
+    static MongoJsonSchema resultSetSchema(int columns) {
+        MongoJsonSchema datasourceSchema = MongoJsonSchema.createEmptyObjectSchema();
+        for (int c = 0; c < columns; c++) {
+            String type = bsonType(c);
+            MongoJsonSchema columnSchema;
+            if (type.equals("object")) {
+                columnSchema = MongoJsonSchema.createEmptyObjectSchema();
+                columnSchema.additionalProperties = true;
+            } else if (type.equals("array")) {
+                columnSchema = MongoJsonSchema.createScalarSchema("array");
+                columnSchema.items = MongoJsonSchema.createScalarSchema("int");
+            } else {
+                columnSchema = MongoJsonSchema.createScalarSchema(type);
+            }
+            datasourceSchema.properties.put(label(c), columnSchema);
+            datasourceSchema.required.add(label(c));
+        }
+        MongoJsonSchema schema = MongoJsonSchema.createEmptyObjectSchema();
+        schema.properties.put(DATASOURCE, datasourceSchema);
+        schema.required.add(DATASOURCE);
+        return schema;
+    }
+
+    /**
+     * @param columns The number of columns.
+     * @return the BSON representation of the result set schema, in the format sent by
+     *     mongosqltranslate and Atlas Data Federation.
+     */
+    static BsonDocument resultSetSchemaDocument(int columns) {
+        BsonDocument properties = new BsonDocument();
+        BsonArray required = new BsonArray();
+        for (int c = 0; c < columns; c++) {
+            String type = bsonType(c);
+            BsonDocument columnSchema = new BsonDocument("bsonType", new BsonString(type));
+            if (type.equals("object")) {
+                columnSchema
+                        .append("properties", new BsonDocument())
+                        .append("additionalProperties", BsonBoolean.TRUE);
+            } else if (type.equals("array")) {
+                columnSchema.append("items", new BsonDocument("bsonType", new BsonString("int")));
+            }
+            properties.put(label(c), columnSchema);
+            required.add(new BsonString(label(c)));
+        }
+        BsonDocument datasourceSchema =
+                new BsonDocument("bsonType", new BsonString("object"))
+                        .append("properties", properties)
+                        .append("required", required)
+                        .append("additionalProperties", BsonBoolean.FALSE);
+        return new BsonDocument("bsonType", new BsonString("object"))
+                .append("properties", new BsonDocument(DATASOURCE, datasourceSchema))
+                .append("required", new BsonArray(Arrays.asList(new BsonString(DATASOURCE))))
+                .append("additionalProperties", BsonBoolean.FALSE);
+    }
+
+    /**
+     * @param columns The number of columns.
+     * @param seed A value making each row different.
+     * @return a row matching {@link #resultSetSchema(int)}.
+     */
+    static BsonDocument row(int columns, int seed) {
+        BsonDocument values = new BsonDocument();
+        for (int c = 0; c < columns; c++) {
+            values.put(label(c), value(bsonType(c), seed + c));
+        }
+        return new BsonDocument(DATASOURCE, values);
+    }
+
+    static List<BsonDocument> rows(int columns, int count) {
+        List<BsonDocument> rows = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            rows.add(row(columns, r));
+        }
+        return rows;
+    }
+
+    private static BsonValue value(String type, int seed) {
+        switch (type) {
+            case "int":
+                return new BsonInt32(seed);
+            case "string":
+                return new BsonString("value " + seed);
+            case "double":
+                return new BsonDouble(seed / 3d);
+            case "object":
+                return new BsonDocument("a", new BsonInt32(seed))
+                        .append("b", new BsonString("nested " + seed));
+            default:
+                return new BsonArray(Arrays.asList(new BsonInt32(seed), new BsonInt32(seed + 1)));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.utils.BsonUtils;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BSON serialization of the documents exchanged with the mongosqltranslate library. The document
+ * is a result set schema, similar in shape and size to a schema catalog of the same width.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BsonUtilsBenchmark {
+    @Param({"5", "50", "500"})
+    public int columns;
+
+    private BsonDocument document;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws MongoSerializationException {
+        document = BenchmarkData.resultSetSchemaDocument(columns);
+        bytes = BsonUtils.serialize(document);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws MongoSerializationException {
+        return BsonUtils.serialize(document);
+    }
+
+    @Benchmark
+    public BsonDocument deserialize() throws MongoSerializationException {
+        return BsonUtils.deserialize(bytes);
+    }
+}
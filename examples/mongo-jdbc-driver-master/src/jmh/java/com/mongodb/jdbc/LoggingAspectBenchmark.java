@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of the method entry logging woven by the LoggingAspect, per cell read. Each level runs in
+ * its own fork since the aspect remembers that an enabled logger was created. OFF is the
+ * baseline, FINER must stay close to it since result set getters are only logged at FINEST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+    private static final int COLUMNS = 10;
+
+    @Param({"OFF", "FINER", "FINEST"})
+    public String logLevel;
+
+    private MongoResultSet resultSet;
+
+    // Discards the records, to only measure the cost of producing them.
+    private static class NullHandler extends Handler {
+        @Override
+        public void publish(LogRecord record) {}
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    @Setup
+    public void setup() throws SQLException {
+        Logger julLogger = Logger.getLogger(LoggingAspectBenchmark.class.getName());
+        julLogger.setUseParentHandlers(false);
+        julLogger.setLevel(Level.parse(logLevel));
+        julLogger.addHandler(new NullHandler());
+        MongoLogger logger = new MongoLogger(julLogger, 0);
+
+        resultSet =
+                new MongoResultSet(
+                        logger,
+                        new BsonExplicitCursor(
+                                Collections.singletonList(BenchmarkData.row(COLUMNS, 0))),
+                        BenchmarkData.resultSetSchema(COLUMNS));
+        resultSet.next();
+    }
+
+    // The first column of the BenchmarkData rows is an int
+    @Benchmark
+    public void getInt(Blackhole bh) throws SQLException {
+        bh.consume(resultSet.getInt(1));
+    }
+
+    @Benchmark
+    public void getString(Blackhole bh) throws SQLException {
+        bh.consume(resultSet.getString(1));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+import org.bson.BsonElement;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Builds and sorts getColumns-like rows, then reads them through a result set.
+ * sortableBsonDocument is the former path, building a document per row, and the baseline for
+ * rowStore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataSortBenchmark {
+    private static final String BOT_NAME = "";
+    private static final String[] COLUMNS = {
+        "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "ORDINAL_POSITION"
+    };
+    private static final List<SortableBsonDocument.SortSpec> SORT_SPECS =
+            Arrays.asList(
+                    new SortableBsonDocument.SortSpec(
+                            "TABLE_CAT", SortableBsonDocument.ValueType.String),
+                    new SortableBsonDocument.SortSpec(
+                            "TABLE_NAME", SortableBsonDocument.ValueType.String),
+                    new SortableBsonDocument.SortSpec(
+                            "ORDINAL_POSITION", SortableBsonDocument.ValueType.Int));
+
+    @Param({"100", "2000"})
+    public int tables;
+
+    @Param({"20"})
+    public int columnsPerTable;
+
+    private MongoLogger logger;
+    private MongoJsonSchema schema;
+    private List<BsonElement[]> rows;
+
+    @Setup
+    public void setup() {
+        logger = BenchmarkData.logger();
+
+        MongoJsonSchema botSchema = MongoJsonSchema.createEmptyObjectSchema();
+        for (String column : COLUMNS) {
+            String type =
+                    column.equals("DATA_TYPE") || column.equals("ORDINAL_POSITION")
+                            ? "int"
+                            : "string";
+            botSchema.properties.put(column, MongoJsonSchema.createScalarSchema(type));
+        }
+        botSchema.required.addAll(Arrays.asList(COLUMNS));
+        schema = MongoJsonSchema.createEmptyObjectSchema();
+        schema.properties.put(BOT_NAME, botSchema);
+        schema.required.add(BOT_NAME);
+
+        // The rows of the databases are fetched concurrently, they come in no particular order
+        rows = new ArrayList<>(tables * columnsPerTable);
+        for (int t = 0; t < tables; t++) {
+            for (int c = 0; c < columnsPerTable; c++) {
+                rows.add(
+                        new BsonElement[] {
+                            new BsonElement("TABLE_CAT", new BsonString("db" + (t % 10))),
+                            new BsonElement("TABLE_SCHEM", BsonNull.VALUE),
+                            new BsonElement("TABLE_NAME", new BsonString("table" + t)),
+                            new BsonElement("COLUMN_NAME", new BsonString("column" + c)),
+                            new BsonElement("DATA_TYPE", new BsonInt32(12)),
+                            new BsonElement("ORDINAL_POSITION", new BsonInt32(c + 1))
+                        });
+            }
+        }
+        Collections.shuffle(rows, new Random(42));
+    }
+
+    private void readAll(List<BsonDocument> sorted, Blackhole bh) throws SQLException {
+        MongoResultSet rs = new MongoResultSet(logger, new BsonExplicitCursor(sorted), schema);
+        while (rs.next()) {
+            bh.consume(rs.getString(3));
+            bh.consume(rs.getInt(6));
+        }
+    }
+
+    @Benchmark
+    public void sortableBsonDocument(Blackhole bh) throws SQLException {
+        List<BsonDocument> sorted =
+                rows.stream()
+                        .map(
+                                fields ->
+                                        new SortableBsonDocument(
+                                                SORT_SPECS,
+                                                BOT_NAME,
+                                                new BsonDocument(Arrays.asList(fields))))
+                        .sorted()
+                        .collect(Collectors.toList());
+        readAll(sorted, bh);
+    }
+
+    @Benchmark
+    public void rowStore(Blackhole bh) throws SQLException {
+        readAll(MetadataRowStore.sorted(BOT_NAME, schema, rows.stream(), SORT_SPECS), bh);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.UuidRepresentation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String conversion of values, as done by getString() for documents and arrays. The document has
+ * one field per column, the array one element per column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MongoBsonValueBenchmark {
+    @Param({"5", "50", "500"})
+    public int columns;
+
+    @Param({"false", "true"})
+    public boolean extJsonMode;
+
+    private MongoBsonValue document;
+    private MongoBsonValue array;
+    private MongoBsonValue string;
+
+    @Setup
+    public void setup() {
+        BsonDocument row = BenchmarkData.row(columns, 0).getDocument(BenchmarkData.DATASOURCE);
+        document = new MongoBsonValue(row, extJsonMode, UuidRepresentation.STANDARD);
+        array =
+                new MongoBsonValue(
+                        new BsonArray(new ArrayList<>(row.values())),
+                        extJsonMode,
+                        UuidRepresentation.STANDARD);
+        string =
+                new MongoBsonValue(
+                        new BsonString("value"), extJsonMode, UuidRepresentation.STANDARD);
+    }
+
+    @Benchmark
+    public String documentToString() {
+        return document.toString();
+    }
+
+    @Benchmark
+    public String arrayToString() {
+        return array.toString();
+    }
+
+    @Benchmark
+    public String stringToString() {
+        return string.toString();
+    }
+}
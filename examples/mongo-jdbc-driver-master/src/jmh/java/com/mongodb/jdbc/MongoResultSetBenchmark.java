@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.BsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads every cell of a result set. nestedDocumentLookup reproduces the former per-cell access
+ * (datasource then column hash lookups) and is the baseline for the getter benchmarks. The int
+ * getters only read the int columns of the {@link BenchmarkData} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MongoResultSetBenchmark {
+    @Param({"5", "50", "500"})
+    public int columns;
+
+    @Param({"1000"})
+    public int rows;
+
+    private MongoLogger logger;
+    private MongoJsonSchema schema;
+    private List<BsonDocument> docs;
+    private String[] labels;
+    private int[] intColumns;
+    private MongoColumnInfo[] columnInfos;
+
+    @Setup
+    public void setup() throws SQLException {
+        logger = BenchmarkData.logger();
+        schema = BenchmarkData.resultSetSchema(columns);
+        docs = BenchmarkData.rows(columns, rows);
+        labels = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            labels[c] = BenchmarkData.label(c);
+        }
+        intColumns = IntStream.range(0, columns).filter(BenchmarkData::isInt).toArray();
+
+        MongoResultSetMetaData metaData =
+                (MongoResultSetMetaData) newResultSet().getMetaData();
+        columnInfos = new MongoColumnInfo[columns];
+        for (int c = 0; c < columns; c++) {
+            columnInfos[c] = metaData.getColumnInfo(c + 1);
+        }
+    }
+
+    private MongoResultSet newResultSet() throws SQLException {
+        return new MongoResultSet(logger, new BsonExplicitCursor(docs), schema);
+    }
+
+    @Benchmark
+    public void getIntByIndex(Blackhole bh) throws SQLException {
+        MongoResultSet rs = newResultSet();
+        while (rs.next()) {
+            for (int c : intColumns) {
+                bh.consume(rs.getInt(c + 1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getIntByLabel(Blackhole bh) throws SQLException {
+        MongoResultSet rs = newResultSet();
+        while (rs.next()) {
+            for (int c : intColumns) {
+                bh.consume(rs.getInt(labels[c]));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getStringByIndex(Blackhole bh) throws SQLException {
+        MongoResultSet rs = newResultSet();
+        while (rs.next()) {
+            for (int c = 1; c <= columns; c++) {
+                bh.consume(rs.getString(c));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getObjectByIndex(Blackhole bh) throws SQLException {
+        MongoResultSet rs = newResultSet();
+        while (rs.next()) {
+            for (int c = 1; c <= columns; c++) {
+                bh.consume(rs.getObject(c));
+            }
+        }
+    }
+
+    @Benchmark
+    public void nestedDocumentLookup(Blackhole bh) throws SQLException {
+        MongoResultSet rs = newResultSet();
+        while (rs.next()) {
+            BsonDocument row = rs.getCurrent();
+            for (int c = 0; c < columns; c++) {
+                MongoColumnInfo columnInfo = columnInfos[c];
+                bh.consume(
+                        row.get(columnInfo.getTableName())
+                                .asDocument()
+                                .get(columnInfo.getColumnName()));
+            }
+        }
+    }
+}
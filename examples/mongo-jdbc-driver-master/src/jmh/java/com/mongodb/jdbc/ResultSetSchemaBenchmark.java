@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.mongosql.TranslateResult;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per query work on the result set schema: decoding it from the mongosqltranslate or Atlas Data
+ * Federation response, then building the result set metadata from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSetSchemaBenchmark {
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    @Param({"5", "50", "500"})
+    public int columns;
+
+    private MongoLogger logger;
+    private MongoJsonSchema schema;
+    private List<List<String>> selectOrder;
+    private BsonDocument translateResponse;
+    private BsonDocument sqlGetResultSchemaResponse;
+    private Codec<TranslateResult> translateResultCodec;
+    private Codec<MongoJsonSchemaResult> schemaResultCodec;
+
+    @Setup
+    public void setup() {
+        logger = BenchmarkData.logger();
+        schema = BenchmarkData.resultSetSchema(columns);
+
+        selectOrder = new ArrayList<>(columns);
+        List<BsonValue> bsonSelectOrder = new ArrayList<>(columns);
+        for (int c = 0; c < columns; c++) {
+            selectOrder.add(Arrays.asList(BenchmarkData.DATASOURCE, BenchmarkData.label(c)));
+            bsonSelectOrder.add(
+                    new BsonArray(
+                            Arrays.asList(
+                                    new BsonString(BenchmarkData.DATASOURCE),
+                                    new BsonString(BenchmarkData.label(c)))));
+        }
+
+        BsonDocument schemaDocument = BenchmarkData.resultSetSchemaDocument(columns);
+        translateResponse =
+                new BsonDocument("target_db", new BsonString("test"))
+                        .append("target_collection", new BsonString("foo"))
+                        .append("pipeline", new BsonArray())
+                        .append("result_set_schema", schemaDocument)
+                        .append("select_order", new BsonArray(bsonSelectOrder));
+        sqlGetResultSchemaResponse =
+                new BsonDocument("ok", new BsonInt32(1))
+                        .append(
+                                "schema",
+                                new BsonDocument("version", new BsonInt32(1))
+                                        .append("jsonSchema", schemaDocument))
+                        .append("selectOrder", new BsonArray(bsonSelectOrder));
+
+        translateResultCodec = MongoDriver.getCodecRegistry().get(TranslateResult.class);
+        schemaResultCodec = MongoDriver.getCodecRegistry().get(MongoJsonSchemaResult.class);
+    }
+
+    @Benchmark
+    public TranslateResult decodeTranslateResult() {
+        return translateResultCodec.decode(
+                new BsonDocumentReader(translateResponse), DECODER_CONTEXT);
+    }
+
+    @Benchmark
+    public MongoJsonSchemaResult decodeSqlGetResultSchema() {
+        return schemaResultCodec.decode(
+                new BsonDocumentReader(sqlGetResultSchemaResponse), DECODER_CONTEXT);
+    }
+
+    @Benchmark
+    public MongoResultSetMetaData buildMetaData() throws SQLException {
+        return new MongoResultSetMetaData(schema, null, true, logger, null, null);
+    }
+
+    @Benchmark
+    public MongoResultSetMetaData buildMetaDataWithSelectOrder() throws SQLException {
+        return new MongoResultSetMetaData(schema, selectOrder, true, logger, null, null);
+    }
+}
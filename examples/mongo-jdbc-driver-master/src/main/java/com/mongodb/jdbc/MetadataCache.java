@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.utils.LruCache;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bson.BsonDocument;
+
+/**
+ * Rows of DatabaseMetaData result sets, shared by all the connections using the same MongoClient.
+ * Tools call getTables or getColumns for every table they display, this serves the repeated calls
+ * without listing the collections and sampling their schemas again.
+ *
+ * <p>Entries are keyed on the metadata method, the catalog and the other arguments of the call.
+ * The metadata cache settings are per connection: the time-to-live is applied when the rows are
+ * looked up and the maximum size when they are inserted. Applications creating collections can
+ * {@link #invalidate(String)} their catalog. Cached rows are shared and must not be modified.
+ */
+public class MetadataCache {
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final Map<MongoClient, MetadataCache> CACHES = new WeakHashMap<>();
+
+    private final LruCache<List<Object>, List<BsonDocument>> entries =
+            new LruCache<>(DEFAULT_MAX_SIZE);
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Returns the cache associated to the given client, creating it if needed.
+     *
+     * @param client The MongoClient the metadata is read with.
+     * @return the cache for this client.
+     */
+    public static MetadataCache forClient(MongoClient client) {
+        synchronized (CACHES) {
+            return CACHES.computeIfAbsent(client, c -> new MetadataCache());
+        }
+    }
+
+    private static List<Object> key(String method, String catalog, Object... args) {
+        List<Object> key = new ArrayList<>(args.length + 2);
+        key.add(method);
+        key.add(catalog);
+        key.addAll(Arrays.asList(args));
+        return key;
+    }
+
+    /**
+     * Returns the cached rows of a metadata call.
+     *
+     * @param method The name of the DatabaseMetaData method.
+     * @param catalog The catalog argument of the call, null for all the catalogs.
+     * @param ttlMs How long, in milliseconds, rows can be served after they were computed.
+     * @param args The other arguments of the call.
+     * @return the rows, or null if they are not cached or have expired.
+     */
+    public List<BsonDocument> get(String method, String catalog, long ttlMs, Object... args) {
+        return entries.get(key(method, catalog, args), ttlMs);
+    }
+
+    /**
+     * Caches the rows of a metadata call, evicting the least recently used entries past the given
+     * size.
+     *
+     * @param method The name of the DatabaseMetaData method.
+     * @param catalog The catalog argument of the call, null for all the catalogs.
+     * @param rows The rows of the result set.
+     * @param maxSize The maximum number of entries to keep.
+     * @param args The other arguments of the call.
+     */
+    public void put(
+            String method, String catalog, List<BsonDocument> rows, int maxSize, Object... args) {
+        entries.put(key(method, catalog, args), Collections.unmodifiableList(rows), maxSize);
+    }
+
+    /**
+     * Drops the entries of a catalog, including the entries of calls over all the catalogs.
+     *
+     * @param catalog The catalog (database) name.
+     */
+    public void invalidate(String catalog) {
+        // The catalog is the second element of every key
+        if (entries.removeIf((k, v) -> k.get(1) == null || Objects.equals(k.get(1), catalog))
+                > 0) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /** Drops every cached entry. */
+    public void clear() {
+        if (entries.clear() > 0) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return entries.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /** @return the fraction of the lookups served from the cache, 0 if there was none. */
+    public double getHitRate() {
+        return entries.getHitRate();
+    }
+
+    @Override
+    public String toString() {
+        return "MetadataCache{" + entries + ", invalidations=" + invalidations.get() + "}";
+    }
+}
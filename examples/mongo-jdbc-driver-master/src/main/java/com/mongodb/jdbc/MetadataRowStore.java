@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
+import org.bson.BsonDocument;
+import org.bson.BsonElement;
+import org.bson.BsonNull;
+import org.bson.BsonValue;
+
+/**
+ * Column oriented storage for the rows of a metadata result set.
+ *
+ * <p>The columns are the fields of the result set schema. Each row is given as the list of its
+ * fields, whose values are appended straight to the array of their column, and the sort keys are
+ * extracted once per row into typed arrays that the sort compares directly. No document is built
+ * per row until the sorted rows are read: they are exposed as a read-only list of documents, each
+ * document being built when it is read.
+ */
+class MetadataRowStore {
+    private final String datasource;
+    private final SortableBsonDocument.SortSpec[] sortSpecs;
+    private final String[] columns;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    // The column of each sort key
+    private final int[] sortColumns;
+    // values[c][r] is the value of column c in row r, in insertion order
+    private final BsonValue[][] values;
+    // sortKeys[k][r] is the k-th sort key of row r: a String[], an int[] or a boolean[]
+    private final Object[] sortKeys;
+    private int[] order;
+    private int size;
+    private int capacity = 16;
+
+    /**
+     * @param datasource The name of the datasource the fields of the rows are nested under.
+     * @param schema The schema of the result set, its datasource holds the columns.
+     * @param sortSpecs The sort keys, in order of precedence.
+     */
+    MetadataRowStore(
+            String datasource,
+            MongoJsonSchema schema,
+            List<SortableBsonDocument.SortSpec> sortSpecs) {
+        this.datasource = datasource;
+        this.columns =
+                schema.properties.get(datasource).properties.keySet().toArray(new String[0]);
+        for (int c = 0; c < columns.length; c++) {
+            columnIndexes.put(columns[c], c);
+        }
+        this.values = new BsonValue[columns.length][capacity];
+        this.sortSpecs = sortSpecs.toArray(new SortableBsonDocument.SortSpec[0]);
+        this.sortColumns = new int[this.sortSpecs.length];
+        this.sortKeys = new Object[this.sortSpecs.length];
+        for (int k = 0; k < this.sortSpecs.length; k++) {
+            Integer column = columnIndexes.get(this.sortSpecs[k].key);
+            if (column == null) {
+                throw new IllegalArgumentException(
+                        "Sort key " + this.sortSpecs[k].key + " is not a column of the schema");
+            }
+            sortColumns[k] = column;
+            sortKeys[k] = newKeys(this.sortSpecs[k].type, capacity);
+        }
+    }
+
+    /**
+     * Stores and sorts rows, with the same order as sorting them as {@link SortableBsonDocument}s.
+     *
+     * @param datasource The name of the datasource the fields of the rows are nested under.
+     * @param schema The schema of the result set, its datasource holds the columns.
+     * @param rows The fields of each row.
+     * @param sortSpecs The sort keys, in order of precedence.
+     * @return the sorted rows.
+     */
+    static List<BsonDocument> sorted(
+            String datasource,
+            MongoJsonSchema schema,
+            Stream<BsonElement[]> rows,
+            List<SortableBsonDocument.SortSpec> sortSpecs) {
+        MetadataRowStore store = new MetadataRowStore(datasource, schema, sortSpecs);
+        rows.forEachOrdered(store::add);
+        store.sort();
+        return store.asList();
+    }
+
+    private static Object newKeys(SortableBsonDocument.ValueType type, int capacity) {
+        switch (type) {
+            case String:
+                return new String[capacity];
+            case Int:
+                return new int[capacity];
+            default:
+                return new boolean[capacity];
+        }
+    }
+
+    private static Object growKeys(Object keys, int capacity) {
+        if (keys instanceof String[]) {
+            return Arrays.copyOf((String[]) keys, capacity);
+        } else if (keys instanceof int[]) {
+            return Arrays.copyOf((int[]) keys, capacity);
+        }
+        return Arrays.copyOf((boolean[]) keys, capacity);
+    }
+
+    /**
+     * Adds a row. The columns missing from the row are null, and the fields which are not columns
+     * of the schema are ignored.
+     *
+     * @param fields The fields of the row.
+     */
+    void add(BsonElement... fields) {
+        if (size == capacity) {
+            grow();
+        }
+        for (int i = 0; i < fields.length; i++) {
+            String name = fields[i].getName();
+            // The fields are usually listed in the order of the columns
+            Integer c =
+                    (i < columns.length && columns[i].equals(name))
+                            ? Integer.valueOf(i)
+                            : columnIndexes.get(name);
+            if (c != null) {
+                values[c][size] = fields[i].getValue();
+            }
+        }
+        for (int k = 0; k < sortSpecs.length; k++) {
+            BsonValue key = values[sortColumns[k]][size];
+            switch (sortSpecs[k].type) {
+                case String:
+                    ((String[]) sortKeys[k])[size] = key.asString().getValue();
+                    break;
+                case Int:
+                    ((int[]) sortKeys[k])[size] = key.asInt32().getValue();
+                    break;
+                case Boolean:
+                    ((boolean[]) sortKeys[k])[size] = key.asBoolean().getValue();
+                    break;
+            }
+        }
+        size++;
+        order = null;
+    }
+
+    private void grow() {
+        capacity = size * 2;
+        for (int c = 0; c < columns.length; c++) {
+            values[c] = Arrays.copyOf(values[c], capacity);
+        }
+        for (int k = 0; k < sortKeys.length; k++) {
+            sortKeys[k] = growKeys(sortKeys[k], capacity);
+        }
+    }
+
+    /** Sorts the rows on the sort keys. Rows with equal keys keep their insertion order. */
+    void sort() {
+        int[] sorted = new int[size];
+        for (int r = 0; r < size; r++) {
+            sorted[r] = r;
+        }
+        mergeSort(sorted, new int[size], 0, size);
+        order = sorted;
+    }
+
+    private void mergeSort(int[] rows, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid);
+        mergeSort(rows, buffer, mid, to);
+        if (compare(rows[mid - 1], rows[mid]) <= 0) {
+            // Already in order
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int r = from; r < to; r++) {
+            if (j >= to || (i < mid && compare(buffer[i], buffer[j]) <= 0)) {
+                rows[r] = buffer[i++];
+            } else {
+                rows[r] = buffer[j++];
+            }
+        }
+    }
+
+    private int compare(int a, int b) {
+        for (Object keys : sortKeys) {
+            int r;
+            if (keys instanceof String[]) {
+                r = ((String[]) keys)[a].compareTo(((String[]) keys)[b]);
+            } else if (keys instanceof int[]) {
+                r = Integer.compare(((int[]) keys)[a], ((int[]) keys)[b]);
+            } else {
+                r = Boolean.compare(((boolean[]) keys)[a], ((boolean[]) keys)[b]);
+            }
+            if (r != 0) {
+                return r;
+            }
+        }
+        return 0;
+    }
+
+    /** @return the number of rows. */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param index The position of the row, in sorted order once sorted.
+     * @return a new document holding the row.
+     */
+    BsonDocument getRow(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int r = (order != null) ? order[index] : index;
+        BsonDocument fields = new BsonDocument();
+        for (int c = 0; c < columns.length; c++) {
+            BsonValue value = values[c][r];
+            fields.put(columns[c], (value == null) ? BsonNull.VALUE : value);
+        }
+        return new BsonDocument(datasource, fields);
+    }
+
+    /**
+     * Returns a read-only view of the rows, in sorted order once sorted. Each read of an element
+     * builds a new document, so callers such as {@link BsonExplicitCursor} should read each row
+     * once.
+     *
+     * @return the rows.
+     */
+    List<BsonDocument> asList() {
+        return new RowList();
+    }
+
+    private class RowList extends AbstractList<BsonDocument> implements RandomAccess {
+        @Override
+        public BsonDocument get(int index) {
+            return getRow(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
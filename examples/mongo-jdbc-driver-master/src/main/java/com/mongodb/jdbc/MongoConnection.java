@@ -30,10 +30,14 @@ import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.jdbc.logging.AutoLoggable;
 import com.mongodb.jdbc.logging.DisableAutoLogging;
+import com.mongodb.jdbc.logging.LogSampling;
 import com.mongodb.jdbc.logging.MongoLogger;
 import com.mongodb.jdbc.logging.MongoSimpleFormatter;
+import com.mongodb.jdbc.logging.SlowQueryLog;
+import com.mongodb.jdbc.metrics.DriverMetrics;
 import com.mongodb.jdbc.mongosql.MongoSQLException;
 import com.mongodb.jdbc.mongosql.MongoSQLTranslate;
+import com.mongodb.jdbc.mongosql.SchemaCatalogCache;
 import com.mongodb.jdbc.oidc.JdbcOidcCallback;
 import com.mongodb.jdbc.utils.X509Authentication;
 import java.io.File;
@@ -69,6 +73,33 @@ public class MongoConnection implements Connection {
     private static Map<String, FileHandler> fileHandlers = new HashMap<String, FileHandler>();
     private String logDirPath;
     private boolean extJsonMode;
+    // Whether result rows are fetched as raw BSON and only decoded when accessed.
+    private boolean lazyDecode;
+    // Number of rows read ahead on a background thread, 0 to disable prefetching.
+    private int prefetchDepth;
+    private long prefetchMaxBytes;
+    // Maximum number of concurrent requests of a DatabaseMetaData lookup, 1 runs them serially.
+    private int metadataConcurrency;
+    // Cached DatabaseMetaData rows are served for this long, 0 disables the cache.
+    private long metadataCacheTtlMs;
+    private int metadataCacheSize;
+    private MetadataCache metadataCache;
+    // Result schemas of Atlas Data Federation queries are served for this long, 0 disables the
+    // cache. Set with the schemacachettl property, like the schema cache of direct clusters.
+    private long resultSchemaCacheTtlMs;
+    private ResultSchemaCache resultSchemaCache;
+    // The schema cache retained by this connection to watch __sql_schemas, if any
+    private SchemaCatalogCache watchedSchemaCache;
+    // Rows of scrollable result sets are kept in memory up to this size, then in a temporary file.
+    private long scrollMaxBytes;
+    // Whether the metrics of the connection and of its client are registered as MBeans.
+    private boolean jmxMetrics;
+    private DriverMetrics metrics;
+    // Queries slower than this are written to the slow query log, 0 disables it.
+    private long slowQueryThresholdMs;
+    // Whether the pipeline of slow queries is explained, in the background.
+    private boolean slowQueryExplain;
+    private SlowQueryLog slowQueryLog;
     private UuidRepresentation uuidRepresentation;
     private String appName;
     private MongoSQLTranslate mongosqlTranslate;
@@ -109,6 +140,7 @@ public class MongoConnection implements Connection {
                 hashCode(),
                 connectionProperties.getLogLevel(),
                 connectionProperties.getLogDir());
+        this.logger.setLogSampling(LogSampling.parse(connectionProperties.getLogSampling()));
 
         Preconditions.checkNotNull(connectionProperties.getConnectionString());
         initializeConnection(connectionProperties);
@@ -127,6 +159,46 @@ public class MongoConnection implements Connection {
         } else {
             this.mongoClient = mongoClient;
         }
+
+        // The metadata cache is shared by all the connections using the same client
+        this.metadataCache = MetadataCache.forClient(this.mongoClient);
+        this.resultSchemaCache = ResultSchemaCache.forClient(this.mongoClient);
+        // The metrics of the connection are added to the metrics of its client
+        this.metrics = DriverMetrics.forClient(this.mongoClient).forConnection(connectionId);
+        this.metrics.connectionOpened();
+        if (jmxMetrics) {
+            this.metrics.registerMBeans(logger);
+        }
+        if (slowQueryThresholdMs > 0) {
+            if (connectionProperties.getLogDir() == null) {
+                logger.log(
+                        Level.WARNING,
+                        "The slow query log is disabled, it is written to the log directory and "
+                                + MongoDriver.MongoJDBCProperty.LOG_DIR.getPropertyName()
+                                + " is not set");
+            } else {
+                try {
+                    this.slowQueryLog = SlowQueryLog.open(connectionProperties.getLogDir());
+                } catch (IOException e) {
+                    logger.log(Level.SEVERE, "Failed to open the slow query log", e);
+                }
+            }
+        }
+
+        if (connectionProperties.getSchemaCacheTtlSec() > 0
+                || connectionProperties.getSchemaCacheWatch()) {
+            // The schema cache is shared by all the connections using the same client
+            SchemaCatalogCache schemaCache = SchemaCatalogCache.forClient(this.mongoClient);
+            this.mongosqlTranslate.enableSchemaCache(
+                    schemaCache,
+                    TimeUnit.SECONDS.toMillis(connectionProperties.getSchemaCacheTtlSec()),
+                    connectionProperties.getSchemaCacheWatch());
+            if (connectionProperties.getSchemaCacheWatch()) {
+                // Its change streams are closed once no connection is left to use them
+                schemaCache.retain();
+                this.watchedSchemaCache = schemaCache;
+            }
+        }
     }
 
     public MongoConnection(
@@ -147,10 +219,24 @@ public class MongoConnection implements Connection {
         this.user = connectionProperties.getConnectionString().getUsername();
         this.currentDB = connectionProperties.getDatabase();
         this.extJsonMode = connectionProperties.getExtJsonMode();
+        this.lazyDecode = connectionProperties.getLazyDecode();
+        this.prefetchDepth = connectionProperties.getPrefetchDepth();
+        this.prefetchMaxBytes = connectionProperties.getPrefetchMaxMemoryMb() * 1024L * 1024L;
+        this.metadataConcurrency = Math.max(1, connectionProperties.getMetadataConcurrency());
+        this.metadataCacheTtlMs =
+                TimeUnit.SECONDS.toMillis(connectionProperties.getMetadataCacheTtlSec());
+        this.metadataCacheSize = connectionProperties.getMetadataCacheSize();
+        this.scrollMaxBytes = connectionProperties.getScrollMaxMemoryMb() * 1024L * 1024L;
+        this.jmxMetrics = connectionProperties.getJmxMetrics();
+        this.slowQueryThresholdMs = connectionProperties.getSlowQueryThresholdMs();
+        this.slowQueryExplain = connectionProperties.getSlowQueryExplain();
+        this.resultSchemaCacheTtlMs =
+                TimeUnit.SECONDS.toMillis(connectionProperties.getSchemaCacheTtlSec());
         this.uuidRepresentation =
                 connectionProperties.getConnectionString().getUuidRepresentation();
         this.appName = buildAppName(connectionProperties);
-        this.mongosqlTranslate = new MongoSQLTranslate(this.logger);
+        this.mongosqlTranslate =
+                new MongoSQLTranslate(this.logger, connectionProperties.getTranslateCacheSizeMb());
 
         this.isClosed = false;
     }
@@ -300,6 +386,82 @@ public class MongoConnection implements Connection {
         return extJsonMode;
     }
 
+    boolean getLazyDecode() {
+        return lazyDecode;
+    }
+
+    int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    long getPrefetchMaxBytes() {
+        return prefetchMaxBytes;
+    }
+
+    long getScrollMaxBytes() {
+        return scrollMaxBytes;
+    }
+
+    int getMetadataConcurrency() {
+        return metadataConcurrency;
+    }
+
+    /**
+     * Returns the cache of DatabaseMetaData rows shared by the connections using the same client,
+     * for instance to invalidate it after a schema change or to read its hit rate. It is only used
+     * when the metadatacachettl property is set.
+     *
+     * @return the metadata cache of the client of this connection.
+     */
+    public MetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    long getMetadataCacheTtlMs() {
+        return metadataCacheTtlMs;
+    }
+
+    int getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    /**
+     * Returns the cache of Atlas Data Federation result schemas shared by the connections using
+     * the same client. It is only used when the schemacachettl property is set.
+     *
+     * @return the result schema cache of the client of this connection.
+     */
+    public ResultSchemaCache getResultSchemaCache() {
+        return resultSchemaCache;
+    }
+
+    long getResultSchemaCacheTtlMs() {
+        return resultSchemaCacheTtlMs;
+    }
+
+    /**
+     * Returns the metrics of this connection. They are exposed as MBeans, along with the metrics of
+     * its client, when the jmxmetrics property is set.
+     *
+     * @return the metrics of this connection.
+     */
+    public DriverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** @return the slow query log, or null if it is disabled. */
+    SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    boolean getSlowQueryExplain() {
+        return slowQueryExplain;
+    }
+
     UuidRepresentation getUuidRepresentation() {
         return uuidRepresentation;
     }
@@ -393,6 +555,16 @@ public class MongoConnection implements Connection {
             }
         }
 
+        metrics.connectionClosed();
+        if (jmxMetrics) {
+            metrics.unregisterMBeans(logger);
+        }
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+        if (watchedSchemaCache != null) {
+            watchedSchemaCache.release();
+        }
         isClosed = true;
     }
 
@@ -447,12 +619,24 @@ public class MongoConnection implements Connection {
     }
 
     // --------------------------JDBC 2.0-----------------------------
+
+    /**
+     * @return true if result sets of the given type and concurrency are supported. Result sets are
+     *     read only, and either forward only or scroll insensitive.
+     */
+    private static boolean isSupportedResultSet(int resultSetType, int resultSetConcurrency) {
+        return (resultSetType == ResultSet.TYPE_FORWARD_ONLY
+                        || resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE)
+                && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY;
+    }
+
     @Override
     public Statement createStatement(int resultSetType, int resultSetConcurrency)
             throws SQLException {
-        if (resultSetType == ResultSet.TYPE_FORWARD_ONLY
-                && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY) {
-            return createStatement();
+        if (isSupportedResultSet(resultSetType, resultSetConcurrency)) {
+            MongoStatement statement = (MongoStatement) createStatement();
+            statement.setResultSetType(resultSetType);
+            return statement;
         } else {
             throw new SQLFeatureNotSupportedException(
                     Thread.currentThread().getStackTrace()[1].toString());
@@ -462,9 +646,14 @@ public class MongoConnection implements Connection {
     @Override
     public PreparedStatement prepareStatement(
             String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        if (resultSetType == ResultSet.TYPE_FORWARD_ONLY
-                && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY) {
-            return prepareStatement(sql);
+        if (isSupportedResultSet(resultSetType, resultSetConcurrency)) {
+            try {
+                MongoStatement statement = new MongoStatement(this, currentDB);
+                statement.setResultSetType(resultSetType);
+                return new MongoPreparedStatement(sql, statement);
+            } catch (IllegalArgumentException e) {
+                throw new SQLException(e);
+            }
         } else {
             throw new SQLFeatureNotSupportedException(
                     Thread.currentThread().getStackTrace()[1].toString());
@@ -496,9 +685,8 @@ public class MongoConnection implements Connection {
     public Statement createStatement(
             int resultSetType, int resultSetConcurrency, int resultSetHoldability)
             throws SQLException {
-        if (resultSetType == ResultSet.TYPE_FORWARD_ONLY
-                && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY) {
-            return createStatement();
+        if (isSupportedResultSet(resultSetType, resultSetConcurrency)) {
+            return createStatement(resultSetType, resultSetConcurrency);
         } else {
             throw new SQLFeatureNotSupportedException(
                     Thread.currentThread().getStackTrace()[1].toString());
@@ -509,8 +697,12 @@ public class MongoConnection implements Connection {
     public PreparedStatement prepareStatement(
             String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
             throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        if (isSupportedResultSet(resultSetType, resultSetConcurrency)) {
+            return prepareStatement(sql, resultSetType, resultSetConcurrency);
+        } else {
+            throw new SQLFeatureNotSupportedException(
+                    Thread.currentThread().getStackTrace()[1].toString());
+        }
     }
 
     @Override
@@ -692,8 +884,7 @@ public class MongoConnection implements Connection {
 
         // We use createStatement to test the connection. Since we are not allowed
         // to set the timeout adhoc on the calls, we use Executor to run a blocked call with timeout.
-        ExecutorService executor = Executors.newCachedThreadPool();
-        Future<Void> future = executor.submit(new ConnValidation());
+        Future<Void> future = MongoExecutors.getTaskExecutor().submit(new ConnValidation());
 
         try {
             if (timeout > 0) {
@@ -703,7 +894,6 @@ public class MongoConnection implements Connection {
             }
         } finally {
             future.cancel(true);
-            executor.shutdown();
         }
     }
 
@@ -17,10 +17,15 @@
 package com.mongodb.jdbc;
 
 import com.mongodb.ConnectionString;
+import com.mongodb.jdbc.mongosql.TranslateCache;
 import java.io.File;
 import java.util.logging.Level;
 
 public class MongoConnectionProperties {
+    public static final int DEFAULT_PREFETCH_MAX_MEMORY_MB = 64;
+    public static final int DEFAULT_METADATA_CONCURRENCY = 8;
+    public static final int DEFAULT_SCROLL_MAX_MEMORY_MB = 16;
+
     private ConnectionString connectionString;
     private String database;
     private Level logLevel;
@@ -28,6 +33,20 @@ public class MongoConnectionProperties {
     private String clientInfo;
     private boolean extJsonMode;
     private String x509PemPath;
+    private int translateCacheSizeMb;
+    private long schemaCacheTtlSec;
+    private boolean schemaCacheWatch;
+    private boolean lazyDecode;
+    private int prefetchDepth;
+    private int prefetchMaxMemoryMb;
+    private String logSampling;
+    private int metadataConcurrency;
+    private long metadataCacheTtlSec;
+    private int metadataCacheSize;
+    private int scrollMaxMemoryMb;
+    private boolean jmxMetrics;
+    private long slowQueryThresholdMs;
+    private boolean slowQueryExplain;
 
     public MongoConnectionProperties(
             ConnectionString connectionString,
@@ -37,13 +56,179 @@ public class MongoConnectionProperties {
             String clientInfo,
             boolean extJsonMode,
             String x509PemPath) {
-        this.connectionString = connectionString;
-        this.database = database;
-        this.logLevel = logLevel;
-        this.logDir = logDir;
-        this.clientInfo = clientInfo;
-        this.extJsonMode = extJsonMode;
-        this.x509PemPath = x509PemPath;
+        this(
+                builder(connectionString)
+                        .database(database)
+                        .logLevel(logLevel)
+                        .logDir(logDir)
+                        .clientInfo(clientInfo)
+                        .extJsonMode(extJsonMode)
+                        .x509PemPath(x509PemPath));
+    }
+
+    private MongoConnectionProperties(Builder builder) {
+        this.connectionString = builder.connectionString;
+        this.database = builder.database;
+        this.logLevel = builder.logLevel;
+        this.logDir = builder.logDir;
+        this.clientInfo = builder.clientInfo;
+        this.extJsonMode = builder.extJsonMode;
+        this.x509PemPath = builder.x509PemPath;
+        this.translateCacheSizeMb = builder.translateCacheSizeMb;
+        this.schemaCacheTtlSec = builder.schemaCacheTtlSec;
+        this.schemaCacheWatch = builder.schemaCacheWatch;
+        this.lazyDecode = builder.lazyDecode;
+        this.prefetchDepth = builder.prefetchDepth;
+        this.prefetchMaxMemoryMb = builder.prefetchMaxMemoryMb;
+        this.logSampling = builder.logSampling;
+        this.metadataConcurrency = builder.metadataConcurrency;
+        this.metadataCacheTtlSec = builder.metadataCacheTtlSec;
+        this.metadataCacheSize = builder.metadataCacheSize;
+        this.scrollMaxMemoryMb = builder.scrollMaxMemoryMb;
+        this.jmxMetrics = builder.jmxMetrics;
+        this.slowQueryThresholdMs = builder.slowQueryThresholdMs;
+        this.slowQueryExplain = builder.slowQueryExplain;
+    }
+
+    /**
+     * @param connectionString The connection string.
+     * @return a builder of connection properties, the other properties having their default value.
+     */
+    public static Builder builder(ConnectionString connectionString) {
+        return new Builder(connectionString);
+    }
+
+    /** Builder of {@link MongoConnectionProperties}, each property is set by name. */
+    public static final class Builder {
+        private final ConnectionString connectionString;
+        private String database;
+        private Level logLevel;
+        private File logDir;
+        private String clientInfo;
+        private boolean extJsonMode;
+        private String x509PemPath;
+        private int translateCacheSizeMb = TranslateCache.DEFAULT_MAX_SIZE_MB;
+        private long schemaCacheTtlSec;
+        private boolean schemaCacheWatch;
+        private boolean lazyDecode;
+        private int prefetchDepth;
+        private int prefetchMaxMemoryMb = DEFAULT_PREFETCH_MAX_MEMORY_MB;
+        private String logSampling;
+        private int metadataConcurrency = DEFAULT_METADATA_CONCURRENCY;
+        private long metadataCacheTtlSec;
+        private int metadataCacheSize = MetadataCache.DEFAULT_MAX_SIZE;
+        private int scrollMaxMemoryMb = DEFAULT_SCROLL_MAX_MEMORY_MB;
+        private boolean jmxMetrics;
+        private long slowQueryThresholdMs;
+        private boolean slowQueryExplain;
+
+        private Builder(ConnectionString connectionString) {
+            this.connectionString = connectionString;
+        }
+
+        public Builder database(String database) {
+            this.database = database;
+            return this;
+        }
+
+        public Builder logLevel(Level logLevel) {
+            this.logLevel = logLevel;
+            return this;
+        }
+
+        public Builder logDir(File logDir) {
+            this.logDir = logDir;
+            return this;
+        }
+
+        public Builder clientInfo(String clientInfo) {
+            this.clientInfo = clientInfo;
+            return this;
+        }
+
+        public Builder extJsonMode(boolean extJsonMode) {
+            this.extJsonMode = extJsonMode;
+            return this;
+        }
+
+        public Builder x509PemPath(String x509PemPath) {
+            this.x509PemPath = x509PemPath;
+            return this;
+        }
+
+        public Builder translateCacheSizeMb(int translateCacheSizeMb) {
+            this.translateCacheSizeMb = translateCacheSizeMb;
+            return this;
+        }
+
+        public Builder schemaCacheTtlSec(long schemaCacheTtlSec) {
+            this.schemaCacheTtlSec = schemaCacheTtlSec;
+            return this;
+        }
+
+        public Builder schemaCacheWatch(boolean schemaCacheWatch) {
+            this.schemaCacheWatch = schemaCacheWatch;
+            return this;
+        }
+
+        public Builder lazyDecode(boolean lazyDecode) {
+            this.lazyDecode = lazyDecode;
+            return this;
+        }
+
+        public Builder prefetchDepth(int prefetchDepth) {
+            this.prefetchDepth = prefetchDepth;
+            return this;
+        }
+
+        public Builder prefetchMaxMemoryMb(int prefetchMaxMemoryMb) {
+            this.prefetchMaxMemoryMb = prefetchMaxMemoryMb;
+            return this;
+        }
+
+        public Builder logSampling(String logSampling) {
+            this.logSampling = logSampling;
+            return this;
+        }
+
+        public Builder metadataConcurrency(int metadataConcurrency) {
+            this.metadataConcurrency = metadataConcurrency;
+            return this;
+        }
+
+        public Builder metadataCacheTtlSec(long metadataCacheTtlSec) {
+            this.metadataCacheTtlSec = metadataCacheTtlSec;
+            return this;
+        }
+
+        public Builder metadataCacheSize(int metadataCacheSize) {
+            this.metadataCacheSize = metadataCacheSize;
+            return this;
+        }
+
+        public Builder scrollMaxMemoryMb(int scrollMaxMemoryMb) {
+            this.scrollMaxMemoryMb = scrollMaxMemoryMb;
+            return this;
+        }
+
+        public Builder jmxMetrics(boolean jmxMetrics) {
+            this.jmxMetrics = jmxMetrics;
+            return this;
+        }
+
+        public Builder slowQueryThresholdMs(long slowQueryThresholdMs) {
+            this.slowQueryThresholdMs = slowQueryThresholdMs;
+            return this;
+        }
+
+        public Builder slowQueryExplain(boolean slowQueryExplain) {
+            this.slowQueryExplain = slowQueryExplain;
+            return this;
+        }
+
+        public MongoConnectionProperties build() {
+            return new MongoConnectionProperties(this);
+        }
     }
 
     public ConnectionString getConnectionString() {
@@ -74,6 +259,62 @@ public class MongoConnectionProperties {
         return x509PemPath;
     }
 
+    public int getTranslateCacheSizeMb() {
+        return translateCacheSizeMb;
+    }
+
+    public long getSchemaCacheTtlSec() {
+        return schemaCacheTtlSec;
+    }
+
+    public boolean getSchemaCacheWatch() {
+        return schemaCacheWatch;
+    }
+
+    public boolean getLazyDecode() {
+        return lazyDecode;
+    }
+
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public int getPrefetchMaxMemoryMb() {
+        return prefetchMaxMemoryMb;
+    }
+
+    public String getLogSampling() {
+        return logSampling;
+    }
+
+    public int getMetadataConcurrency() {
+        return metadataConcurrency;
+    }
+
+    public long getMetadataCacheTtlSec() {
+        return metadataCacheTtlSec;
+    }
+
+    public int getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    public int getScrollMaxMemoryMb() {
+        return scrollMaxMemoryMb;
+    }
+
+    public boolean getJmxMetrics() {
+        return jmxMetrics;
+    }
+
+    public long getSlowQueryThresholdMs() {
+        return slowQueryThresholdMs;
+    }
+
+    public boolean getSlowQueryExplain() {
+        return slowQueryExplain;
+    }
+
     /*
      * Generate a unique key for the connection properties. This key is used to identify the connection properties in the
      * connection cache. Properties that do not differentiate a specific client such as the log level are not included in the key.
@@ -30,7 +30,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -182,6 +185,7 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
     private static final String FUNC_DEFAULT_CATALOG = "def";
     private static final String YES = "YES";
 
+    // Per JDBC spec, sort by TABLE_TYPE, TABLE_CAT, TABLE_SCHEM (omitted), and TABLE_NAME.
     private static final List<SortableBsonDocument.SortSpec> GET_TABLES_SORT_SPECS =
             Arrays.asList(
                     new SortableBsonDocument.SortSpec(
@@ -191,6 +195,8 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                     new SortableBsonDocument.SortSpec(
                             TABLE_NAME, SortableBsonDocument.ValueType.String));
 
+    // Per JDBC spec, sort by TABLE_CAT, TABLE_SCHEM (omitted), TABLE_NAME, and PRIVILEGE. Since
+    // all PRIVILEGEs are the same, we also omit that.
     private static final List<SortableBsonDocument.SortSpec> GET_TABLE_PRIVILEGES_SORT_SPECS =
             Arrays.asList(
                     new SortableBsonDocument.SortSpec(
@@ -198,6 +204,7 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                     new SortableBsonDocument.SortSpec(
                             TABLE_NAME, SortableBsonDocument.ValueType.String));
 
+    // Per JDBC spec, sort by TABLE_CAT, TABLE_SCHEM (omitted), TABLE_NAME and ORDINAL_POSITION.
     private static final List<SortableBsonDocument.SortSpec> GET_COLUMNS_SORT_SPECS =
             Arrays.asList(
                     new SortableBsonDocument.SortSpec(
@@ -207,6 +214,8 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                     new SortableBsonDocument.SortSpec(
                             ORDINAL_POSITION, SortableBsonDocument.ValueType.Int));
 
+    // Per JDBC spec, sort by COLUMN_NAME and PRIVILEGE. Since all PRIVILEGEs are the same, we
+    // just sort by COLUMN_NAME.
     private static final List<SortableBsonDocument.SortSpec> GET_COLUMN_PRIVILEGES_SORT_SPECS =
             Collections.singletonList(
                     new SortableBsonDocument.SortSpec(
@@ -217,6 +226,8 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                     new SortableBsonDocument.SortSpec(
                             COLUMN_NAME, SortableBsonDocument.ValueType.String));
 
+    // Per JDBC spec, sort by NON_UNIQUE, TYPE, INDEX_NAME, and ORDINAL_POSITION. Since TYPE is
+    // the same for every index, we omit it.
     private static final List<SortableBsonDocument.SortSpec> GET_INDEX_INFO_SORT_SPECS =
             Arrays.asList(
                     new SortableBsonDocument.SortSpec(
@@ -234,6 +245,14 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
 
     public static final Pattern DISALLOWED_DB_NAMES = Pattern.compile("admin|config|local|system");
 
+    // The type info, functions and client info properties never change for a driver version, so
+    // their result sets are built on first use and shared by all the connections. Threads racing
+    // to build one build identical results, and any of them can be kept.
+    private static volatile StaticResult typeInfo;
+    private static volatile StaticResult functions;
+    private static volatile StaticResult functionColumns;
+    private static volatile StaticResult clientInfoProperties;
+
     private final MongoConnection conn;
     private String serverVersion;
     private MongoLogger logger;
@@ -243,6 +262,38 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         logger = new MongoLogger(this.getClass().getCanonicalName(), conn.getLogger());
     }
 
+    /**
+     * The schema and rows of a result set whose content is fixed. The rows are only read by the
+     * result sets, each result set iterates over them with its own cursor.
+     */
+    private static class StaticResult {
+        private final MongoJsonSchema schema;
+        private final List<BsonDocument> rows;
+
+        StaticResult(MongoJsonSchema schema, List<BsonDocument> rows) {
+            this.schema = schema;
+            this.rows = Collections.unmodifiableList(rows);
+        }
+
+        MongoResultSet toResultSet(MongoLogger logger) throws SQLException {
+            return toResultSet(logger, rows);
+        }
+
+        MongoResultSet toResultSet(MongoLogger logger, List<BsonDocument> rows)
+                throws SQLException {
+            return new MongoResultSet(logger, new BsonExplicitCursor(rows), schema);
+        }
+    }
+
+    /**
+     * @param row A row of a metadata result set.
+     * @param field The name of a string field of the row.
+     * @return the value of the field.
+     */
+    private static String getBottomString(BsonDocument row, String field) {
+        return row.getDocument(BOT_NAME).getString(field).getValue();
+    }
+
     // For all methods in this class, the fields in the result set are nested
     // under the bottom namespace. This helper method takes result set fields
     // and nests them appropriately.
@@ -419,6 +470,83 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                 .filter(dbName -> filterEmptiesAndInternalDBs(dbName));
     }
 
+    /** Computes the rows of a metadata result set. */
+    private interface MetadataRows {
+        List<BsonDocument> get() throws SQLException;
+    }
+
+    /**
+     * Returns the rows of a metadata call from the metadata cache of the connection when the cache
+     * is enabled and holds fresh rows for the same arguments, computing and caching them otherwise.
+     *
+     * @param method The name of the DatabaseMetaData method.
+     * @param catalog The catalog argument of the call.
+     * @param rows Computes the sorted rows of the result set.
+     * @param args The other arguments of the call, as passed by the caller.
+     * @return the rows of the result set.
+     * @throws SQLException If the rows could not be computed.
+     */
+    private List<BsonDocument> getCachedRows(
+            String method, String catalog, MetadataRows rows, Object... args) throws SQLException {
+        long ttlMs = conn.getMetadataCacheTtlMs();
+        if (ttlMs <= 0) {
+            return rows.get();
+        }
+        MetadataCache cache = conn.getMetadataCache();
+        List<BsonDocument> cached = cache.get(method, catalog, ttlMs, args);
+        if (cached == null) {
+            cached = rows.get();
+            cache.put(method, catalog, cached, conn.getMetadataCacheSize(), args);
+        }
+        return cached;
+    }
+
+    /**
+     * Applies the function to each item, running up to the metadata concurrency of the connection
+     * at a time. The results are concatenated in the order of the items, whatever the order in
+     * which they complete, so the output does not depend on the concurrency. The first exception
+     * thrown by the function is rethrown once the running calls are done.
+     *
+     * @param items The items, typically database names or namespaces.
+     * @param f The function, typically running one or more commands.
+     * @return the concatenated results.
+     */
+    private <T, R> Stream<R> fanOut(List<T> items, Function<T, Stream<R>> f) {
+        int workers = Math.min(conn.getMetadataConcurrency(), items.size());
+        if (workers <= 1) {
+            return items.stream().flatMap(f);
+        }
+        AtomicReferenceArray<List<R>> results = new AtomicReferenceArray<>(items.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Runnable worker =
+                () -> {
+                    int i;
+                    while (failure.get() == null && (i = next.getAndIncrement()) < items.size()) {
+                        try {
+                            results.set(i, f.apply(items.get(i)).collect(Collectors.toList()));
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }
+                };
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers - 1);
+        for (int w = 1; w < workers; w++) {
+            futures.add(CompletableFuture.runAsync(worker, MongoExecutors.getTaskExecutor()));
+        }
+        // The calling thread is one of the workers
+        worker.run();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        List<R> all = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            all.addAll(results.get(i));
+        }
+        return all.stream();
+    }
+
     // Helper for getting a list of collection names from the db
     // Using runCommand instead of listCollections as listCollections does not support authorizedCollections option
     private ArrayList<MongoListTablesResult> getCollectionsFromRunCommand(MongoDatabase db) {
@@ -439,51 +567,47 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         return getCollectionsFromRunCommand(db).stream().filter(filter::apply);
     }
 
-    // Helper for creating BSON documents for the getTables method. Intended for use
+    // Helper for creating the fields of a row for the getTables method. Intended for use
     // with the getTableDataFromDB helper method which is shared between getTables and
     // getTablePrivileges.
-    private BsonDocument toGetTablesDoc(String dbName, MongoListTablesResult res) {
-        return createSortableBottomBson(
-                // Per JDBC spec, sort by  TABLE_TYPE, TABLE_CAT, TABLE_SCHEM (omitted), and
-                // TABLE_NAME.
-                GET_TABLES_SORT_SPECS,
-                new BsonElement(TABLE_CAT, new BsonString(dbName)),
-                new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
-                new BsonElement(TABLE_NAME, new BsonString(res.name)),
-                new BsonElement(TABLE_TYPE, new BsonString(res.type)),
-                new BsonElement(REMARKS, BsonNull.VALUE),
-                new BsonElement(TYPE_CAT, BsonNull.VALUE),
-                new BsonElement(TYPE_SCHEM, BsonNull.VALUE),
-                new BsonElement(TYPE_NAME, BsonNull.VALUE),
-                new BsonElement(SELF_REFERENCING_COL_NAME, BsonNull.VALUE),
-                new BsonElement(REF_GENERATION, BsonNull.VALUE));
-    }
-
-    // Helper for creating BSON documents for the getTablePrivileges method. Intended
+    private BsonElement[] toGetTablesRow(String dbName, MongoListTablesResult res) {
+        return new BsonElement[] {
+            new BsonElement(TABLE_CAT, new BsonString(dbName)),
+            new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
+            new BsonElement(TABLE_NAME, new BsonString(res.name)),
+            new BsonElement(TABLE_TYPE, new BsonString(res.type)),
+            new BsonElement(REMARKS, BsonNull.VALUE),
+            new BsonElement(TYPE_CAT, BsonNull.VALUE),
+            new BsonElement(TYPE_SCHEM, BsonNull.VALUE),
+            new BsonElement(TYPE_NAME, BsonNull.VALUE),
+            new BsonElement(SELF_REFERENCING_COL_NAME, BsonNull.VALUE),
+            new BsonElement(REF_GENERATION, BsonNull.VALUE)
+        };
+    }
+
+    // Helper for creating the fields of a row for the getTablePrivileges method. Intended
     // for use with the getTableDataFromDB helper method which is shared between getTables
     // and getTablePrivileges.
-    private BsonDocument toGetTablePrivilegesDoc(String dbName, MongoListTablesResult res) {
-        return createSortableBottomBson(
-                // Per JDBC spec, sort by  TABLE_CAT, TABLE_SCHEM (omitted), TABLE_NAME, and
-                // PRIVILEGE. Since all PRIVILEGEs are the same, we also omit that.
-                GET_TABLE_PRIVILEGES_SORT_SPECS,
-                new BsonElement(TABLE_CAT, new BsonString(dbName)),
-                new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
-                new BsonElement(TABLE_NAME, new BsonString(res.name)),
-                new BsonElement(GRANTOR, BsonNull.VALUE),
-                new BsonElement(GRANTEE, BSON_EMPTY_STR_VALUE),
-                new BsonElement(PRIVILEGE, new BsonString("SELECT")),
-                new BsonElement(IS_GRANTABLE, BsonNull.VALUE));
+    private BsonElement[] toGetTablePrivilegesRow(String dbName, MongoListTablesResult res) {
+        return new BsonElement[] {
+            new BsonElement(TABLE_CAT, new BsonString(dbName)),
+            new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
+            new BsonElement(TABLE_NAME, new BsonString(res.name)),
+            new BsonElement(GRANTOR, BsonNull.VALUE),
+            new BsonElement(GRANTEE, BSON_EMPTY_STR_VALUE),
+            new BsonElement(PRIVILEGE, new BsonString("SELECT")),
+            new BsonElement(IS_GRANTABLE, BsonNull.VALUE)
+        };
     }
 
     // Helper for getting table data for all tables from a specific database. Used by
     // getTables and getTablePrivileges. The caller specifies how to serialize the table
-    // info into BSON documents for the result set.
-    private Stream<BsonDocument> getTableDataFromDB(
+    // info into the fields of the rows of the result set.
+    private Stream<BsonElement[]> getTableDataFromDB(
             String dbName,
             Pattern tableNamePatternRE,
             List<String> types,
-            BiFunction<String, MongoListTablesResult, BsonDocument> bsonSerializer) {
+            BiFunction<String, MongoListTablesResult, BsonElement[]> bsonSerializer) {
 
         // Filter out __sql_schemas, system.namespaces, system.indexes,system.profile,system.js,system.views
         return this.getTableDataFromDB(
@@ -1136,12 +1260,12 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
     //--------------------------JDBC 2.0-----------------------------
     @Override
     public boolean supportsResultSetType(int type) throws SQLException {
-        return type == ResultSet.TYPE_FORWARD_ONLY;
+        return type == ResultSet.TYPE_FORWARD_ONLY || type == ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     @Override
     public boolean supportsResultSetConcurrency(int type, int concurrency) throws SQLException {
-        return type == ResultSet.TYPE_FORWARD_ONLY && concurrency == ResultSet.CONCUR_READ_ONLY;
+        return supportsResultSetType(type) && concurrency == ResultSet.CONCUR_READ_ONLY;
     }
 
     @Override
@@ -1345,28 +1469,44 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         Pattern tableNamePatternRE = toJavaPattern(tableNamePattern);
         List<String> typesList = toTableTypeList(types);
 
-        Stream<BsonDocument> docs;
-        if (catalog == null) {
-            // If no catalog (database) is specified, get tables for all databases.
-            docs =
-                    this.getDatabaseNames()
-                            .flatMap(
-                                    dbName ->
-                                            getTableDataFromDB(
-                                                    dbName,
-                                                    tableNamePatternRE,
-                                                    typesList,
-                                                    this::toGetTablesDoc));
-        } else if (catalog.isEmpty()) {
-            // If catalog (database) is empty, we will return an empty result set because
-            // MongoDB does not support tables (collections) without databases.
-            docs = Stream.empty();
-        } else {
-            docs = getTableDataFromDB(catalog, tableNamePatternRE, typesList, this::toGetTablesDoc);
-        }
+        List<BsonDocument> docsList =
+                getCachedRows(
+                        "getTables",
+                        catalog,
+                        () -> {
+                            Stream<BsonElement[]> rows;
+                            if (catalog == null) {
+                                // If no catalog (database) is specified, get tables for all
+                                // databases.
+                                rows =
+                                        fanOut(
+                                                getDatabaseNames().collect(Collectors.toList()),
+                                                dbName ->
+                                                        getTableDataFromDB(
+                                                                dbName,
+                                                                tableNamePatternRE,
+                                                                typesList,
+                                                                this::toGetTablesRow));
+                            } else if (catalog.isEmpty()) {
+                                // If catalog (database) is empty, we will return an empty result
+                                // set because MongoDB does not support tables (collections)
+                                // without databases.
+                                rows = Stream.empty();
+                            } else {
+                                rows =
+                                        getTableDataFromDB(
+                                                catalog,
+                                                tableNamePatternRE,
+                                                typesList,
+                                                this::toGetTablesRow);
+                            }
 
-        // Collect to sorted list.
-        List<BsonDocument> docsList = docs.sorted().collect(Collectors.toList());
+                            // Collect to sorted list.
+                            return MetadataRowStore.sorted(
+                                    BOT_NAME, botSchema, rows, GET_TABLES_SORT_SPECS);
+                        },
+                        tableNamePattern,
+                        typesList);
         BsonExplicitCursor c = new BsonExplicitCursor(docsList);
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
@@ -1389,14 +1529,20 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
 
         BsonExplicitCursor c =
                 new BsonExplicitCursor(
-                        this.getDatabaseNames()
-                                .sorted()
-                                .map(
-                                        dbName ->
-                                                createBottomBson(
-                                                        new BsonElement(
-                                                                TABLE_CAT, new BsonString(dbName))))
-                                .collect(Collectors.toList()));
+                        getCachedRows(
+                                "getCatalogs",
+                                null,
+                                () ->
+                                        this.getDatabaseNames()
+                                                .sorted()
+                                                .map(
+                                                        dbName ->
+                                                                createBottomBson(
+                                                                        new BsonElement(
+                                                                                TABLE_CAT,
+                                                                                new BsonString(
+                                                                                        dbName))))
+                                                .collect(Collectors.toList())));
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
     }
@@ -1428,8 +1574,8 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
     }
 
     // Helper class for representing all info needed to serialize column data for the
-    // getColumns and getColumnPrivileges methods. Intended for use with toGetColumnsDoc
-    // and toGetColumnPrivilegesDoc helpers.
+    // getColumns and getColumnPrivileges methods. Intended for use with toGetColumnsRow
+    // and toGetColumnPrivilegesRow helpers.
     private static class GetColumnsDocInfo {
         String dbName;
         String tableName;
@@ -1459,10 +1605,10 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         }
     }
 
-    // Helper for creating BSON documents for the getColumns method. Intended for use
+    // Helper for creating the fields of a row for the getColumns method. Intended for use
     // with the getColumnsFromDB helper method which is shared between getColumns and
     // getColumnPrivileges.
-    private BsonDocument toGetColumnsDoc(GetColumnsDocInfo i) {
+    private BsonElement[] toGetColumnsRow(GetColumnsDocInfo i) {
         BsonValue isNullable =
                 i.nullability == columnNoNulls
                         ? BSON_NO_STR_VALUE
@@ -1470,56 +1616,50 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                                 ? BSON_YES_STR_VALUE
                                 : BSON_EMPTY_STR_VALUE;
 
-        return createSortableBottomBson(
-                // Per JDBC spec, sort by  TABLE_CAT, TABLE_SCHEM (omitted), TABLE_NAME and
-                // ORDINAL_POSITION.
-                GET_COLUMNS_SORT_SPECS,
-                new BsonElement(TABLE_CAT, new BsonString(i.dbName)),
-                new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
-                new BsonElement(TABLE_NAME, new BsonString(i.tableName)),
-                new BsonElement(COLUMN_NAME, new BsonString(i.columnName)),
-                new BsonElement(DATA_TYPE, new BsonInt32(i.columnBsonTypeInfo.getJdbcType())),
-                new BsonElement(TYPE_NAME, new BsonString(i.columnBsonTypeInfo.getBsonName())),
-                new BsonElement(COLUMN_SIZE, BsonNull.VALUE),
-                new BsonElement(BUFFER_LENGTH, BSON_ZERO_INT_VALUE),
-                new BsonElement(
-                        DECIMAL_DIGITS, asBsonIntOrNull(i.columnBsonTypeInfo.getDecimalDigits())),
-                new BsonElement(
-                        NUM_PREC_RADIX, new BsonInt32(i.columnBsonTypeInfo.getNumPrecRadix())),
-                new BsonElement(NULLABLE, new BsonInt32(i.nullability)),
-                new BsonElement(REMARKS, BSON_EMPTY_STR_VALUE),
-                new BsonElement(COLUMN_DEF, BsonNull.VALUE),
-                new BsonElement(SQL_DATA_TYPE, BSON_ZERO_INT_VALUE),
-                new BsonElement(SQL_DATETIME_SUB, BSON_ZERO_INT_VALUE),
-                new BsonElement(
-                        CHAR_OCTET_LENGTH,
-                        asBsonIntOrNull(i.columnBsonTypeInfo.getCharOctetLength())),
-                new BsonElement(ORDINAL_POSITION, new BsonInt32(i.idx)),
-                new BsonElement(IS_NULLABLE, isNullable),
-                new BsonElement(SCOPE_CATALOG, BsonNull.VALUE),
-                new BsonElement(SCOPE_SCHEMA, BsonNull.VALUE),
-                new BsonElement(SCOPE_TABLE, BsonNull.VALUE),
-                new BsonElement(SOURCE_DATA_TYPE, BSON_ZERO_INT_VALUE),
-                new BsonElement(IS_AUTOINCREMENT, BSON_NO_STR_VALUE),
-                new BsonElement(IS_GENERATEDCOLUMN, BSON_EMPTY_STR_VALUE));
-    }
-
-    // Helper for creating BSON documents for the getColumnPrivileges methods. Intended
+        return new BsonElement[] {
+            new BsonElement(TABLE_CAT, new BsonString(i.dbName)),
+            new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
+            new BsonElement(TABLE_NAME, new BsonString(i.tableName)),
+            new BsonElement(COLUMN_NAME, new BsonString(i.columnName)),
+            new BsonElement(DATA_TYPE, new BsonInt32(i.columnBsonTypeInfo.getJdbcType())),
+            new BsonElement(TYPE_NAME, new BsonString(i.columnBsonTypeInfo.getBsonName())),
+            new BsonElement(COLUMN_SIZE, BsonNull.VALUE),
+            new BsonElement(BUFFER_LENGTH, BSON_ZERO_INT_VALUE),
+            new BsonElement(
+                    DECIMAL_DIGITS, asBsonIntOrNull(i.columnBsonTypeInfo.getDecimalDigits())),
+            new BsonElement(NUM_PREC_RADIX, new BsonInt32(i.columnBsonTypeInfo.getNumPrecRadix())),
+            new BsonElement(NULLABLE, new BsonInt32(i.nullability)),
+            new BsonElement(REMARKS, BSON_EMPTY_STR_VALUE),
+            new BsonElement(COLUMN_DEF, BsonNull.VALUE),
+            new BsonElement(SQL_DATA_TYPE, BSON_ZERO_INT_VALUE),
+            new BsonElement(SQL_DATETIME_SUB, BSON_ZERO_INT_VALUE),
+            new BsonElement(
+                    CHAR_OCTET_LENGTH, asBsonIntOrNull(i.columnBsonTypeInfo.getCharOctetLength())),
+            new BsonElement(ORDINAL_POSITION, new BsonInt32(i.idx)),
+            new BsonElement(IS_NULLABLE, isNullable),
+            new BsonElement(SCOPE_CATALOG, BsonNull.VALUE),
+            new BsonElement(SCOPE_SCHEMA, BsonNull.VALUE),
+            new BsonElement(SCOPE_TABLE, BsonNull.VALUE),
+            new BsonElement(SOURCE_DATA_TYPE, BSON_ZERO_INT_VALUE),
+            new BsonElement(IS_AUTOINCREMENT, BSON_NO_STR_VALUE),
+            new BsonElement(IS_GENERATEDCOLUMN, BSON_EMPTY_STR_VALUE)
+        };
+    }
+
+    // Helper for creating the fields of a row for the getColumnPrivileges methods. Intended
     // for use with the getColumnsFromDB helper method which is shared between getColumns
     // and getColumnPrivileges.
-    private BsonDocument toGetColumnPrivilegesDoc(GetColumnsDocInfo i) {
-        return createSortableBottomBson(
-                // Per JDBC spec, sort by  COLUMN_NAME and PRIVILEGE. Since all PRIVILEGEs are the same,
-                // we just sort by COLUMN_NAME here.
-                GET_COLUMN_PRIVILEGES_SORT_SPECS,
-                new BsonElement(TABLE_CAT, new BsonString(i.dbName)),
-                new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
-                new BsonElement(TABLE_NAME, new BsonString(i.tableName)),
-                new BsonElement(COLUMN_NAME, new BsonString(i.columnName)),
-                new BsonElement(GRANTOR, BsonNull.VALUE),
-                new BsonElement(GRANTEE, BSON_EMPTY_STR_VALUE),
-                new BsonElement(PRIVILEGE, new BsonString("SELECT")),
-                new BsonElement(IS_GRANTABLE, BsonNull.VALUE));
+    private BsonElement[] toGetColumnPrivilegesRow(GetColumnsDocInfo i) {
+        return new BsonElement[] {
+            new BsonElement(TABLE_CAT, new BsonString(i.dbName)),
+            new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
+            new BsonElement(TABLE_NAME, new BsonString(i.tableName)),
+            new BsonElement(COLUMN_NAME, new BsonString(i.columnName)),
+            new BsonElement(GRANTOR, BsonNull.VALUE),
+            new BsonElement(GRANTEE, BSON_EMPTY_STR_VALUE),
+            new BsonElement(PRIVILEGE, new BsonString("SELECT")),
+            new BsonElement(IS_GRANTABLE, BsonNull.VALUE)
+        };
     }
 
     // Helper for ensuring a sqlGetSchema result is a valid collection schema. As in,
@@ -1530,82 +1670,142 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                 && res.schema.mongoJsonSchema.isObject();
     }
 
-    // Helper for getting column data for all columns from all tables from a specific
-    // database. Used by getColumns and getColumnPrivileges. The caller specifies how
-    // to serialize the column info into BSON documents for the result set.
-    private Stream<BsonDocument> getColumnsFromDB(
-            String dbName,
+    // Helper for getting column data for all columns from all tables from the argued
+    // databases. Used by getColumns and getColumnPrivileges. The caller specifies how
+    // to serialize the column info into the fields of the rows of the result set.
+    private Stream<BsonElement[]> getColumnsFromDBs(
+            List<String> dbNames,
             Pattern tableNamePatternRE,
             Pattern columnNamePatternRE,
-            Function<GetColumnsDocInfo, BsonDocument> bsonSerializer) {
+            Function<GetColumnsDocInfo, BsonElement[]> bsonSerializer) {
+        if (conn.getClusterType() == MongoConnection.MongoClusterType.Enterprise) {
+            // the schemas of all the collections of a database are fetched at once
+            return fanOut(
+                    dbNames,
+                    dbName ->
+                            getColumnsFromDB(
+                                    dbName,
+                                    tableNamePatternRE,
+                                    columnNamePatternRE,
+                                    bsonSerializer));
+        }
+
+        // list the (dbName, tableName) pairs of the collections matching the pattern
+        List<Pair<String, String>> namespaces =
+                fanOut(
+                                dbNames,
+                                dbName ->
+                                        getTableNamesFromDB(dbName, tableNamePatternRE)
+                                                .map(tableName -> new Pair<>(dbName, tableName)))
+                        .collect(Collectors.toList());
+
+        // retrieve the schema of each collection and map it into column docs
+        return fanOut(
+                namespaces,
+                ns -> getColumnsFromTable(ns, columnNamePatternRE, bsonSerializer));
+    }
+
+    // Helper for getting the names of the collections of a database matching the argued
+    // pattern, excluding the `__sql_schemas` collection and the system collections.
+    private Stream<String> getTableNamesFromDB(String dbName, Pattern tableNamePatternRE) {
         MongoDatabase db = this.conn.getDatabase(dbName).withCodecRegistry(MongoDriver.REGISTRY);
         return getCollectionsFromRunCommand(db)
                 .stream()
                 .map(collection -> collection.name)
-                .collect(Collectors.toList())
-                .stream()
-
-                // filter only for collections matching the pattern, and exclude the `__sql_schemas` collection
                 .filter(
                         tableName ->
                                 // Don't list system collections
                                 (!DISALLOWED_COLLECTION_NAMES.matcher(tableName).matches())
                                         && (tableNamePatternRE == null
-                                                || tableNamePatternRE.matcher(tableName).matches()))
+                                                || tableNamePatternRE
+                                                        .matcher(tableName)
+                                                        .matches()));
+    }
 
-                // map the collection names into triples of (dbName, tableName, tableSchema)
-                .map(
-                        tableName -> {
-                            try {
-                                return new Pair<>(
+    // Helper for getting column data for the columns of the collections of a database
+    // matching the argued pattern, with a single request for the schemas of all these
+    // collections. Only supported on Enterprise clusters, where the schemas are read from
+    // __sql_schemas.
+    private Stream<BsonElement[]> getColumnsFromDB(
+            String dbName,
+            Pattern tableNamePatternRE,
+            Pattern columnNamePatternRE,
+            Function<GetColumnsDocInfo, BsonElement[]> bsonSerializer) {
+        List<String> tableNames =
+                getTableNamesFromDB(dbName, tableNamePatternRE).collect(Collectors.toList());
+        if (tableNames.isEmpty()) {
+            return Stream.empty();
+        }
+        Map<String, MongoJsonSchemaResult> schemas =
+                conn.getMongosqlTranslate().getSchemas(conn.getDatabase(dbName), tableNames);
+        return tableNames
+                .stream()
+                .filter(tableName -> schemas.containsKey(tableName))
+                .flatMap(
+                        tableName ->
+                                getColumnsFromSchema(
                                         new Pair<>(dbName, tableName),
-                                        getSchemaByClusterType(db, tableName));
-                            } catch (MongoSQLException | MongoSerializationException e) {
-                                throw new RuntimeException(
-                                        "Error retrieving schema for: " + dbName + "." + tableName,
-                                        e);
-                            }
-                        })
+                                        schemas.get(tableName),
+                                        columnNamePatternRE,
+                                        bsonSerializer));
+    }
 
-                // filter only for collections that have schemas
-                .filter(p -> isValidSchema(p.right()))
+    // Helper for getting column data for the columns of a collection, if it has a schema.
+    private Stream<BsonElement[]> getColumnsFromTable(
+            Pair<String, String> ns,
+            Pattern columnNamePatternRE,
+            Function<GetColumnsDocInfo, BsonElement[]> bsonSerializer) {
+        MongoDatabase db =
+                this.conn.getDatabase(ns.left()).withCodecRegistry(MongoDriver.REGISTRY);
+        MongoJsonSchemaResult res;
+        try {
+            res = getSchemaByClusterType(db, ns.right());
+        } catch (MongoSQLException | MongoSerializationException e) {
+            throw new RuntimeException(
+                    "Error retrieving schema for: " + ns.left() + "." + ns.right(), e);
+        }
+        return getColumnsFromSchema(ns, res, columnNamePatternRE, bsonSerializer);
+    }
 
-                // flatMap the column data into a single stream of BSON docs
-                .flatMap(
-                        p -> {
-                            Pair<String, String> ns = p.left();
-                            MongoJsonSchemaResult res = p.right();
-                            AtomicInteger idx = new AtomicInteger();
-                            return res.schema
-                                    .mongoJsonSchema
-                                    .properties
-                                    .entrySet()
-                                    .stream()
-
-                                    // filter only for columns matching the pattern
-                                    .filter(
-                                            entry ->
-                                                    columnNamePatternRE == null
-                                                            || columnNamePatternRE
-                                                                    .matcher(entry.getKey())
-                                                                    .matches())
-
-                                    // sort by column name since ordinal position is
-                                    // based on column sort order
-                                    .sorted(Map.Entry.comparingByKey())
-
-                                    // map the (columnName, columnSchema) pairs into BSON docs
-                                    .map(
-                                            entry ->
-                                                    bsonSerializer.apply(
-                                                            new GetColumnsDocInfo(
-                                                                    ns.left(),
-                                                                    ns.right(),
-                                                                    entry.getKey(),
-                                                                    res.schema.mongoJsonSchema,
-                                                                    entry.getValue(),
-                                                                    idx.getAndIncrement())));
-                        });
+    // Helper for mapping the schema of a collection into column data, if it is a valid schema.
+    private Stream<BsonElement[]> getColumnsFromSchema(
+            Pair<String, String> ns,
+            MongoJsonSchemaResult res,
+            Pattern columnNamePatternRE,
+            Function<GetColumnsDocInfo, BsonElement[]> bsonSerializer) {
+        // filter only for collections that have schemas
+        if (!isValidSchema(res)) {
+            return Stream.empty();
+        }
+
+        AtomicInteger idx = new AtomicInteger();
+        return res.schema
+                .mongoJsonSchema
+                .properties
+                .entrySet()
+                .stream()
+
+                // filter only for columns matching the pattern
+                .filter(
+                        entry ->
+                                columnNamePatternRE == null
+                                        || columnNamePatternRE.matcher(entry.getKey()).matches())
+
+                // sort by column name since ordinal position is
+                // based on column sort order
+                .sorted(Map.Entry.comparingByKey())
+
+                // map the (columnName, columnSchema) pairs into BSON docs
+                .map(
+                        entry ->
+                                bsonSerializer.apply(
+                                        new GetColumnsDocInfo(
+                                                ns.left(),
+                                                ns.right(),
+                                                entry.getKey(),
+                                                res.schema.mongoJsonSchema,
+                                                entry.getValue(),
+                                                idx.getAndIncrement())));
     }
 
     private MongoJsonSchemaResult getSchemaByClusterType(MongoDatabase db, String tableName)
@@ -1659,38 +1859,49 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         Pattern tableNamePatternRE = toJavaPattern(tableNamePattern);
         Pattern columnNamePatternRE = toJavaPattern(columnNamePattern);
 
-        Stream<BsonDocument> docs;
-        if (catalog == null) {
-            // If no catalog (database) is specified, get columns for all databases.
-            docs =
-                    liftSQLException(
-                            () ->
-                                    this.getDatabaseNames()
-                                            .flatMap(
-                                                    dbName ->
-                                                            getColumnsFromDB(
-                                                                    dbName,
-                                                                    tableNamePatternRE,
-                                                                    columnNamePatternRE,
-                                                                    this::toGetColumnsDoc)));
-
-        } else if (catalog.isEmpty()) {
-            // If catalog (database) is empty, we will return an empty result set because
-            // MongoDB does not support tables (collections) without databases.
-            docs = Stream.empty();
-        } else {
-            docs =
-                    liftSQLException(
-                            () ->
-                                    getColumnsFromDB(
-                                            catalog,
-                                            tableNamePatternRE,
-                                            columnNamePatternRE,
-                                            this::toGetColumnsDoc));
-        }
+        List<BsonDocument> docsList =
+                getCachedRows(
+                        "getColumns",
+                        catalog,
+                        () -> {
+                            Stream<BsonElement[]> rows;
+                            if (catalog == null) {
+                                // If no catalog (database) is specified, get columns for all
+                                // databases.
+                                rows =
+                                        liftSQLException(
+                                                () ->
+                                                        getColumnsFromDBs(
+                                                                getDatabaseNames()
+                                                                        .collect(
+                                                                                Collectors
+                                                                                        .toList()),
+                                                                tableNamePatternRE,
+                                                                columnNamePatternRE,
+                                                                this::toGetColumnsRow));
+
+                            } else if (catalog.isEmpty()) {
+                                // If catalog (database) is empty, we will return an empty result
+                                // set because MongoDB does not support tables (collections)
+                                // without databases.
+                                rows = Stream.empty();
+                            } else {
+                                rows =
+                                        liftSQLException(
+                                                () ->
+                                                        getColumnsFromDBs(
+                                                                Collections.singletonList(catalog),
+                                                                tableNamePatternRE,
+                                                                columnNamePatternRE,
+                                                                this::toGetColumnsRow));
+                            }
 
-        // Collect to sorted list.
-        List<BsonDocument> docsList = docs.sorted().collect(Collectors.toList());
+                            // Collect to sorted list.
+                            return MetadataRowStore.sorted(
+                                    BOT_NAME, botSchema, rows, GET_COLUMNS_SORT_SPECS);
+                        },
+                        tableNamePattern,
+                        columnNamePattern);
         BsonExplicitCursor c = new BsonExplicitCursor(docsList);
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
@@ -1717,38 +1928,36 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         Pattern tableNamePatternRE = toJavaPattern(tableNamePattern);
         Pattern columnNamePatternRE = toJavaPattern(columnNamePattern);
 
-        Stream<BsonDocument> docs;
+        Stream<BsonElement[]> rows;
         if (catalog == null) {
             // If no catalog (database) is specified, get column privileges for all databases.
-            docs =
+            rows =
                     liftSQLException(
                             () ->
-                                    this.getDatabaseNames()
-                                            .flatMap(
-                                                    dbName ->
-                                                            getColumnsFromDB(
-                                                                    dbName,
-                                                                    tableNamePatternRE,
-                                                                    columnNamePatternRE,
-                                                                    this
-                                                                            ::toGetColumnPrivilegesDoc)));
+                                    getColumnsFromDBs(
+                                            getDatabaseNames().collect(Collectors.toList()),
+                                            tableNamePatternRE,
+                                            columnNamePatternRE,
+                                            this::toGetColumnPrivilegesRow));
         } else if (catalog.isEmpty()) {
             // If catalog (database) is empty, we will return an empty result set because
             // MongoDB does not support tables (collections) without databases.
-            docs = Stream.empty();
+            rows = Stream.empty();
         } else {
-            docs =
+            rows =
                     liftSQLException(
                             () ->
-                                    getColumnsFromDB(
-                                            catalog,
+                                    getColumnsFromDBs(
+                                            Collections.singletonList(catalog),
                                             tableNamePatternRE,
                                             columnNamePatternRE,
-                                            this::toGetColumnPrivilegesDoc));
+                                            this::toGetColumnPrivilegesRow));
         }
 
         // Collect to sorted list.
-        List<BsonDocument> docsList = docs.sorted().collect(Collectors.toList());
+        List<BsonDocument> docsList =
+                MetadataRowStore.sorted(
+                        BOT_NAME, botSchema, rows, GET_COLUMN_PRIVILEGES_SORT_SPECS);
         BsonExplicitCursor c = new BsonExplicitCursor(docsList);
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
@@ -1772,30 +1981,32 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         // schemaPattern argument.
         Pattern tableNamePatternRE = toJavaPattern(tableNamePattern);
 
-        Stream<BsonDocument> docs;
+        Stream<BsonElement[]> rows;
         if (catalog == null) {
             // If no catalog (database) is specified, get table privileges for all databases.
-            docs =
-                    this.getDatabaseNames()
-                            .flatMap(
-                                    dbName ->
-                                            getTableDataFromDB(
-                                                    dbName,
-                                                    tableNamePatternRE,
-                                                    null,
-                                                    this::toGetTablePrivilegesDoc));
+            rows =
+                    fanOut(
+                            getDatabaseNames().collect(Collectors.toList()),
+                            dbName ->
+                                    getTableDataFromDB(
+                                            dbName,
+                                            tableNamePatternRE,
+                                            null,
+                                            this::toGetTablePrivilegesRow));
         } else if (catalog.isEmpty()) {
             // If catalog (database) is empty, we will return an empty result set because
             // MongoDB does not support tables (collections) without databases.
-            docs = Stream.empty();
+            rows = Stream.empty();
         } else {
-            docs =
+            rows =
                     getTableDataFromDB(
-                            catalog, tableNamePatternRE, null, this::toGetTablePrivilegesDoc);
+                            catalog, tableNamePatternRE, null, this::toGetTablePrivilegesRow);
         }
 
         // Collect to sorted list.
-        List<BsonDocument> docsList = docs.sorted().collect(Collectors.toList());
+        List<BsonDocument> docsList =
+                MetadataRowStore.sorted(
+                        BOT_NAME, botSchema, rows, GET_TABLE_PRIVILEGES_SORT_SPECS);
         BsonExplicitCursor c = new BsonExplicitCursor(docsList);
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
@@ -1842,18 +2053,16 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                 // If no catalog (database) is specified, get first unique index for all databases that have a
                 // collection with the argued table name.
                 docs =
-                        this.getDatabaseNames()
-                                .flatMap(
-                                        dbName ->
-                                                getTableDataFromDB(
-                                                                dbName,
-                                                                res -> res.name.equals(table))
-                                                        .flatMap(
-                                                                r ->
-                                                                        getFirstUniqueIndexDocsForTable(
-                                                                                dbName,
-                                                                                r.name,
-                                                                                serializer)));
+                        fanOut(
+                                getDatabaseNames().collect(Collectors.toList()),
+                                dbName ->
+                                        getTableDataFromDB(dbName, res -> res.name.equals(table))
+                                                .flatMap(
+                                                        r ->
+                                                                getFirstUniqueIndexDocsForTable(
+                                                                        dbName,
+                                                                        r.name,
+                                                                        serializer)));
             } else if (catalog.isEmpty()) {
                 // If catalog (database) is empty, we will return an empty result set because
                 // MongoDB does not support tables (collections) without databases.
@@ -2107,13 +2316,25 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                 new MongoJsonSchema.ScalarProperties(SQL_DATA_TYPE, BSON_INT),
                 new MongoJsonSchema.ScalarProperties(SQL_DATETIME_SUB, BSON_INT),
                 new MongoJsonSchema.ScalarProperties(NUM_PREC_RADIX, BSON_INT));
-        return schema;
+
+        // All fields in this result set are nested under the bottom namespace.
+        MongoJsonSchema botSchema = MongoJsonSchema.createEmptyObjectSchema();
+        botSchema.properties.put(BOT_NAME, schema);
+        return botSchema;
     }
 
     @Override
     public ResultSet getTypeInfo() throws SQLException {
+        StaticResult result = typeInfo;
+        if (result == null) {
+            result = new StaticResult(getTypeInfoJsonSchema(), getTypeInfoDocs());
+            typeInfo = result;
+        }
+        return result.toResultSet(conn.getLogger());
+    }
+
+    private List<BsonDocument> getTypeInfoDocs() {
         ArrayList<BsonDocument> docs = new ArrayList<>();
-        MongoJsonSchema schema = getTypeInfoJsonSchema();
 
         // The following BSON Types are mostly ordered to follow the javadoc (i.e., they are ordered by DATA_TYPE).
         // However, instead of ordering all the BSON Types with DATA_TYPE == 1111 by how closely they map to the
@@ -2641,14 +2862,11 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                         new BsonElement(
                                 NUM_PREC_RADIX, new BsonInt32(BSON_UNDEFINED.getNumPrecRadix()))));
 
-        // All fields in this result set are nested under the bottom namespace.
-        MongoJsonSchema botSchema = MongoJsonSchema.createEmptyObjectSchema();
-        botSchema.properties.put(BOT_NAME, schema);
-        return new MongoResultSet(conn.getLogger(), new BsonExplicitCursor(docs), botSchema);
+        return docs;
     }
 
-    // Helper for creating stream of bson documents from the columns in the indexInfo doc.
-    private Stream<BsonDocument> toGetIndexInfoDocs(
+    // Helper for creating the fields of the rows from the columns in the indexInfo doc.
+    private Stream<BsonElement[]> toGetIndexInfoRows(
             String dbName, String tableName, Document indexInfo) {
         Boolean isUnique = indexInfo.getEmbedded(UNIQUE_KEY_PATH, Boolean.class);
         BsonValue nonUnique = new BsonBoolean(isUnique == null || !isUnique);
@@ -2676,30 +2894,28 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                             BsonValue ascOrDesc =
                                     new BsonString(keys.getInteger(key) > 0 ? "A" : "D");
 
-                            return createSortableBottomBson(
-                                    // Per JDBC spec, sort by  NON_UNIQUE, TYPE, INDEX_NAME, and ORDINAL_POSITION.
-                                    // Since TYPE is the same for every index, we omit it here.
-                                    GET_INDEX_INFO_SORT_SPECS,
-                                    new BsonElement(TABLE_CAT, new BsonString(dbName)),
-                                    new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
-                                    new BsonElement(TABLE_NAME, new BsonString(tableName)),
-                                    new BsonElement(NON_UNIQUE, nonUnique),
-                                    new BsonElement(INDEX_QUALIFIER, BsonNull.VALUE),
-                                    new BsonElement(INDEX_NAME, indexName),
-                                    new BsonElement(TYPE, new BsonInt32(tableIndexOther)),
-                                    new BsonElement(
-                                            ORDINAL_POSITION, new BsonInt32(pos.incrementAndGet())),
-                                    new BsonElement(COLUMN_NAME, new BsonString(key)),
-                                    new BsonElement(ASC_OR_DESC, ascOrDesc),
-                                    new BsonElement(CARDINALITY, BsonNull.VALUE),
-                                    new BsonElement(PAGES, BsonNull.VALUE),
-                                    new BsonElement(FILTER_CONDITION, BsonNull.VALUE));
+                            return new BsonElement[] {
+                                new BsonElement(TABLE_CAT, new BsonString(dbName)),
+                                new BsonElement(TABLE_SCHEM, BsonNull.VALUE),
+                                new BsonElement(TABLE_NAME, new BsonString(tableName)),
+                                new BsonElement(NON_UNIQUE, nonUnique),
+                                new BsonElement(INDEX_QUALIFIER, BsonNull.VALUE),
+                                new BsonElement(INDEX_NAME, indexName),
+                                new BsonElement(TYPE, new BsonInt32(tableIndexOther)),
+                                new BsonElement(
+                                        ORDINAL_POSITION, new BsonInt32(pos.incrementAndGet())),
+                                new BsonElement(COLUMN_NAME, new BsonString(key)),
+                                new BsonElement(ASC_OR_DESC, ascOrDesc),
+                                new BsonElement(CARDINALITY, BsonNull.VALUE),
+                                new BsonElement(PAGES, BsonNull.VALUE),
+                                new BsonElement(FILTER_CONDITION, BsonNull.VALUE)
+                            };
                         });
     }
 
-    // Helper for getting stream of bson documents for indexes in the argued table. This is
-    // used for creating the result set for getIndexInfo method.
-    private Stream<BsonDocument> getIndexesFromTable(
+    // Helper for getting the rows for indexes in the argued table. This is used for creating
+    // the result set for getIndexInfo method.
+    private Stream<BsonElement[]> getIndexesFromTable(
             String dbName, String tableName, boolean unique) {
         return this.conn
                 .getDatabase(dbName)
@@ -2715,7 +2931,7 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                             // only indexes that are marked as unique.
                             return !unique || (isUnique != null && isUnique);
                         })
-                .flatMap(d -> toGetIndexInfoDocs(dbName, tableName, d));
+                .flatMap(d -> toGetIndexInfoRows(dbName, tableName, d));
     }
 
     @Override
@@ -2738,31 +2954,45 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
                         new MongoJsonSchema.ScalarProperties(PAGES, BSON_LONG),
                         new MongoJsonSchema.ScalarProperties(FILTER_CONDITION, BSON_LONG, false));
 
-        Stream<BsonDocument> docs;
-        if (catalog == null) {
-            // If no catalog (database) is specified, get indexes for all databases that have a
-            // collection with the argued table name.
-            docs =
-                    this.getDatabaseNames()
-                            .flatMap(
-                                    dbName ->
-                                            this.getTableDataFromDB(
-                                                            dbName, res -> res.name.equals(table))
-                                                    .flatMap(
-                                                            r ->
-                                                                    getIndexesFromTable(
-                                                                            dbName, r.name,
-                                                                            unique)));
-        } else if (catalog.isEmpty()) {
-            // If catalog (database) is empty, we will return an empty result set because
-            // MongoDB does not support tables (collections) without databases.
-            docs = Stream.empty();
-        } else {
-            docs = getIndexesFromTable(catalog, table, unique);
-        }
+        List<BsonDocument> docsList =
+                getCachedRows(
+                        "getIndexInfo",
+                        catalog,
+                        () -> {
+                            Stream<BsonElement[]> rows;
+                            if (catalog == null) {
+                                // If no catalog (database) is specified, get indexes for all
+                                // databases that have a collection with the argued table name.
+                                rows =
+                                        fanOut(
+                                                getDatabaseNames().collect(Collectors.toList()),
+                                                dbName ->
+                                                        this.getTableDataFromDB(
+                                                                        dbName,
+                                                                        res ->
+                                                                                res.name.equals(
+                                                                                        table))
+                                                                .flatMap(
+                                                                        r ->
+                                                                                getIndexesFromTable(
+                                                                                        dbName,
+                                                                                        r.name,
+                                                                                        unique)));
+                            } else if (catalog.isEmpty()) {
+                                // If catalog (database) is empty, we will return an empty result
+                                // set because MongoDB does not support tables (collections)
+                                // without databases.
+                                rows = Stream.empty();
+                            } else {
+                                rows = getIndexesFromTable(catalog, table, unique);
+                            }
 
-        // Collect to sorted list.
-        List<BsonDocument> docsList = docs.sorted().collect(Collectors.toList());
+                            // Collect to sorted list.
+                            return MetadataRowStore.sorted(
+                                    BOT_NAME, botSchema, rows, GET_INDEX_INFO_SORT_SPECS);
+                        },
+                        table,
+                        unique);
         BsonExplicitCursor c = new BsonExplicitCursor(docsList);
 
         return new MongoResultSet(conn.getLogger(), c, botSchema);
@@ -2856,8 +3086,15 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
 
     @Override
     public ResultSet getClientInfoProperties() throws SQLException {
-        ArrayList<BsonDocument> docs = new ArrayList<>();
+        StaticResult result = clientInfoProperties;
+        if (result == null) {
+            result = new StaticResult(getClientInfoPropertiesJsonSchema(), new ArrayList<>());
+            clientInfoProperties = result;
+        }
+        return result.toResultSet(conn.getLogger());
+    }
 
+    private MongoJsonSchema getClientInfoPropertiesJsonSchema() {
         MongoJsonSchema schema = MongoJsonSchema.createEmptyObjectSchema();
         schema.addScalarKeys(
                 new MongoJsonSchema.ScalarProperties(NAME, BSON_STRING),
@@ -2868,7 +3105,7 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
         // All fields in this result set are nested under the bottom namespace.
         MongoJsonSchema botSchema = MongoJsonSchema.createEmptyObjectSchema();
         botSchema.properties.put(BOT_NAME, schema);
-        return new MongoResultSet(conn.getLogger(), BsonExplicitCursor.EMPTY_CURSOR, botSchema);
+        return botSchema;
     }
 
     private MongoJsonSchema getFunctionJsonSchema() {
@@ -2900,23 +3137,30 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
     @Override
     public ResultSet getFunctions(String catalog, String schemaPattern, String functionNamePattern)
             throws SQLException {
-        ArrayList<BsonDocument> docs = new ArrayList<>(MongoFunctions.functions.length);
-        MongoJsonSchema schema = getFunctionJsonSchema();
-
-        Pattern functionPatternRE = null;
-        if (functionNamePattern != null) {
-            functionPatternRE = toJavaPattern(functionNamePattern);
-        }
-
-        for (MongoFunctions.MongoFunction func : MongoFunctions.functions) {
-            if (functionPatternRE != null && !functionPatternRE.matcher(func.name).matches()) {
-                continue;
+        StaticResult result = functions;
+        if (result == null) {
+            ArrayList<BsonDocument> docs = new ArrayList<>(MongoFunctions.functions.length);
+            for (MongoFunctions.MongoFunction func : MongoFunctions.functions) {
+                docs.add(getFunctionValuesDoc(func.name, func.comment));
             }
-            BsonDocument doc = getFunctionValuesDoc(func.name, func.comment);
-            docs.add(doc);
+            result = new StaticResult(getFunctionJsonSchema(), docs);
+            functions = result;
         }
 
-        return new MongoResultSet(conn.getLogger(), new BsonExplicitCursor(docs), schema);
+        if (functionNamePattern == null) {
+            return result.toResultSet(conn.getLogger());
+        }
+        Pattern functionPatternRE = toJavaPattern(functionNamePattern);
+        List<BsonDocument> docs =
+                result.rows
+                        .stream()
+                        .filter(
+                                doc ->
+                                        functionPatternRE
+                                                .matcher(getBottomString(doc, FUNCTION_NAME))
+                                                .matches())
+                        .collect(Collectors.toList());
+        return result.toResultSet(conn.getLogger(), docs);
     }
 
     private MongoJsonSchema getFunctionColumnJsonSchema() {
@@ -3020,45 +3264,47 @@ public class MongoDatabaseMetaData implements DatabaseMetaData {
             String functionNamePattern,
             String columnNamePattern)
             throws SQLException {
-
-        ArrayList<BsonDocument> docs = new ArrayList<>(MongoFunctions.functions.length);
-        MongoJsonSchema schema = getFunctionColumnJsonSchema();
-
-        Pattern functionNamePatternRE = null;
-        Pattern columnNamePatternRE = null;
-        if (functionNamePattern != null) {
-            functionNamePatternRE = toJavaPattern(functionNamePattern);
-        }
-        if (columnNamePattern != null) {
-            columnNamePatternRE = toJavaPattern(columnNamePattern);
-        }
-
-        for (MongoFunctions.MongoFunction func : MongoFunctions.functions) {
-            if (functionNamePatternRE != null
-                    && !functionNamePatternRE.matcher(func.name).matches()) {
-                continue;
-            }
-            int i = 0;
-            for (String argType : func.argTypes) {
-                // We don't have better names for our arguments, for the most part.
-                ++i;
-                String columnName = "arg" + i;
-                if (columnNamePatternRE != null
-                        && !columnNamePatternRE.matcher(columnName).matches()) {
-                    continue;
+        StaticResult result = functionColumns;
+        if (result == null) {
+            ArrayList<BsonDocument> docs = new ArrayList<>(MongoFunctions.functions.length);
+            for (MongoFunctions.MongoFunction func : MongoFunctions.functions) {
+                int i = 0;
+                for (String argType : func.argTypes) {
+                    // We don't have better names for our arguments, for the most part.
+                    ++i;
+                    docs.add(getFunctionColumnValuesDoc(func, i, "arg" + i, argType, false));
                 }
-                BsonDocument doc = getFunctionColumnValuesDoc(func, i, columnName, argType, false);
-                docs.add(doc);
-            }
-            String columnName = "argReturn";
-            if (columnNamePatternRE == null || columnNamePatternRE.matcher(columnName).matches()) {
-                BsonDocument doc =
-                        getFunctionColumnValuesDoc(func, i, "argReturn", func.returnType, true);
-                docs.add(doc);
+                docs.add(getFunctionColumnValuesDoc(func, i, "argReturn", func.returnType, true));
             }
+            result = new StaticResult(getFunctionColumnJsonSchema(), docs);
+            functionColumns = result;
         }
 
-        return new MongoResultSet(conn.getLogger(), new BsonExplicitCursor(docs), schema);
+        if (functionNamePattern == null && columnNamePattern == null) {
+            return result.toResultSet(conn.getLogger());
+        }
+        Pattern functionNamePatternRE = toJavaPattern(functionNamePattern);
+        Pattern columnNamePatternRE = toJavaPattern(columnNamePattern);
+        List<BsonDocument> docs =
+                result.rows
+                        .stream()
+                        .filter(
+                                doc ->
+                                        (functionNamePatternRE == null
+                                                        || functionNamePatternRE
+                                                                .matcher(
+                                                                        getBottomString(
+                                                                                doc,
+                                                                                FUNCTION_NAME))
+                                                                .matches())
+                                                && (columnNamePatternRE == null
+                                                        || columnNamePatternRE
+                                                                .matcher(
+                                                                        getBottomString(
+                                                                                doc, COLUMN_NAME))
+                                                                .matches()))
+                        .collect(Collectors.toList());
+        return result.toResultSet(conn.getLogger(), docs);
     }
 
     //--------------------------JDBC 4.1 -----------------------------
@@ -25,6 +25,8 @@ import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.MongoConfigurationException;
 import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.logging.LogSampling;
+import com.mongodb.jdbc.mongosql.TranslateCache;
 import com.mongodb.jdbc.utils.NativeLoader;
 import java.io.*;
 import java.lang.ref.WeakReference;
@@ -100,7 +102,21 @@ public class MongoDriver implements Driver {
         LOG_DIR("logdir"),
         EXT_JSON_MODE("extjsonmode"),
         X509_PEM_PATH("x509pempath"),
-        DISABLE_CLIENT_CACHE("disableclientcache");
+        DISABLE_CLIENT_CACHE("disableclientcache"),
+        TRANSLATE_CACHE_SIZE("translatecachesize"),
+        SCHEMA_CACHE_TTL("schemacachettl"),
+        SCHEMA_CACHE_WATCH("schemacachewatch"),
+        LAZY_DECODE("lazydecode"),
+        PREFETCH_DEPTH("prefetchdepth"),
+        PREFETCH_MAX_MEMORY("prefetchmaxmemory"),
+        LOG_SAMPLING("logsampling"),
+        METADATA_CONCURRENCY("metadataconcurrency"),
+        METADATA_CACHE_TTL("metadatacachettl"),
+        METADATA_CACHE_SIZE("metadatacachesize"),
+        SCROLL_MAX_MEMORY("scrollmaxmemory"),
+        JMX_METRICS("jmxmetrics"),
+        SLOW_QUERY_THRESHOLD("slowquerythreshold"),
+        SLOW_QUERY_EXPLAIN("slowqueryexplain");
 
         private final String propertyName;
 
@@ -481,21 +497,70 @@ public class MongoDriver implements Driver {
             }
         }
 
+        int translateCacheSize =
+                getNonNegativeIntProperty(
+                        info, TRANSLATE_CACHE_SIZE, TranslateCache.DEFAULT_MAX_SIZE_MB);
+        int schemaCacheTtl = getNonNegativeIntProperty(info, SCHEMA_CACHE_TTL, 0);
+        boolean schemaCacheWatch = getBooleanProperty(info, SCHEMA_CACHE_WATCH);
+
+        int prefetchDepth = getNonNegativeIntProperty(info, PREFETCH_DEPTH, 0);
+        int prefetchMaxMemoryMb =
+                getNonNegativeIntProperty(
+                        info,
+                        PREFETCH_MAX_MEMORY,
+                        MongoConnectionProperties.DEFAULT_PREFETCH_MAX_MEMORY_MB);
+
+        int metadataConcurrency =
+                getNonNegativeIntProperty(
+                        info,
+                        METADATA_CONCURRENCY,
+                        MongoConnectionProperties.DEFAULT_METADATA_CONCURRENCY);
+
+        String logSampling = info.getProperty(LOG_SAMPLING.getPropertyName());
+        try {
+            LogSampling.parse(logSampling);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(
+                    "Invalid "
+                            + LOG_SAMPLING.getPropertyName()
+                            + " property value : "
+                            + logSampling
+                            + ". "
+                            + e.getMessage());
+        }
+
         MongoConnectionProperties mongoConnectionProperties =
-                new MongoConnectionProperties(
-                        cs,
-                        database,
-                        logLevel,
-                        logDir,
-                        clientInfo,
-                        extJsonMode,
-                        info.getProperty(X509_PEM_PATH.getPropertyName()));
-
-        String disableCacheVal =
-                info.getProperty(DISABLE_CLIENT_CACHE.getPropertyName(), "false").toLowerCase();
-        if (disableCacheVal.equals("true")
-                || disableCacheVal.equals("yes")
-                || disableCacheVal.equals("1")) {
+                MongoConnectionProperties.builder(cs)
+                        .database(database)
+                        .logLevel(logLevel)
+                        .logDir(logDir)
+                        .clientInfo(clientInfo)
+                        .extJsonMode(extJsonMode)
+                        .x509PemPath(info.getProperty(X509_PEM_PATH.getPropertyName()))
+                        .translateCacheSizeMb(translateCacheSize)
+                        .schemaCacheTtlSec(schemaCacheTtl)
+                        .schemaCacheWatch(schemaCacheWatch)
+                        .lazyDecode(getBooleanProperty(info, LAZY_DECODE))
+                        .prefetchDepth(prefetchDepth)
+                        .prefetchMaxMemoryMb(prefetchMaxMemoryMb)
+                        .logSampling(logSampling)
+                        .metadataConcurrency(metadataConcurrency)
+                        .metadataCacheTtlSec(getNonNegativeIntProperty(info, METADATA_CACHE_TTL, 0))
+                        .metadataCacheSize(
+                                getNonNegativeIntProperty(
+                                        info, METADATA_CACHE_SIZE, MetadataCache.DEFAULT_MAX_SIZE))
+                        .scrollMaxMemoryMb(
+                                getNonNegativeIntProperty(
+                                        info,
+                                        SCROLL_MAX_MEMORY,
+                                        MongoConnectionProperties.DEFAULT_SCROLL_MAX_MEMORY_MB))
+                        .jmxMetrics(getBooleanProperty(info, JMX_METRICS))
+                        .slowQueryThresholdMs(
+                                getNonNegativeIntProperty(info, SLOW_QUERY_THRESHOLD, 0))
+                        .slowQueryExplain(getBooleanProperty(info, SLOW_QUERY_EXPLAIN))
+                        .build();
+
+        if (getBooleanProperty(info, DISABLE_CLIENT_CACHE)) {
             // If the user has set the disable cache property, we will not use the cache.
             return new MongoConnection(mongoConnectionProperties, x509Passphrase);
         }
@@ -532,6 +597,50 @@ public class MongoDriver implements Driver {
         }
     }
 
+    /**
+     * Reads an integer driver property which must not be negative.
+     *
+     * @param info The connection properties.
+     * @param property The property to read.
+     * @param defaultValue The value to use when the property is not set.
+     * @return the property value.
+     * @throws SQLException If the value is not a non-negative integer.
+     */
+    private static int getNonNegativeIntProperty(
+            Properties info, MongoJDBCProperty property, int defaultValue) throws SQLException {
+        String value = info.getProperty(property.getPropertyName());
+        if (value == null) {
+            return defaultValue;
+        }
+        int result = -1;
+        try {
+            result = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        if (result < 0) {
+            throw new SQLException(
+                    "Invalid "
+                            + property.getPropertyName()
+                            + " property value : "
+                            + value
+                            + ". It must be a non-negative integer.");
+        }
+        return result;
+    }
+
+    /**
+     * Reads a boolean driver property. "true", "yes" and "1" are true, anything else is false.
+     *
+     * @param info The connection properties.
+     * @param property The property to read.
+     * @return the property value, false if it is not set.
+     */
+    private static boolean getBooleanProperty(Properties info, MongoJDBCProperty property) {
+        String value = info.getProperty(property.getPropertyName(), "false").toLowerCase();
+        return value.equals("true") || value.equals("yes") || value.equals("1");
+    }
+
     public static void closeAllClients() {
         mongoClientCacheLock.writeLock().lock();
         try {
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Thread pools shared by all the connections of the driver. All their threads are daemon threads,
+ * so they never prevent the application from exiting, and idle threads are released after a
+ * minute. The executors returned to callers cannot be shut down, as they are shared by the whole
+ * driver.
+ */
+public final class MongoExecutors {
+    /**
+     * System property overriding the number of threads running asynchronous queries. Defaults to
+     * twice the number of available processors, with a minimum of 4.
+     */
+    public static final String QUERY_THREADS_PROPERTY = "mongodb.jdbc.asyncQueryThreads";
+
+    private static final long KEEP_ALIVE_SEC = 60;
+
+    private MongoExecutors() {}
+
+    private static final class QueryExecutorHolder {
+        private static final int QUERY_THREADS = queryThreadCount();
+        private static final ExecutorService QUERY_EXECUTOR =
+                new SharedExecutorService(createQueryExecutor(QUERY_THREADS));
+    }
+
+    private static final class TaskExecutorHolder {
+        private static final ExecutorService TASK_EXECUTOR =
+                new SharedExecutorService(
+                        Executors.newCachedThreadPool(
+                                daemonThreadFactory("mongodb-jdbc-task-", Thread::new)));
+    }
+
+    /** Runs tasks on a shared executor, rejecting the calls which would shut it down. */
+    private static final class SharedExecutorService extends AbstractExecutorService {
+        private final ExecutorService executor;
+
+        SharedExecutorService(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            throw new UnsupportedOperationException("The driver executors cannot be shut down");
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            throw new UnsupportedOperationException("The driver executors cannot be shut down");
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException("The driver executors never terminate");
+        }
+    }
+
+    /**
+     * @return the bounded executor running the queries started with {@link
+     *     MongoStatement#executeQueryAsync(String)}. Queries submitted while all its threads are
+     *     busy wait in its queue. It cannot be shut down.
+     */
+    public static ExecutorService getQueryExecutor() {
+        return QueryExecutorHolder.QUERY_EXECUTOR;
+    }
+
+    /**
+     * @return the unbounded executor used internally to run short blocking calls with a timeout,
+     *     such as the connection validation, and background tasks of the driver, such as the
+     *     schema change stream watchers. It cannot be shut down.
+     */
+    public static ExecutorService getTaskExecutor() {
+        return TaskExecutorHolder.TASK_EXECUTOR;
+    }
+
+    /**
+     * @return true if the current thread belongs to the query executor. A query run on such a
+     *     thread must not wait for other queries submitted to the query executor, which may be
+     *     queued behind it.
+     */
+    static boolean isQueryThread() {
+        return Thread.currentThread() instanceof QueryThread;
+    }
+
+    private static final class QueryThread extends Thread {
+        QueryThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+
+    /** @return the number of threads of the query executor. */
+    static int getQueryThreadCount() {
+        return QueryExecutorHolder.QUERY_THREADS;
+    }
+
+    private static int queryThreadCount() {
+        int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        String configured = System.getProperty(QUERY_THREADS_PROPERTY);
+        if (configured != null) {
+            try {
+                threads = Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                // Keep the default
+            }
+        }
+        return threads;
+    }
+
+    private static ExecutorService createQueryExecutor(int threads) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        KEEP_ALIVE_SEC,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        daemonThreadFactory("mongodb-jdbc-query-", QueryThread::new));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreadFactory(
+            String namePrefix, BiFunction<Runnable, String, Thread> newThread) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return r -> {
+            Thread t = newThread.apply(r, namePrefix + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
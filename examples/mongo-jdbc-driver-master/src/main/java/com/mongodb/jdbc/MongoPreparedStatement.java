@@ -18,6 +18,7 @@ package com.mongodb.jdbc;
 
 import com.mongodb.jdbc.logging.AutoLoggable;
 import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.logging.QueryDiagnostics;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
@@ -40,13 +41,39 @@ import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.types.Decimal128;
 
 @AutoLoggable
 public class MongoPreparedStatement implements PreparedStatement {
+    // SQLSTATE for a parameter without value
+    private static final String SQLSTATE_MISSING_PARAMETER = "07001";
+
     private String sql;
     private MongoStatement statement;
     protected MongoLogger logger;
+    private final ParameterizedSql parameterizedSql;
+    private final BsonValue[] parameters;
+    // Translations of the query on a direct cluster, per parameter types. A null template means
+    // the types have no sentinel, and the values are then inlined in the query.
+    private final Map<List<BsonType>, PipelineTemplate> templates = new HashMap<>();
 
     public MongoPreparedStatement(String sql, MongoStatement statement) throws SQLException {
         this.logger =
@@ -56,28 +83,105 @@ public class MongoPreparedStatement implements PreparedStatement {
                         statement.getStatementId());
         this.sql = sql;
         this.statement = statement;
+        this.parameterizedSql = ParameterizedSql.parse(sql);
+        this.parameters = new BsonValue[parameterizedSql.getParameterCount()];
+    }
+
+    private void setParameter(int parameterIndex, BsonValue value) throws SQLException {
+        statement.checkClosed();
+        if (parameterIndex < 1 || parameterIndex > parameters.length) {
+            throw new SQLException(
+                    "Invalid parameter index: "
+                            + parameterIndex
+                            + ". The query has "
+                            + parameters.length
+                            + " parameters.");
+        }
+        parameters[parameterIndex - 1] = value;
+    }
+
+    /** @return a copy of the parameter values, checking that they are all set. */
+    private BsonValue[] getParameters() throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == null) {
+                throw new SQLException(
+                        "No value specified for parameter " + (i + 1), SQLSTATE_MISSING_PARAMETER);
+            }
+        }
+        return parameters.clone();
+    }
+
+    private ResultSet executeQuery(BsonValue[] values) throws SQLException {
+        if (values.length == 0) {
+            return statement.executeQuery(sql);
+        }
+        PipelineTemplate template = null;
+        if (statement.getClusterType() == MongoConnection.MongoClusterType.Enterprise) {
+            template = getTemplate(values);
+        }
+        return statement.executeQuery(parameterizedSql.inline(values), template, values);
+    }
+
+    /**
+     * Gets the template for the types of the parameter values, creating it on the first execution
+     * with these types.
+     *
+     * @param values The parameter values.
+     * @return the template, or null if a value type has no template.
+     */
+    private PipelineTemplate getTemplate(BsonValue[] values) throws SQLException {
+        BsonType[] types = new BsonType[values.length];
+        for (int i = 0; i < values.length; i++) {
+            types[i] = values[i].getBsonType();
+        }
+        List<BsonType> key = Arrays.asList(types);
+        synchronized (templates) {
+            if (!templates.containsKey(key)) {
+                templates.put(key, PipelineTemplate.create(parameterizedSql, values));
+            }
+            return templates.get(key);
+        }
     }
 
     @Override
     public void addBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        statement.addBatch(parameterizedSql.inline(getParameters()));
     }
 
     @Override
     public void clearParameters() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        statement.checkClosed();
+        Arrays.fill(parameters, null);
     }
 
     @Override
     public boolean execute() throws SQLException {
-        return statement.execute(sql);
+        executeQuery();
+        return statement.getResultSet() != null;
     }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        return statement.executeQuery(sql);
+        return executeQuery(getParameters());
+    }
+
+    /**
+     * Executes this prepared query asynchronously, see {@link
+     * MongoStatement#executeQueryAsync(String)}.
+     *
+     * @return a future completed with the result set.
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync() {
+        BsonValue[] values;
+        try {
+            values = getParameters();
+        } catch (SQLException e) {
+            CompletableFuture<ResultSet> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return statement.executeAsync(
+                () -> executeQuery(values), MongoExecutors.getQueryExecutor());
     }
 
     @Override
@@ -120,6 +224,16 @@ public class MongoPreparedStatement implements PreparedStatement {
         statement.setMaxRows(max);
     }
 
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return statement.getLargeMaxRows();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        statement.setLargeMaxRows(max);
+    }
+
     @Override
     public void setEscapeProcessing(boolean enable) throws SQLException {
         statement.setEscapeProcessing(enable);
@@ -298,12 +412,24 @@ public class MongoPreparedStatement implements PreparedStatement {
     @Override
     public ResultSetMetaData getMetaData() throws SQLException {
         // This is not an efficient way to do this... at all.
-        ResultSet rs = executeQuery("select * from (" + sql + ") orig_query limit 1");
+        statement.checkClosed();
+        // The parameters may not be set yet, the result columns do not depend on their values
+        BsonValue[] values = parameters.clone();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                values[i] = BsonNull.VALUE;
+            }
+        }
+        ResultSet rs =
+                executeQuery(
+                        "select * from ("
+                                + parameterizedSql.inline(values)
+                                + ") orig_query limit 1");
         return rs.getMetaData();
     }
 
-    // Supporting any of these set methods will require adding that functionality to ADF or
-    // having a SQL parser in Java.
+    // Supporting the remaining set methods will require adding that functionality to ADF or
+    // having a SQL parser in Java. The supported ones are inlined as SQL literals.
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
         throw new SQLFeatureNotSupportedException(
@@ -336,8 +462,9 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(
+                parameterIndex,
+                (x == null) ? BsonNull.VALUE : new BsonDecimal128(new Decimal128(x)));
     }
 
     @Override
@@ -380,14 +507,12 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, BsonBoolean.valueOf(x));
     }
 
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonInt32(x));
     }
 
     @Override
@@ -436,8 +561,7 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setDate(int parameterIndex, Date x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, (x == null) ? BsonNull.VALUE : new BsonDateTime(x.getTime()));
     }
 
     @Override
@@ -448,26 +572,22 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonDouble(x));
     }
 
     @Override
     public void setFloat(int parameterIndex, float x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonDouble(x));
     }
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonInt32(x));
     }
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonInt64(x));
     }
 
     @Override
@@ -503,26 +623,45 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setNString(int parameterIndex, String value) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setString(parameterIndex, value);
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, BsonNull.VALUE);
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, BsonNull.VALUE);
     }
 
     @Override
     public void setObject(int parameterIndex, Object x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        if (x == null) {
+            setNull(parameterIndex, Types.NULL);
+        } else if (x instanceof String) {
+            setString(parameterIndex, (String) x);
+        } else if (x instanceof Boolean) {
+            setBoolean(parameterIndex, (Boolean) x);
+        } else if (x instanceof Byte || x instanceof Short || x instanceof Integer) {
+            setInt(parameterIndex, ((Number) x).intValue());
+        } else if (x instanceof Long) {
+            setLong(parameterIndex, (Long) x);
+        } else if (x instanceof Float || x instanceof Double) {
+            setDouble(parameterIndex, ((Number) x).doubleValue());
+        } else if (x instanceof BigDecimal) {
+            setBigDecimal(parameterIndex, (BigDecimal) x);
+        } else if (x instanceof Timestamp) {
+            setTimestamp(parameterIndex, (Timestamp) x);
+        } else if (x instanceof Date) {
+            setDate(parameterIndex, (Date) x);
+        } else if (x instanceof BsonValue) {
+            setParameter(parameterIndex, (BsonValue) x);
+        } else {
+            throw new SQLFeatureNotSupportedException(
+                    "Unsupported parameter type: " + x.getClass().getName());
+        }
     }
 
     @Override
@@ -552,8 +691,7 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, new BsonInt32(x));
     }
 
     @Override
@@ -564,8 +702,7 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, (x == null) ? BsonNull.VALUE : new BsonString(x));
     }
 
     @Override
@@ -582,8 +719,7 @@ public class MongoPreparedStatement implements PreparedStatement {
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        setParameter(parameterIndex, (x == null) ? BsonNull.VALUE : new BsonDateTime(x.getTime()));
     }
 
     @Override
@@ -609,12 +745,19 @@ public class MongoPreparedStatement implements PreparedStatement {
     // java.sql.Wrapper impl
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return iface.isInstance(this);
+        return iface.isInstance(this) || iface == QueryDiagnostics.class;
     }
 
+    /**
+     * Besides this statement, returns the {@link QueryDiagnostics} of its last execution for {@code
+     * QueryDiagnostics.class}.
+     */
     @SuppressWarnings("unchecked")
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == QueryDiagnostics.class) {
+            return (T) statement.getQueryDiagnostics();
+        }
         return (T) this;
     }
 }
@@ -17,10 +17,15 @@
 package com.mongodb.jdbc;
 
 import com.google.common.base.Preconditions;
+import com.mongodb.ServerCursor;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.jdbc.logging.AutoLoggable;
 import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.logging.QueryDiagnostics;
+import com.mongodb.jdbc.metrics.DriverEvents;
+import com.mongodb.jdbc.metrics.DriverMetrics;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
@@ -45,8 +50,11 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
 import java.util.logging.Level;
@@ -58,7 +66,9 @@ import org.bson.BsonBinarySubType;
 import org.bson.BsonDocument;
 import org.bson.BsonType;
 import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
 import org.bson.UuidRepresentation;
+import org.bson.codecs.BsonDocumentCodec;
 import org.bson.internal.UuidHelper;
 import org.bson.types.Decimal128;
 
@@ -72,13 +82,32 @@ public class MongoResultSet implements ResultSet {
     // The current row
     protected BsonDocument current;
     // cursor over all rows
-    protected MongoCursor<BsonDocument> cursor;
+    protected MongoCursor<? extends BsonDocument> cursor;
 
     // The one-indexed number of the current row. Will be zero until
     // next() is called for the first time.
     protected int rowNum = 0;
+    // The rows read so far, for TYPE_SCROLL_INSENSITIVE result sets. Null for forward only ones.
+    // Once the cursor is exhausted, rowNum is past the last row when there is no current row.
+    private ScrollableRowBuffer rowBuffer;
+    // The maximum number of rows of the statement, 0 for no limit. The server is already asked
+    // for no more rows, the result set stops there too in case it returns more.
+    private long maxRows = 0;
+    // The metrics of the connection, null for result sets not tied to a statement. The rows read
+    // from the cursor are counted here and added to the metrics once, when done.
+    private DriverMetrics metrics;
+    private long fetchStartNanos;
+    private long rowsFetched;
+    private long bytesFetched;
+    private boolean fetchRecorded = false;
+    // The diagnostics of the query, also null for result sets not tied to a statement.
+    private QueryDiagnostics diagnostics;
+    // The query, as executed, for the slow query log.
+    private MongoStatement.QuerySnapshot query;
 
     protected boolean closed = false;
+    // Set by Statement.cancel(), possibly from another thread.
+    private volatile boolean cancelled = false;
     protected MongoStatement statement;
     protected boolean wasNull = false;
     protected MongoResultSetMetaData rsMetaData;
@@ -89,6 +118,21 @@ public class MongoResultSet implements ResultSet {
 
     private MongoJsonSchema jsonSchema;
 
+    private static final BsonDocumentCodec DOCUMENT_CODEC = new BsonDocumentCodec();
+    // Position stored in columnPositions for a label shared by several columns.
+    private static final int AMBIGUOUS_COLUMN = -1;
+    // The column layout, resolved once from the metadata so that each cell is an array lookup.
+    private String[] columnDatasources;
+    private String[] columnNames;
+    private int[] columnTypes;
+    // A mapping from columnLabel to its zero-based position or AMBIGUOUS_COLUMN.
+    private Map<String, Integer> columnPositions;
+    // The values of the current row, in column order. Reused from row to row.
+    protected BsonValue[] currentValues;
+    // Whether currentValues holds the values of the current row, raw BSON rows are only decoded
+    // when one of their values is first accessed.
+    private boolean currentDecoded;
+
     /**
      * Constructor for a MongoResultset tied to a connection and statement.
      *
@@ -101,7 +145,7 @@ public class MongoResultSet implements ResultSet {
      */
     public MongoResultSet(
             MongoStatement statement,
-            MongoCursor<BsonDocument> cursor,
+            MongoCursor<? extends BsonDocument> cursor,
             MongoJsonSchema resultSetchema,
             List<List<String>> selectOrder,
             boolean extJsonMode,
@@ -124,6 +168,15 @@ public class MongoResultSet implements ResultSet {
                 true,
                 statement.getParentLogger(),
                 statement.getStatementId());
+        if (statement.isScrollable()) {
+            rowBuffer = new ScrollableRowBuffer(statement.getScrollMaxMemoryBytes());
+        }
+        maxRows = statement.getLargeMaxRows();
+        diagnostics = logger.getQueryDiagnostics();
+        query = statement.snapshotQuery();
+        metrics = statement.getMetrics();
+        metrics.resultSetOpened();
+        fetchStartNanos = System.nanoTime();
     }
 
     /**
@@ -135,14 +188,16 @@ public class MongoResultSet implements ResultSet {
      * @throws SQLException
      */
     public MongoResultSet(
-            MongoLogger parentLogger, MongoCursor<BsonDocument> cursor, MongoJsonSchema schema)
+            MongoLogger parentLogger,
+            MongoCursor<? extends BsonDocument> cursor,
+            MongoJsonSchema schema)
             throws SQLException {
         this.logger = new MongoLogger(this.getClass().getCanonicalName(), parentLogger);
         setUpResultset(cursor, schema, null, false, parentLogger, null);
     }
 
     private void setUpResultset(
-            MongoCursor<BsonDocument> cursor,
+            MongoCursor<? extends BsonDocument> cursor,
             MongoJsonSchema schema,
             List<List<String>> selectOrder,
             boolean sortFieldsAlphabetically,
@@ -166,6 +221,60 @@ public class MongoResultSet implements ResultSet {
                         parentLogger,
                         statementId,
                         logger.getQueryDiagnostics());
+        resolveColumnLayout();
+    }
+
+    private void resolveColumnLayout() throws SQLException {
+        int columnCount = rsMetaData.getColumnCount();
+        columnDatasources = new String[columnCount];
+        columnNames = new String[columnCount];
+        columnTypes = new int[columnCount];
+        columnPositions = new HashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            MongoColumnInfo columnInfo = rsMetaData.getColumnInfo(i + 1);
+            columnDatasources[i] = columnInfo.getTableName();
+            columnNames[i] = columnInfo.getColumnName();
+            columnTypes[i] = columnInfo.getJDBCType();
+            if (columnPositions.putIfAbsent(columnInfo.getColumnAlias(), i) != null) {
+                columnPositions.put(columnInfo.getColumnAlias(), AMBIGUOUS_COLUMN);
+            }
+        }
+        currentValues = new BsonValue[columnCount];
+    }
+
+    /**
+     * Extracts the values of the current row once, in column order. Raw BSON rows are decoded
+     * lazily instead, when one of their values is first accessed.
+     */
+    private void decodeCurrentRow() {
+        if (current instanceof RawBsonDocument) {
+            Arrays.fill(currentValues, null);
+            currentDecoded = false;
+            return;
+        }
+        extractCurrentValues();
+    }
+
+    /**
+     * Fills currentValues in a single pass over the current row. The datasource documents of raw
+     * BSON rows are decoded once, lookups in the raw bytes would scan them for every column.
+     */
+    private void extractCurrentValues() {
+        String datasourceName = null;
+        BsonDocument datasource = null;
+        for (int i = 0; i < columnNames.length; i++) {
+            // Columns of the same datasource are adjacent, only look it up when it changes.
+            if (i == 0 || !Objects.equals(columnDatasources[i], datasourceName)) {
+                datasourceName = columnDatasources[i];
+                BsonValue value = current.get(datasourceName);
+                datasource = (value != null && value.isDocument()) ? value.asDocument() : null;
+                if (datasource instanceof RawBsonDocument) {
+                    datasource = ((RawBsonDocument) datasource).decode(DOCUMENT_CODEC);
+                }
+            }
+            currentValues[i] = (datasource != null) ? datasource.get(columnNames[i]) : null;
+        }
+        currentDecoded = true;
     }
 
     // This is only used for testing, and that is why it has package level access, and the
@@ -179,7 +288,7 @@ public class MongoResultSet implements ResultSet {
         if (current == null) {
             throw new SQLException("No current row in the result set. Make sure to call next().");
         }
-        if (i > rsMetaData.getColumnCount()) {
+        if (i < 1 || i > currentValues.length) {
             throw new SQLException("Index out of bounds: '" + i + "'.");
         }
     }
@@ -187,21 +296,41 @@ public class MongoResultSet implements ResultSet {
     @Override
     public boolean next() throws SQLException {
         checkClosed();
+        if (cancelled) {
+            close();
+            throw new SQLException("The query was cancelled.", MongoStatement.SQLSTATE_CANCELLED);
+        }
+        if (rowBuffer != null) {
+            return moveTo(rowNum + 1);
+        }
+        if (isAtMaxRows(rowNum)) {
+            recordFetch(true);
+            return false;
+        }
         try {
-            boolean result;
-            result = cursor.hasNext();
-            logger.log(Level.FINER, "cursor.hasNext()? " + String.valueOf(result));
+            boolean result = hasNextRow();
+            logger.logp(Level.FINER, "next", () -> "cursor.hasNext()? " + result);
             if (result) {
-                logger.log(Level.FINEST, "Getting row " + (rowNum + 1));
-                long startTime = System.nanoTime();
+                logger.logp(Level.FINEST, "next", () -> "Getting row " + (rowNum + 1));
+                // Only time the row when it is logged
+                boolean timed = logger.isLoggable(Level.FINER);
+                long startTime = timed ? System.nanoTime() : 0;
                 current = cursor.next();
-                long endTime = System.nanoTime();
-                logger.log(
-                        Level.FINER,
-                        "Moved to next row in "
-                                + ((endTime - startTime) / 1000000d)
-                                + " milliseconds");
+                countFetchedRow(current);
+                decodeCurrentRow();
+                if (timed) {
+                    long endTime = System.nanoTime();
+                    logger.logp(
+                            Level.FINER,
+                            "next",
+                            () ->
+                                    "Moved to next row in "
+                                            + ((endTime - startTime) / 1000000d)
+                                            + " milliseconds");
+                }
                 ++rowNum;
+            } else {
+                recordFetch(true);
             }
             return result;
         } catch (Exception e) {
@@ -215,37 +344,186 @@ public class MongoResultSet implements ResultSet {
             return;
         }
         cursor.close();
+        if (rowBuffer != null) {
+            rowBuffer.close();
+        }
+        boolean exhausted = fetchRecorded;
+        recordFetch(false);
+        if (metrics != null) {
+            metrics.resultSetClosed();
+            DriverEvents.resultSetClosed(
+                    statement.getStatementId(), rowsFetched, bytesFetched, exhausted);
+            statement.logSlowQuery(query, true);
+        }
         closed = true;
-        if (statement != null && !statement.isClosed && statement.isCloseOnCompletion()) {
-            statement.close();
+        MongoStatement owner = (statement != null) ? statement.getOwner() : null;
+        if (owner != null && !owner.isClosed && owner.isCloseOnCompletion()) {
+            owner.close();
         }
     }
 
+    /**
+     * Marks the result set as cancelled. The next call to {@link #next()} closes it and fails. This
+     * can be called from any thread.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /** @return the server cursor of this result set, or null if it is exhausted or closed. */
+    ServerCursor getServerCursor() {
+        return (cursor != null) ? cursor.getServerCursor() : null;
+    }
+
     @Override
     public boolean isLast() throws SQLException {
         checkClosed();
-        return !cursor.hasNext();
+        if (rowBuffer != null) {
+            return current != null && !fetchUpTo(rowNum + 1);
+        }
+        return isAtMaxRows(rowNum) || !cursor.hasNext();
+    }
+
+    /**
+     * @param rows The number of rows read.
+     * @return true if the maximum number of rows of the statement is reached.
+     */
+    private boolean isAtMaxRows(long rows) {
+        return maxRows > 0 && rows >= maxRows;
+    }
+
+    /**
+     * Reads rows from the cursor into the row buffer until it holds the given row.
+     *
+     * @param row The one-indexed number of the row.
+     * @return true if the result set has this row.
+     */
+    private boolean fetchUpTo(int row) throws SQLException {
+        try {
+            while (rowBuffer.size() < row
+                    && !isAtMaxRows(rowBuffer.size())
+                    && hasNextRow()) {
+                BsonDocument next = cursor.next();
+                countFetchedRow(next);
+                rowBuffer.add(next);
+            }
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+        if (rowBuffer.size() < row) {
+            recordFetch(true);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Calls {@link MongoCursor#hasNext()}, recording it as a getMore in the query diagnostics when
+     * the cursor has to wait for the next batch.
+     *
+     * @return true if the cursor has another row.
+     */
+    private boolean hasNextRow() {
+        if (diagnostics == null || cursor.available() > 0 || cursor.getServerCursor() == null) {
+            return cursor.hasNext();
+        }
+        QueryDiagnostics.Stopwatch stopwatch = diagnostics.start();
+        DriverEvents.Span span = DriverEvents.beginGetMore();
+        boolean result = cursor.hasNext();
+        DriverEvents.endGetMore(span, statement.getStatementId(), cursor.available());
+        diagnostics.recordGetMore(stopwatch);
+        return result;
+    }
+
+    private void countFetchedRow(BsonDocument row) {
+        if (metrics != null) {
+            long size =
+                    (row instanceof RawBsonDocument)
+                            ? ((RawBsonDocument) row).getByteBuffer().remaining()
+                            : 0;
+            rowsFetched++;
+            bytesFetched += size;
+            diagnostics.addRow(size);
+        }
+    }
+
+    /**
+     * Adds the rows read from the cursor to the metrics, once.
+     *
+     * @param exhausted true if all the rows were read, the time it took is then recorded.
+     */
+    private void recordFetch(boolean exhausted) {
+        if (metrics == null || fetchRecorded) {
+            return;
+        }
+        fetchRecorded = true;
+        if (exhausted) {
+            metrics.record(DriverMetrics.Phase.FULL_FETCH, System.nanoTime() - fetchStartNanos);
+        }
+        metrics.rowsFetched(rowsFetched, bytesFetched);
+    }
+
+    /**
+     * Moves a scrollable result set to the given row, or before the first row or after the last
+     * row when it is out of the result set.
+     *
+     * @param row The one-indexed number of the row.
+     * @return true if there is a current row.
+     */
+    private boolean moveTo(int row) throws SQLException {
+        if (row < 1) {
+            current = null;
+            rowNum = 0;
+            return false;
+        }
+        if (!fetchUpTo(row)) {
+            current = null;
+            rowNum = rowBuffer.size() + 1;
+            return false;
+        }
+        try {
+            current = rowBuffer.get(row - 1);
+        } catch (IOException e) {
+            throw new SQLException(e);
+        }
+        decodeCurrentRow();
+        rowNum = row;
+        return true;
+    }
+
+    private void checkScrollable() throws SQLException {
+        checkClosed();
+        if (rowBuffer == null) {
+            throw new SQLFeatureNotSupportedException(
+                    "The result set is TYPE_FORWARD_ONLY, create the statement with"
+                            + " TYPE_SCROLL_INSENSITIVE to scroll it.");
+        }
     }
 
     private BsonValue getBsonValue(int columnIndex) throws SQLException {
         checkBounds(columnIndex);
-        MongoColumnInfo columnInfo = rsMetaData.getColumnInfo(columnIndex);
-        BsonDocument datasource = this.current.get(columnInfo.getTableName()).asDocument();
-        return datasource.get(columnInfo.getColumnName());
+        if (!currentDecoded) {
+            extractCurrentValues();
+        }
+        return currentValues[columnIndex - 1];
     }
 
     private BsonValue getBsonValue(String columnLabel) throws SQLException {
-        int columnIndex;
-        if (rsMetaData.hasColumnWithLabel(columnLabel)) {
-            try {
-                columnIndex = rsMetaData.getColumnPositionFromLabel(columnLabel);
-                return getBsonValue(columnIndex + 1);
-            } catch (Exception e) {
-                throw new SQLException(e.getMessage());
-            }
-        } else {
+        Integer columnIndex = columnPositions.get(columnLabel);
+        if (columnIndex == null) {
             throw new SQLException(String.format("column label '%s' not found", columnLabel));
         }
+        return getBsonValue(checkAmbiguous(columnLabel, columnIndex) + 1);
+    }
+
+    private int checkAmbiguous(String columnLabel, int columnIndex) throws SQLException {
+        if (columnIndex == AMBIGUOUS_COLUMN) {
+            throw new SQLException(
+                    "Multiple columns with the label '"
+                            + columnLabel
+                            + "' exist. Use indexes to avoid ambiguity.");
+        }
+        return columnIndex;
     }
 
     private void checkClosed() throws SQLException {
@@ -652,8 +930,8 @@ public class MongoResultSet implements ResultSet {
 
     @Override
     public String getCursorName() throws SQLException {
-        if (this.statement.cursorName != null) {
-            return this.statement.cursorName;
+        if (this.statement.getOwner().cursorName != null) {
+            return this.statement.getOwner().cursorName;
         }
         if (this.cursor != null) {
             return String.valueOf(this.cursor.getServerCursor().getId());
@@ -749,8 +1027,7 @@ public class MongoResultSet implements ResultSet {
     @Override
     public Object getObject(int columnIndex) throws SQLException {
         BsonValue out = getBsonValue(columnIndex);
-        int columnType = rsMetaData.getColumnType(columnIndex);
-        return getObject(out, columnType);
+        return getObject(out, columnTypes[columnIndex - 1]);
     }
 
     @Override
@@ -799,14 +1076,11 @@ public class MongoResultSet implements ResultSet {
     @Override
     public int findColumn(String columnLabel) throws SQLException {
         checkClosed();
-        if (!rsMetaData.hasColumnWithLabel(columnLabel)) {
+        Integer columnIndex = columnPositions.get(columnLabel);
+        if (columnIndex == null) {
             throw new SQLException("No such column: '" + columnLabel + "'.");
         }
-        try {
-            return rsMetaData.getColumnPositionFromLabel(columnLabel) + 1;
-        } catch (Exception e) {
-            throw new SQLException(e.getMessage());
-        }
+        return checkAmbiguous(columnLabel, columnIndex) + 1;
     }
 
     // --------------------------JDBC 2.0-----------------------------------
@@ -884,68 +1158,78 @@ public class MongoResultSet implements ResultSet {
 
     @Override
     public boolean isBeforeFirst() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        return rowNum == 0 && fetchUpTo(1);
     }
 
     @Override
     public boolean isAfterLast() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        return rowBuffer.size() > 0 && rowNum > rowBuffer.size();
     }
 
     @Override
     public boolean isFirst() throws SQLException {
         checkClosed();
-        return rowNum == 1;
+        return rowNum == 1 && (rowBuffer == null || current != null);
     }
 
     @Override
     public void beforeFirst() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        moveTo(0);
     }
 
     @Override
     public void afterLast() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        moveTo(Integer.MAX_VALUE);
     }
 
     @Override
     public boolean first() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        return moveTo(1);
     }
 
     @Override
     public boolean last() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        fetchUpTo(Integer.MAX_VALUE);
+        return moveTo(rowBuffer.size());
     }
 
     @Override
     public int getRow() throws SQLException {
         checkClosed();
+        if (rowBuffer != null && current == null) {
+            return 0;
+        }
         return rowNum;
     }
 
     @Override
     public boolean absolute(int row) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        if (row >= 0) {
+            return moveTo(row);
+        }
+        // Negative rows count from the end, -1 being the last row
+        fetchUpTo(Integer.MAX_VALUE);
+        return moveTo(rowBuffer.size() + 1 + row);
     }
 
     @Override
     public boolean relative(int rows) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        // Overflows go before the first row or after the last one
+        return moveTo((int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) rowNum + rows)));
     }
 
     @Override
     public boolean previous() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkScrollable();
+        return moveTo(rowNum - 1);
     }
 
     // ---------------------------------------------------------------------
@@ -979,7 +1263,9 @@ public class MongoResultSet implements ResultSet {
     @Override
     public int getType() throws SQLException {
         checkClosed();
-        return ResultSet.TYPE_FORWARD_ONLY;
+        return (rowBuffer != null)
+                ? ResultSet.TYPE_SCROLL_INSENSITIVE
+                : ResultSet.TYPE_FORWARD_ONLY;
     }
 
     @Override
@@ -1289,7 +1575,8 @@ public class MongoResultSet implements ResultSet {
     @Override
     public Statement getStatement() throws SQLException {
         checkClosed();
-        return statement;
+        // The result sets of a batch belong to the statement which executed the batch
+        return (statement != null) ? statement.getOwner() : null;
     }
 
     @Override
@@ -1897,12 +2184,19 @@ public class MongoResultSet implements ResultSet {
     // java.sql.Wrapper impl
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return iface.isInstance(this);
+        return iface.isInstance(this) || (iface == QueryDiagnostics.class && diagnostics != null);
     }
 
+    /**
+     * Besides this result set, returns the {@link QueryDiagnostics} of the query which produced it
+     * for {@code QueryDiagnostics.class}, if it was produced by a statement.
+     */
     @SuppressWarnings("unchecked")
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == QueryDiagnostics.class && diagnostics != null) {
+            return (T) diagnostics;
+        }
         return (T) this;
     }
 }
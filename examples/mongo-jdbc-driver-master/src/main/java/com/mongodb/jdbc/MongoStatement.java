@@ -17,44 +17,95 @@
 package com.mongodb.jdbc;
 
 import com.google.common.base.Preconditions;
+import com.mongodb.MongoException;
 import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ServerCursor;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
 import com.mongodb.jdbc.logging.AutoLoggable;
 import com.mongodb.jdbc.logging.MongoLogger;
 import com.mongodb.jdbc.logging.QueryDiagnostics;
+import com.mongodb.jdbc.logging.SlowQueryLog;
+import com.mongodb.jdbc.metrics.DriverEvents;
+import com.mongodb.jdbc.metrics.DriverMetrics;
+import com.mongodb.jdbc.mongosql.CatalogFingerprint;
 import com.mongodb.jdbc.mongosql.GetNamespacesResult;
 import com.mongodb.jdbc.mongosql.MongoSQLException;
 import com.mongodb.jdbc.mongosql.MongoSQLTranslate;
 import com.mongodb.jdbc.mongosql.TranslateResult;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import org.apache.commons.text.StringEscapeUtils;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
 import org.bson.BsonDocument;
+import org.bson.BsonDouble;
 import org.bson.BsonInt32;
+import org.bson.BsonInt64;
 import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
 
 @AutoLoggable
 public class MongoStatement implements Statement {
     private static final BsonInt32 BSON_ONE_INT_VALUE = new BsonInt32(1);
+    // SQLSTATE reported when a query fails because it was cancelled.
+    static final String SQLSTATE_CANCELLED = "HY008";
+    // Namespace of the cursors opened by an aggregation run against a database.
+    private static final String DB_AGGREGATE_NAMESPACE = "$cmd.aggregate";
+    private static final String LIMIT_STAGE = "$limit";
 
     // Likely, the actual mongo sql command will not
     // need a database or collection, since those
     // must be parsed from the query.
     private MongoDatabase currentDB;
-    private MongoResultSet resultSet;
+    private volatile MongoResultSet resultSet;
     private MongoConnection conn;
     protected boolean isClosed = false;
     protected boolean closeOnCompletion = false;
     private int fetchSize = 0;
     private int maxQuerySec = 0;
+    private int resultSetType = ResultSet.TYPE_FORWARD_ONLY;
+    // The maximum number of rows of a result set, 0 for no limit.
+    private long maxRows = 0;
     private MongoLogger logger;
     private int statementId;
     String cursorName;
 
+    // State of the current query, read by cancel() which can be called from another thread.
+    private volatile boolean executing = false;
+    private volatile boolean cancelled = false;
+    private volatile MongoDatabase queryDB;
+    private volatile String queryCollection;
+    // Comment attached to the aggregation, used to find the operation on the server.
+    private volatile String queryComment;
+    private int queryCount = 0;
+    // The pipeline run by the current query and its start time, for the slow query log.
+    private List<BsonDocument> queryPipeline;
+    private long queryStartNanos;
+
+    // Queries added with addBatch, and the results of the last batch after the current one.
+    private final List<String> batch = new ArrayList<>();
+    private final Deque<MongoResultSet> pendingResults = new ArrayDeque<>();
+    // Results kept open with getMoreResults(KEEP_CURRENT_RESULT).
+    private final List<MongoResultSet> keptResults = new ArrayList<>();
+    // The statements which ran the queries of the last batch. They keep the result sets of the
+    // batch until they are closed, and are cancelled along with this statement.
+    private volatile List<MongoStatement> batchStatements = Collections.emptyList();
+    // The statement which executed the batch this statement runs a query of, null otherwise.
+    // Statements running the query of a batch are not counted as open.
+    private MongoStatement batchOwner;
+
     public MongoStatement(MongoConnection conn, String databaseName) throws SQLException {
         Preconditions.checkNotNull(conn);
         Preconditions.checkNotNull(databaseName);
@@ -67,6 +118,29 @@ public class MongoStatement implements Statement {
         } catch (IllegalArgumentException e) {
             throw new SQLException("Database name %s is invalid", databaseName);
         }
+        conn.getMetrics().statementOpened();
+    }
+
+    /**
+     * Creates a statement running one query of a batch of the given statement. It keeps its result
+     * set, so the logger, diagnostics and cursor of the result set remain those of its query, but
+     * the result set reports the given statement as its statement.
+     */
+    private MongoStatement(MongoStatement batchOwner) {
+        this.conn = batchOwner.conn;
+        this.statementId = batchOwner.statementId;
+        logger = new MongoLogger(this.getClass().getCanonicalName(), conn.getLogger(), statementId);
+        this.currentDB = batchOwner.currentDB;
+        this.fetchSize = batchOwner.fetchSize;
+        this.maxQuerySec = batchOwner.maxQuerySec;
+        this.resultSetType = batchOwner.resultSetType;
+        this.maxRows = batchOwner.maxRows;
+        this.batchOwner = batchOwner;
+    }
+
+    /** @return the statement which executed the batch this statement is part of, or this one. */
+    MongoStatement getOwner() {
+        return (batchOwner != null) ? batchOwner : this;
     }
 
     protected MongoLogger getParentLogger() {
@@ -77,10 +151,32 @@ public class MongoStatement implements Statement {
         return statementId;
     }
 
+    protected MongoConnection.MongoClusterType getClusterType() {
+        return conn.getClusterType();
+    }
+
     protected QueryDiagnostics getQueryDiagnostics() {
         return logger.getQueryDiagnostics();
     }
 
+    DriverMetrics getMetrics() {
+        return conn.getMetrics();
+    }
+
+    /**
+     * Records the duration of a phase of the current query, in the metrics of the connection and in
+     * the diagnostics of the query.
+     *
+     * @param phase The phase, for the metrics.
+     * @param diagnosticsPhase The name of the phase, for the diagnostics.
+     * @param startTime The value of {@link System#nanoTime()} when the phase started.
+     */
+    private void recordPhase(DriverMetrics.Phase phase, String diagnosticsPhase, long startTime) {
+        long nanos = System.nanoTime() - startTime;
+        conn.getMetrics().record(phase, nanos);
+        getQueryDiagnostics().recordPhase(diagnosticsPhase, nanos);
+    }
+
     protected BsonDocument constructQueryDocument(String sql) {
         BsonDocument stage = new BsonDocument();
         BsonDocument sqlDoc = new BsonDocument();
@@ -95,6 +191,65 @@ public class MongoStatement implements Statement {
         }
     }
 
+    /**
+     * @return the class result rows are decoded to. In lazy decode mode, rows are kept as raw BSON
+     *     and the result set only decodes the columns which are accessed.
+     */
+    private Class<? extends BsonDocument> getResultDocumentClass() {
+        // Prefetched rows are kept raw, their size is then known and bounded by the memory cap.
+        // The rows of scrollable result sets are buffered raw, as they are read.
+        return (conn.getLazyDecode() || conn.getPrefetchDepth() > 0 || isScrollable())
+                ? RawBsonDocument.class
+                : BsonDocument.class;
+    }
+
+    /**
+     * Opens the cursor of a query, reading it ahead on a background thread when prefetching is
+     * enabled for the connection.
+     */
+    private <T extends BsonDocument> MongoCursor<T> openCursor(MongoIterable<T> iterable) {
+        if (fetchSize != 0) {
+            iterable = iterable.batchSize(fetchSize);
+        }
+        MongoCursor<T> cursor = iterable.cursor();
+        if (conn.getPrefetchDepth() > 0) {
+            cursor =
+                    new PrefetchingCursor<>(
+                            cursor, conn.getPrefetchDepth(), conn.getPrefetchMaxBytes());
+        }
+        return cursor;
+    }
+
+    /**
+     * Applies a maximum number of rows to a pipeline, by lowering its trailing $limit stage or by
+     * appending one, so that the server stops once it has the rows. The given pipeline is not
+     * modified, as translated pipelines are shared between executions.
+     *
+     * @param pipeline The pipeline.
+     * @param maxRows The maximum number of rows, or 0 for no limit.
+     * @return the pipeline to run.
+     */
+    static List<BsonDocument> limitPipeline(List<BsonDocument> pipeline, long maxRows) {
+        if (maxRows <= 0) {
+            return pipeline;
+        }
+        List<BsonDocument> limited = new ArrayList<>(pipeline);
+        int last = limited.size() - 1;
+        if (last >= 0) {
+            BsonDocument stage = limited.get(last);
+            BsonValue limit = stage.get(LIMIT_STAGE);
+            if (stage.size() == 1 && limit != null && limit.isNumber()) {
+                if (limit.asNumber().longValue() <= maxRows) {
+                    return pipeline;
+                }
+                limited.set(last, new BsonDocument(LIMIT_STAGE, new BsonInt64(maxRows)));
+                return limited;
+            }
+        }
+        limited.add(new BsonDocument(LIMIT_STAGE, new BsonInt64(maxRows)));
+        return limited;
+    }
+
     private BsonDocument constructSQLGetResultSchemaDocument(String sql) {
         BsonDocument command = new BsonDocument();
         command.put("sqlGetResultSchema", BSON_ONE_INT_VALUE);
@@ -105,6 +260,71 @@ public class MongoStatement implements Statement {
 
     // ----------------------------------------------------------------------
 
+    /**
+     * Executes the given query on the shared query executor of the driver, see {@link
+     * MongoExecutors#getQueryExecutor()}.
+     *
+     * @param sql The SQL query.
+     * @return a future completed with the result set, or with the exception thrown by {@link
+     *     #executeQuery(String)}.
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        return executeQueryAsync(sql, MongoExecutors.getQueryExecutor());
+    }
+
+    /**
+     * Executes the given query on the given executor. As with {@link #executeQuery(String)}, a
+     * statement runs one query at a time and starting a query closes the current result set, so
+     * concurrent queries need one statement each. Cancelling the returned future cancels the query.
+     *
+     * @param sql The SQL query.
+     * @param executor The executor running the query.
+     * @return a future completed with the result set, or with the exception thrown by {@link
+     *     #executeQuery(String)}.
+     */
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor) {
+        return executeAsync(() -> executeQuery(sql), executor);
+    }
+
+    /** Runs a query of this statement on the given executor, see {@link #executeQueryAsync}. */
+    CompletableFuture<ResultSet> executeAsync(Callable<ResultSet> query, Executor executor) {
+        CompletableFuture<ResultSet> future = new CompletableFuture<>();
+        // Set by whichever of the task and the cancellation of the future comes first
+        AtomicBoolean started = new AtomicBoolean();
+        try {
+            checkClosed();
+            executor.execute(
+                    () -> {
+                        if (!started.compareAndSet(false, true)) {
+                            // Cancelled before it started
+                            return;
+                        }
+                        try {
+                            ResultSet rs = query.call();
+                            if (!future.complete(rs)) {
+                                closeExistingResultSet();
+                            }
+                        } catch (Throwable t) {
+                            future.completeExceptionally(t);
+                        }
+                    });
+        } catch (SQLException | RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete(
+                (rs, t) -> {
+                    if (future.isCancelled() && !started.compareAndSet(false, true)) {
+                        try {
+                            cancel();
+                        } catch (SQLException ignored) {
+                            // The statement was closed in the meantime
+                        }
+                    }
+                });
+        return future;
+    }
+
     @Override
     public int executeUpdate(String sql) throws SQLException {
         throw new SQLFeatureNotSupportedException(
@@ -119,6 +339,10 @@ public class MongoStatement implements Statement {
         }
         isClosed = true;
         closeExistingResultSet();
+        closeBatchResults();
+        if (batchOwner == null) {
+            conn.getMetrics().statementClosed();
+        }
     }
 
     @Override
@@ -135,12 +359,12 @@ public class MongoStatement implements Statement {
     @Override
     public int getMaxRows() throws SQLException {
         checkClosed();
-        return 0;
+        return (int) Math.min(maxRows, Integer.MAX_VALUE);
     }
 
     @Override
     public void setMaxRows(int max) throws SQLException {
-        checkClosed();
+        setLargeMaxRows(max);
     }
 
     @Override
@@ -173,6 +397,25 @@ public class MongoStatement implements Statement {
         }
     }
 
+    // Close the results of the last batch which were not retrieved or kept open, along with the
+    // statements which ran them.
+    private void closeBatchResults() {
+        List<MongoResultSet> results = new ArrayList<>(pendingResults);
+        results.addAll(keptResults);
+        pendingResults.clear();
+        keptResults.clear();
+        for (MongoResultSet rs : results) {
+            try {
+                rs.close();
+            } catch (SQLException ignored) {
+                // The cursor might have already been closed by the server.
+            }
+        }
+        List<MongoStatement> statements = batchStatements;
+        batchStatements = Collections.emptyList();
+        statements.forEach(MongoStatement::close);
+    }
+
     @Override
     public SQLWarning getWarnings() throws SQLException {
         checkClosed();
@@ -202,24 +445,68 @@ public class MongoStatement implements Statement {
         BsonDocument getSchemaCmd = constructSQLGetResultSchemaDocument(sql);
 
         BsonDocument sqlStage = constructQueryDocument(sql);
-        MongoIterable<BsonDocument> iterable =
+        // Atlas Data Federation operations can't be found by comment, only the cursor is killed.
+        queryDB = currentDB;
+        queryCollection = DB_AGGREGATE_NAMESPACE;
+        queryComment = null;
+        // The $limit stage runs on the rows produced by the $sql stage
+        List<BsonDocument> pipeline = limitPipeline(Collections.singletonList(sqlStage), maxRows);
+        queryPipeline = pipeline;
+        MongoIterable<? extends BsonDocument> iterable =
                 currentDB
-                        .aggregate(Collections.singletonList(sqlStage), BsonDocument.class)
+                        .aggregate(pipeline, getResultDocumentClass())
                         .maxTime(maxQuerySec, TimeUnit.SECONDS);
 
-        if (fetchSize != 0) {
-            iterable = iterable.batchSize(fetchSize);
+        // The result schema does not depend on the results, so it is fetched while the query runs
+        // instead of after it, unless it is cached.
+        MongoDatabase db = currentDB;
+        long schemaCacheTtlMs = conn.getResultSchemaCacheTtlMs();
+        MongoJsonSchemaResult cachedSchema =
+                (schemaCacheTtlMs > 0)
+                        ? conn.getResultSchemaCache().get(db.getName(), sql, schemaCacheTtlMs)
+                        : null;
+        CompletableFuture<MongoJsonSchemaResult> schemaFuture =
+                (cachedSchema != null)
+                        ? CompletableFuture.completedFuture(cachedSchema)
+                        : CompletableFuture.supplyAsync(
+                                () ->
+                                        db.withCodecRegistry(MongoDriver.REGISTRY)
+                                                .runCommand(
+                                                        getSchemaCmd, MongoJsonSchemaResult.class),
+                                MongoExecutors.getTaskExecutor());
+
+        MongoCursor<? extends BsonDocument> cursor;
+        MongoJsonSchemaResult schemaResult;
+        long startTime = System.nanoTime();
+        try {
+            cursor = openCursor(iterable);
+        } catch (RuntimeException e) {
+            schemaFuture.cancel(false);
+            throw e;
+        }
+        long schemaStartTime = System.nanoTime();
+        getQueryDiagnostics().recordPhase(QueryDiagnostics.AGGREGATE, schemaStartTime - startTime);
+        try {
+            schemaResult = awaitResultSchema(schemaFuture);
+        } catch (SQLException | RuntimeException e) {
+            cursor.close();
+            throw e;
+        }
+        // Only the time spent waiting for the schema once the cursor is open
+        long endTime = System.nanoTime();
+        getQueryDiagnostics()
+                .recordPhase(QueryDiagnostics.SQL_GET_RESULT_SCHEMA, endTime - schemaStartTime);
+        conn.getMetrics().record(DriverMetrics.Phase.FIRST_BATCH, endTime - startTime);
+        if (cachedSchema == null && schemaCacheTtlMs > 0) {
+            conn.getResultSchemaCache().put(db.getName(), sql, schemaResult);
         }
-
-        MongoCursor<BsonDocument> cursor = iterable.cursor();
-        MongoJsonSchemaResult schemaResult =
-                currentDB
-                        .withCodecRegistry(MongoDriver.REGISTRY)
-                        .runCommand(getSchemaCmd, MongoJsonSchemaResult.class);
         MongoJsonSchema resultsetSchema = schemaResult.schema.mongoJsonSchema;
         List<List<String>> selectOrder = schemaResult.selectOrder;
         logger.setResultSetSchema(resultsetSchema);
-        logger.log(Level.FINE, "ResultSet schema: " + resultsetSchema);
+        logger.logp(
+                Level.FINE,
+                "executeAtlasDataFederationQuery",
+                () -> "ResultSet schema: " + resultsetSchema);
         resultSet =
                 new MongoResultSet(
                         this,
@@ -232,16 +519,66 @@ public class MongoStatement implements Statement {
         return resultSet;
     }
 
+    /**
+     * Waits for the sqlGetResultSchema response of a query.
+     *
+     * @param schemaFuture The future completed with the response.
+     * @return the response.
+     */
+    private static MongoJsonSchemaResult awaitResultSchema(
+            CompletableFuture<MongoJsonSchemaResult> schemaFuture) throws SQLException {
+        try {
+            return schemaFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while fetching the result schema.", e);
+        } catch (ExecutionException e) {
+            // Rethrow the driver exceptions as is, as when the command runs on this thread
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        }
+    }
+
     private ResultSet executeDirectClusterQuery(String sql)
             throws MongoSQLException, MongoSerializationException, SQLException {
+        TranslateResult translateResponse = translateDirectClusterQuery(sql);
+        return executeTranslatedQuery(translateResponse, translateResponse.pipeline);
+    }
+
+    /**
+     * Translates a query with the mongosqltranslate library. If the query targets another
+     * database, the statement switches to it.
+     *
+     * @param sql The SQL query.
+     * @return the translation.
+     */
+    private TranslateResult translateDirectClusterQuery(String sql)
+            throws MongoSQLException, MongoSerializationException, SQLException {
+        return translateDirectClusterQuery(sql, buildDirectClusterCatalog(sql));
+    }
+
+    /**
+     * Builds the schema catalog of a query. If the query targets another database, the statement
+     * switches to it.
+     *
+     * @param sql The SQL query.
+     * @return the catalog of the collections the query reads.
+     */
+    private BsonDocument buildDirectClusterCatalog(String sql)
+            throws MongoSQLException, MongoSerializationException, SQLException {
         MongoSQLTranslate mongoSQLTranslate = conn.getMongosqlTranslate();
         String dbName = currentDB.getName();
 
         // Retrieve the namespaces for the query
+        long startTime = System.nanoTime();
         GetNamespacesResult namespaceResult =
                 mongoSQLTranslate.getNamespaces(currentDB.getName(), sql);
+        recordPhase(DriverMetrics.Phase.NAMESPACES, QueryDiagnostics.GET_NAMESPACES, startTime);
 
-        logger.log(Level.FINE, "Namespaces: " + namespaceResult);
+        logger.logp(
+                Level.FINE, "executeDirectClusterQuery", () -> "Namespaces: " + namespaceResult);
         List<GetNamespacesResult.Namespace> namespaces = namespaceResult.namespaces;
         // Check to see if namespaces returned a database. It would only do this
         // if the query contains a qualified namespace. In this event, we must
@@ -251,40 +588,112 @@ public class MongoStatement implements Statement {
             currentDB = conn.getDatabase(dbName);
         }
 
-        // Translate the SQL query
+        startTime = System.nanoTime();
         BsonDocument catalogDoc =
                 mongoSQLTranslate.buildCatalogDocument(currentDB, dbName, namespaces);
-        logger.log(Level.FINE, "Query catalog: " + catalogDoc);
+        recordPhase(
+                DriverMetrics.Phase.CATALOG, QueryDiagnostics.BUILD_CATALOG_DOCUMENT, startTime);
+        logger.logp(
+                Level.FINE, "executeDirectClusterQuery", () -> "Query catalog: " + catalogDoc);
         logger.setNamespacesSchema(catalogDoc);
-        TranslateResult translateResponse = mongoSQLTranslate.translate(sql, dbName, catalogDoc);
+        return catalogDoc;
+    }
+
+    /**
+     * Translates a query against the current database.
+     *
+     * @param sql The SQL query.
+     * @param catalogDoc The catalog built for the query.
+     * @return the translation.
+     */
+    private TranslateResult translateDirectClusterQuery(String sql, BsonDocument catalogDoc)
+            throws MongoSQLException, MongoSerializationException {
+        long startTime = System.nanoTime();
+        TranslateResult translateResponse =
+                conn.getMongosqlTranslate().translate(sql, currentDB.getName(), catalogDoc);
+        recordPhase(DriverMetrics.Phase.TRANSLATE, QueryDiagnostics.TRANSLATE, startTime);
         logger.setPipeline(translateResponse.pipeline);
         logger.setResultSetSchema(translateResponse.resultSetSchema);
-        logger.log(Level.FINE, "Translate response: " + translateResponse);
+        logger.logp(
+                Level.FINE,
+                "executeDirectClusterQuery",
+                () -> "Translate response: " + translateResponse);
+        return translateResponse;
+    }
 
-        MongoIterable<BsonDocument> iterable = null;
+    /**
+     * Runs a parameterized query with the template of its parameter types, translating the query
+     * again when the schema catalog changed since the template was last translated.
+     *
+     * @param sql The SQL query, with the parameter values inlined.
+     * @param template The template for the types of the values.
+     * @param values The parameter values.
+     * @return the result set.
+     */
+    private ResultSet executeTemplatedQuery(
+            String sql, PipelineTemplate template, BsonValue[] values)
+            throws MongoSQLException, MongoSerializationException, SQLException {
+        BsonDocument catalogDoc = buildDirectClusterCatalog(template.getSql());
+        CatalogFingerprint catalog = conn.getMongosqlTranslate().fingerprint(catalogDoc);
+        PipelineTemplate.Translation translation = template.getTranslation(catalog);
+        if (translation == null) {
+            translation =
+                    template.setTranslation(
+                            translateDirectClusterQuery(template.getSql(), catalogDoc), catalog);
+        }
+        TranslateResult translateResponse = translation.getResult();
+        if (translateResponse == null) {
+            // The translation depends on the parameter values, which are inlined in the query
+            translateResponse = translateDirectClusterQuery(sql, catalogDoc);
+            return executeTranslatedQuery(translateResponse, translateResponse.pipeline);
+        }
+        List<BsonDocument> pipeline = template.bind(translateResponse, values);
+        logger.setPipeline(pipeline);
+        logger.setResultSetSchema(translateResponse.resultSetSchema);
+        return executeTranslatedQuery(translateResponse, pipeline);
+    }
+
+    /**
+     * Runs a translated query against the current database.
+     *
+     * @param translateResponse The translation of the query.
+     * @param pipeline The pipeline to run, either the translated one or a copy of it.
+     * @return the result set.
+     */
+    private ResultSet executeTranslatedQuery(
+            TranslateResult translateResponse, List<BsonDocument> pipeline) {
+        MongoIterable<? extends BsonDocument> iterable = null;
+        pipeline = limitPipeline(pipeline, maxRows);
+        queryPipeline = pipeline;
+        queryDB = currentDB;
+        queryComment =
+                "mongodb-jdbc c" + conn.connectionId + " s" + statementId + " q" + ++queryCount;
         if (translateResponse.targetCollection != null
                 && !translateResponse.targetCollection.isEmpty()) {
+            queryCollection = translateResponse.targetCollection;
             iterable =
                     currentDB
                             .getCollection(translateResponse.targetCollection)
-                            .aggregate(translateResponse.pipeline, BsonDocument.class)
+                            .aggregate(pipeline, getResultDocumentClass())
+                            .comment(queryComment)
                             .maxTime(maxQuerySec, TimeUnit.SECONDS);
         } else {
             // If there are no target collection execute the pipeline against the DB directly
+            queryCollection = DB_AGGREGATE_NAMESPACE;
             iterable =
                     currentDB
-                            .aggregate(translateResponse.pipeline, BsonDocument.class)
+                            .aggregate(pipeline, getResultDocumentClass())
+                            .comment(queryComment)
                             .maxTime(maxQuerySec, TimeUnit.SECONDS);
         }
 
-        if (fetchSize != 0) {
-            iterable = iterable.batchSize(fetchSize);
-        }
-
+        long startTime = System.nanoTime();
+        MongoCursor<? extends BsonDocument> cursor = openCursor(iterable);
+        recordPhase(DriverMetrics.Phase.FIRST_BATCH, QueryDiagnostics.AGGREGATE, startTime);
         resultSet =
                 new MongoResultSet(
                         this,
-                        iterable.cursor(),
+                        cursor,
                         translateResponse.resultSetSchema,
                         translateResponse.selectOrder,
                         conn.getExtJsonMode(),
@@ -294,31 +703,209 @@ public class MongoStatement implements Statement {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public ResultSet executeQuery(String sql) throws SQLException {
+        return executeQuery(sql, null, null);
+    }
+
+    /**
+     * What the slow query log records about a query, taken when it is executed so that the next
+     * queries of the statement do not change it. It is logged at most once.
+     */
+    static final class QuerySnapshot {
+        private final MongoDatabase database;
+        private final String collection;
+        private final List<BsonDocument> pipeline;
+        private final long startNanos;
+        private final QueryDiagnostics diagnostics;
+        private final AtomicBoolean logged = new AtomicBoolean();
+
+        private QuerySnapshot(
+                MongoDatabase database,
+                String collection,
+                List<BsonDocument> pipeline,
+                long startNanos,
+                QueryDiagnostics diagnostics) {
+            this.database = database;
+            this.collection = collection;
+            this.pipeline = pipeline;
+            this.startNanos = startNanos;
+            this.diagnostics = diagnostics;
+        }
+    }
+
+    /** @return the snapshot of the current query, for the slow query log. */
+    QuerySnapshot snapshotQuery() {
+        // The collection is only known once the pipeline runs
+        return new QuerySnapshot(
+                currentDB,
+                (queryPipeline != null) ? queryCollection : null,
+                queryPipeline,
+                queryStartNanos,
+                getQueryDiagnostics());
+    }
+
+    /**
+     * Writes a query to the slow query log of the connection, if it took longer than the threshold
+     * from its execution until now. It is called once the result set of the query is closed, by
+     * the application or along with the statement, so its duration includes reading the rows, or
+     * when the query fails. The record is written once the pipeline is explained, in the
+     * background, if the connection asks for it.
+     *
+     * @param query The snapshot of the query taken when it was executed.
+     * @param succeeded true if the query returned a result set.
+     */
+    void logSlowQuery(QuerySnapshot query, boolean succeeded) {
+        SlowQueryLog log = conn.getSlowQueryLog();
+        if (log == null) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - query.startNanos;
+        if (durationNanos < TimeUnit.MILLISECONDS.toNanos(conn.getSlowQueryThresholdMs())
+                || !query.logged.compareAndSet(false, true)) {
+            return;
+        }
+
+        QueryDiagnostics diagnostics = query.diagnostics;
+        BsonDocument phases = new BsonDocument();
+        for (Map.Entry<String, Long> phase : diagnostics.getPhaseNanos().entrySet()) {
+            phases.append(phase.getKey(), new BsonInt64(phase.getValue()));
+        }
+        BsonDocument record =
+                new BsonDocument("timestamp", new BsonDateTime(System.currentTimeMillis()))
+                        .append("connectionId", new BsonInt32(conn.connectionId))
+                        .append("statementId", new BsonInt32(statementId))
+                        .append("sql", new BsonString(String.valueOf(diagnostics.getSqlQuery())))
+                        .append("database", new BsonString(query.database.getName()))
+                        .append("succeeded", BsonBoolean.valueOf(succeeded))
+                        .append("durationMs", new BsonDouble(durationNanos / 1e6))
+                        .append("rows", new BsonInt64(diagnostics.getRowsFetched()))
+                        .append("bytes", new BsonInt64(diagnostics.getBytesFetched()))
+                        .append("phaseNanos", phases)
+                        .append("getMoreCount", new BsonInt64(diagnostics.getGetMoreCount()))
+                        .append("cpuNanos", new BsonInt64(diagnostics.getCpuNanos()))
+                        .append("allocatedBytes", new BsonInt64(diagnostics.getAllocatedBytes()));
+        if (query.pipeline == null) {
+            // The query failed before running
+            log.write(record);
+            return;
+        }
+        boolean dbAggregate =
+                (query.collection == null) || DB_AGGREGATE_NAMESPACE.equals(query.collection);
+        if (query.collection != null) {
+            record.append("collection", new BsonString(query.collection));
+        }
+        record.append("pipeline", new BsonArray(query.pipeline));
+        // The log is kept open until the explain is done, should the connection be closed first
+        if (!conn.getSlowQueryExplain() || !log.retain()) {
+            log.write(record);
+            return;
+        }
+
+        BsonDocument explainCmd =
+                new BsonDocument(
+                                "explain",
+                                new BsonDocument(
+                                                "aggregate",
+                                                dbAggregate
+                                                        ? new BsonInt32(1)
+                                                        : new BsonString(query.collection))
+                                        .append("pipeline", new BsonArray(query.pipeline))
+                                        .append("cursor", new BsonDocument()))
+                        .append("verbosity", new BsonString("queryPlanner"));
+        MongoDatabase db = query.database;
+        Runnable writeRecord =
+                () -> {
+                    try {
+                        log.write(record);
+                    } finally {
+                        log.close();
+                    }
+                };
+        try {
+            MongoExecutors.getTaskExecutor()
+                    .execute(
+                            () -> {
+                                try {
+                                    BsonDocument explain =
+                                            db.runCommand(explainCmd, BsonDocument.class);
+                                    if (explain != null) {
+                                        record.append("explain", explain);
+                                    }
+                                } catch (RuntimeException e) {
+                                    record.append("explainError", new BsonString(e.toString()));
+                                }
+                                writeRecord.run();
+                            });
+        } catch (RejectedExecutionException e) {
+            writeRecord.run();
+        }
+    }
+
+    /**
+     * Executes a query, binding its parameter values in a template if it is provided.
+     *
+     * @param sql The SQL query, with the parameter values inlined.
+     * @param template The template for the types of the parameter values, or null to translate
+     *     the query. Only used on direct clusters.
+     * @param values The parameter values to bind in the template.
+     * @return the result set.
+     */
+    ResultSet executeQuery(String sql, PipelineTemplate template, BsonValue[] values)
+            throws SQLException {
         checkClosed();
         closeExistingResultSet();
+        closeBatchResults();
+        // The result set of the previous query keeps its diagnostics
+        logger.setQueryDiagnostics(new QueryDiagnostics());
         logger.setSqlQuery(sql);
+        QueryDiagnostics.Stopwatch stopwatch = getQueryDiagnostics().start();
+        DriverEvents.Span querySpan = DriverEvents.beginQuery();
         long startTime = System.nanoTime();
-        logger.log(Level.INFO, StringEscapeUtils.escapeJava(sql));
+        queryStartNanos = startTime;
+        queryPipeline = null;
+        logger.logp(Level.INFO, "executeQuery", () -> StringEscapeUtils.escapeJava(sql));
         ResultSet result = null;
+        cancelled = false;
+        executing = true;
         try {
             if (conn.getClusterType() == MongoConnection.MongoClusterType.AtlasDataFederation) {
                 result = executeAtlasDataFederationQuery(sql);
             } else if (conn.getClusterType() == MongoConnection.MongoClusterType.Enterprise) {
-                result = executeDirectClusterQuery(sql);
+                result =
+                        (template != null)
+                                ? executeTemplatedQuery(sql, template, values)
+                                : executeDirectClusterQuery(sql);
             } else {
                 throw new SQLException("Unsupported cluster type: " + conn.clusterType);
             }
         } catch (MongoExecutionTimeoutException e) {
             throw new SQLTimeoutException(e);
+        } catch (MongoException e) {
+            if (cancelled) {
+                throw new SQLException("The query was cancelled.", SQLSTATE_CANCELLED, e);
+            }
+            throw e;
         } catch (MongoSQLException | MongoSerializationException e) {
             throw new RuntimeException(e);
+        } finally {
+            executing = false;
+            getQueryDiagnostics().recordExecution(stopwatch);
+            conn.getMetrics().queryExecuted(result != null);
+            DriverEvents.endQuery(querySpan, conn.connectionId, statementId, sql, result != null);
+            if (result == null) {
+                logSlowQuery(snapshotQuery(), false);
+            }
+        }
+        if (cancelled) {
+            // cancel() was called while the query was running but could not interrupt it
+            closeExistingResultSet();
+            throw new SQLException("The query was cancelled.", SQLSTATE_CANCELLED);
         }
         long endTime = System.nanoTime();
-        logger.log(
+        logger.logp(
                 Level.FINE,
-                "Query executed in " + ((endTime - startTime) / 1000000000d) + " seconds");
+                "executeQuery",
+                () -> "Query executed in " + ((endTime - startTime) / 1000000000d) + " seconds");
 
         return result;
     }
@@ -337,9 +924,8 @@ public class MongoStatement implements Statement {
 
     @Override
     public boolean getMoreResults() throws SQLException {
-        checkClosed();
-        // We only support one SQL query every time and no stored procedure support
-        return false;
+        // Only the queries of a batch have more results, there is no stored procedure support
+        return getMoreResults(CLOSE_CURRENT_RESULT);
     }
 
     // --------------------------JDBC 2.0-----------------------------
@@ -380,31 +966,183 @@ public class MongoStatement implements Statement {
     @Override
     public int getResultSetType() throws SQLException {
         checkClosed();
-        return ResultSet.TYPE_FORWARD_ONLY;
+        return resultSetType;
+    }
+
+    /** @param resultSetType TYPE_FORWARD_ONLY or TYPE_SCROLL_INSENSITIVE. */
+    void setResultSetType(int resultSetType) {
+        this.resultSetType = resultSetType;
+    }
+
+    /** @return true if the result sets of this statement are TYPE_SCROLL_INSENSITIVE. */
+    boolean isScrollable() {
+        return resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE;
+    }
+
+    /** @return how many bytes of rows scrollable result sets keep in memory before spilling. */
+    long getScrollMaxMemoryBytes() {
+        return conn.getScrollMaxBytes();
     }
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkClosed();
+        batch.add(sql);
     }
 
     @Override
     public void clearBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkClosed();
+        batch.clear();
     }
 
+    /**
+     * Executes the queries added with {@link #addBatch(String)} concurrently, on the shared query
+     * executor of the driver. When called from a thread of that executor, as from a query started
+     * with {@link #executeQueryAsync(String)}, the queries run one after the other on the calling
+     * thread instead, since waiting for queries queued behind the caller could deadlock. Their
+     * result sets are then available in submission order: the first one with {@link
+     * #getResultSet()}, the next ones after each call to {@link #getMoreResults()}.
+     *
+     * @return {@link #SUCCESS_NO_INFO} for each query, queries have no update count.
+     * @throws BatchUpdateException If a query fails. The result sets of the batch are closed.
+     */
     @Override
     public int[] executeBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkClosed();
+        closeExistingResultSet();
+        closeBatchResults();
+        List<String> queries = new ArrayList<>(batch);
+        batch.clear();
+
+        Executor executor =
+                MongoExecutors.isQueryThread() ? Runnable::run : MongoExecutors.getQueryExecutor();
+        List<MongoStatement> statements = new ArrayList<>(queries.size());
+        List<CompletableFuture<ResultSet>> futures = new ArrayList<>(queries.size());
+        for (String sql : queries) {
+            MongoStatement statement = new MongoStatement(this);
+            statements.add(statement);
+            futures.add(statement.executeQueryAsync(sql, executor));
+        }
+        batchStatements = statements;
+
+        int[] updateCounts = new int[queries.size()];
+        List<MongoResultSet> results = new ArrayList<>(queries.size());
+        SQLException failure = null;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add((MongoResultSet) futures.get(i).get());
+                    updateCounts[i] = SUCCESS_NO_INFO;
+                } catch (ExecutionException e) {
+                    updateCounts[i] = EXECUTE_FAILED;
+                    if (failure == null) {
+                        failure =
+                                (e.getCause() instanceof SQLException)
+                                        ? (SQLException) e.getCause()
+                                        : new SQLException(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            batchStatements = Collections.emptyList();
+            statements.forEach(MongoStatement::close);
+            throw new SQLException("Interrupted while executing the batch.", e);
+        }
+
+        if (failure != null) {
+            // Closing the statements closes their result sets
+            batchStatements = Collections.emptyList();
+            statements.forEach(MongoStatement::close);
+            throw new BatchUpdateException(
+                    failure.getMessage(),
+                    failure.getSQLState(),
+                    failure.getErrorCode(),
+                    updateCounts,
+                    failure);
+        }
+        if (!results.isEmpty()) {
+            resultSet = results.get(0);
+            pendingResults.addAll(results.subList(1, results.size()));
+        }
+        return updateCounts;
     }
 
+    /**
+     * Cancels the query currently executed by this statement, from another thread. The running
+     * aggregation is killed on the server with killOp when it can be found from its comment, and
+     * the open cursor of the result set is killed with killCursors. Both are best effort: the
+     * thread executing or iterating the query fails with SQLSTATE HY008 in any case.
+     */
     @Override
     public void cancel() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkClosed();
+        MongoResultSet rs = resultSet;
+        if (!executing && rs == null && batchStatements.isEmpty()) {
+            // Nothing to cancel
+            return;
+        }
+        for (MongoStatement statement : batchStatements) {
+            if (!statement.isClosed) {
+                statement.cancel();
+            }
+        }
+        cancelled = true;
+        String comment = queryComment;
+        if (executing && comment != null) {
+            killOperations(comment);
+        }
+        // The result sets of a batch were cancelled by the statements which ran their queries
+        if (rs != null && rs.statement == this) {
+            rs.cancel();
+            killCursor(queryDB, queryCollection, rs.getServerCursor());
+        }
+    }
+
+    private void killOperations(String comment) {
+        try {
+            MongoDatabase adminDB = conn.getDatabase("admin");
+            BsonDocument currentOp =
+                    adminDB.runCommand(
+                            new BsonDocument("currentOp", BSON_ONE_INT_VALUE)
+                                    .append("command.comment", new BsonString(comment)),
+                            BsonDocument.class);
+            if (currentOp == null || !currentOp.isArray("inprog")) {
+                return;
+            }
+            for (BsonValue op : currentOp.getArray("inprog")) {
+                if (op.isDocument() && op.asDocument().containsKey("opid")) {
+                    BsonValue opId = op.asDocument().get("opid");
+                    logger.log(Level.FINE, "Killing operation " + opId);
+                    adminDB.runCommand(
+                            new BsonDocument("killOp", BSON_ONE_INT_VALUE).append("op", opId),
+                            BsonDocument.class);
+                }
+            }
+        } catch (MongoException e) {
+            logger.log(Level.WARNING, "Failed to kill the running query : " + e.getMessage());
+        }
+    }
+
+    private void killCursor(MongoDatabase db, String collection, ServerCursor serverCursor) {
+        if (db == null || serverCursor == null) {
+            return;
+        }
+        try {
+            logger.log(Level.FINE, "Killing cursor " + serverCursor.getId());
+            db.runCommand(
+                    new BsonDocument("killCursors", new BsonString(collection))
+                            .append(
+                                    "cursors",
+                                    new BsonArray(
+                                            Collections.singletonList(
+                                                    new BsonInt64(serverCursor.getId())))),
+                    BsonDocument.class);
+        } catch (MongoException e) {
+            logger.log(Level.WARNING, "Failed to kill the query cursor : " + e.getMessage());
+        }
     }
 
     @Override
@@ -423,16 +1161,24 @@ public class MongoStatement implements Statement {
                 && current != CLOSE_ALL_RESULTS) {
             throw new SQLException("Invalid input.");
         }
-        if (current == KEEP_CURRENT_RESULT || current == CLOSE_ALL_RESULTS) {
-            throw new SQLFeatureNotSupportedException(
-                    Thread.currentThread().getStackTrace()[1].toString());
-        }
 
-        if (current == CLOSE_CURRENT_RESULT) {
+        if (current == KEEP_CURRENT_RESULT) {
+            if (resultSet != null) {
+                keptResults.add(resultSet);
+                resultSet = null;
+            }
+        } else {
             closeExistingResultSet();
         }
+        if (current == CLOSE_ALL_RESULTS) {
+            for (MongoResultSet rs : keptResults) {
+                rs.close();
+            }
+            keptResults.clear();
+        }
 
-        return false;
+        resultSet = pendingResults.poll();
+        return resultSet != null;
     }
 
     @Override
@@ -527,20 +1273,27 @@ public class MongoStatement implements Statement {
 
     @Override
     public void setLargeMaxRows(long max) throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        checkClosed();
+        if (max < 0) {
+            throw new SQLException("Invalid max rows: " + max + ". Max rows must be >= 0.");
+        }
+        maxRows = max;
     }
 
     @Override
     public long getLargeMaxRows() throws SQLException {
         checkClosed();
-        return 0;
+        return maxRows;
     }
 
     @Override
     public long[] executeLargeBatch() throws SQLException {
-        throw new SQLFeatureNotSupportedException(
-                Thread.currentThread().getStackTrace()[1].toString());
+        int[] updateCounts = executeBatch();
+        long[] largeUpdateCounts = new long[updateCounts.length];
+        for (int i = 0; i < updateCounts.length; i++) {
+            largeUpdateCounts[i] = updateCounts[i];
+        }
+        return largeUpdateCounts;
     }
 
     @Override
@@ -569,11 +1322,18 @@ public class MongoStatement implements Statement {
 
     // java.sql.Wrapper impl
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return iface.isInstance(this);
+        return iface.isInstance(this) || iface == QueryDiagnostics.class;
     }
 
+    /**
+     * Besides this statement, returns the {@link QueryDiagnostics} of its last query for {@code
+     * QueryDiagnostics.class}.
+     */
     @SuppressWarnings("unchecked")
     public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface == QueryDiagnostics.class) {
+            return (T) getQueryDiagnostics();
+        }
         return (T) this;
     }
 }
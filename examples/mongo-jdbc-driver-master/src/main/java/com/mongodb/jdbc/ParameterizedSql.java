@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.BsonValue;
+
+/**
+ * A SQL query with '?' parameter markers. Neither mongosql nor Atlas Data Federation support
+ * parameters, so the bound values are sent as SQL literals in place of the markers.
+ */
+class ParameterizedSql {
+    private final String sql;
+    // The positions of the '?' markers in the query
+    private final int[] markers;
+
+    private ParameterizedSql(String sql, int[] markers) {
+        this.sql = sql;
+        this.markers = markers;
+    }
+
+    /**
+     * Finds the parameter markers of a query. Question marks inside quoted strings, quoted
+     * identifiers and comments are not markers.
+     *
+     * @param sql The SQL query.
+     * @return the parsed query.
+     */
+    static ParameterizedSql parse(String sql) {
+        List<Integer> markers = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                // Doubled quotes escape a quote, they are handled as two consecutive quoted parts
+                int end = sql.indexOf(c, i + 1);
+                i = (end < 0) ? length : end + 1;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                int end = sql.indexOf('\n', i + 2);
+                i = (end < 0) ? length : end + 1;
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = (end < 0) ? length : end + 2;
+            } else {
+                if (c == '?') {
+                    markers.add(i);
+                }
+                i++;
+            }
+        }
+        int[] positions = new int[markers.size()];
+        for (int m = 0; m < positions.length; m++) {
+            positions[m] = markers.get(m);
+        }
+        return new ParameterizedSql(sql, positions);
+    }
+
+    /** @return the query, with its markers. */
+    String getSql() {
+        return sql;
+    }
+
+    /** @return the number of parameter markers. */
+    int getParameterCount() {
+        return markers.length;
+    }
+
+    /**
+     * Replaces each marker by the literal of its value.
+     *
+     * @param values The parameter values, one per marker.
+     * @return the query to run.
+     * @throws SQLException If a value has no SQL literal.
+     */
+    String inline(BsonValue[] values) throws SQLException {
+        if (markers.length == 0) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + 16 * markers.length);
+        int start = 0;
+        for (int m = 0; m < markers.length; m++) {
+            sb.append(sql, start, markers[m]).append(toSqlLiteral(values[m]));
+            start = markers[m] + 1;
+        }
+        return sb.append(sql, start, sql.length()).toString();
+    }
+
+    /**
+     * @param value The parameter value.
+     * @return the SQL literal for the value.
+     * @throws SQLException If the value has no SQL literal.
+     */
+    static String toSqlLiteral(BsonValue value) throws SQLException {
+        switch (value.getBsonType()) {
+            case NULL:
+                return "NULL";
+            case BOOLEAN:
+                return value.asBoolean().getValue() ? "TRUE" : "FALSE";
+            case INT32:
+                return Integer.toString(value.asInt32().getValue());
+            case INT64:
+                return Long.toString(value.asInt64().getValue());
+            case DOUBLE:
+                double d = value.asDouble().getValue();
+                if (Double.isNaN(d) || Double.isInfinite(d)) {
+                    throw new SQLException("Unsupported parameter value: " + d);
+                }
+                return Double.toString(d);
+            case DECIMAL128:
+                return "CAST('" + value.asDecimal128().getValue() + "' AS DECIMAL)";
+            case STRING:
+                return "'" + value.asString().getValue().replace("'", "''") + "'";
+            case DATE_TIME:
+                return "CAST('"
+                        + Instant.ofEpochMilli(value.asDateTime().getValue())
+                        + "' AS TIMESTAMP)";
+            default:
+                throw new SQLException("Unsupported parameter type: " + value.getBsonType());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.mongosql.CatalogFingerprint;
+import com.mongodb.jdbc.mongosql.TranslateResult;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * The translation of a parameterized query, reusable for any parameter values of the same types.
+ *
+ * <p>The query is translated with a unique sentinel literal per parameter. The sentinels are then
+ * located in the translated pipeline, and each execution replaces them with the bound values. The
+ * values are only ever bound inside a {@code $literal} expression, so a string such as {@code
+ * "$field"} or {@code "$$ROOT"} is matched as is rather than read as a field path or a variable. A
+ * translation where a sentinel does not appear as the operand of a {@code $literal}, for example
+ * because it was folded into another expression or turned into a regular expression, cannot be
+ * used as a template.
+ *
+ * <p>The translation depends on the schema catalog, so it is kept along with the fingerprint of
+ * the catalog it was made with and made again when the catalog changes.
+ */
+class PipelineTemplate {
+    private static final String STRING_SENTINEL_PREFIX = "__mongodb_jdbc_param_";
+    private static final String LITERAL = "$literal";
+
+    // The query, with the sentinels as parameter values
+    private final String sql;
+    // The index of the parameter bound to each sentinel
+    private final Map<BsonValue, Integer> sentinels;
+    private volatile Translation translation;
+
+    /** The translation of the query for a schema catalog. */
+    static final class Translation {
+        private final CatalogFingerprint catalog;
+        // Null if the translation depends on the parameter values
+        private final TranslateResult result;
+
+        private Translation(CatalogFingerprint catalog, TranslateResult result) {
+            this.catalog = catalog;
+            this.result = result;
+        }
+
+        /** @return the translation, or null if it cannot be used as a template. */
+        TranslateResult getResult() {
+            return result;
+        }
+    }
+
+    private PipelineTemplate(String sql, Map<BsonValue, Integer> sentinels) {
+        this.sql = sql;
+        this.sentinels = sentinels;
+    }
+
+    /**
+     * @param parameterizedSql The parameterized query.
+     * @param values The parameter values.
+     * @return the template for the types of the values, or null if a value has no sentinel.
+     * @throws SQLException If a sentinel has no SQL literal.
+     */
+    static PipelineTemplate create(ParameterizedSql parameterizedSql, BsonValue[] values)
+            throws SQLException {
+        BsonValue[] sentinels = sentinels(values);
+        return (sentinels != null) ? create(parameterizedSql.inline(sentinels), sentinels) : null;
+    }
+
+    /**
+     * @param sql The query, with the sentinels as parameter values.
+     * @param sentinels The sentinels, as returned by {@link #sentinels(BsonValue[])}.
+     * @return the template, or null if two sentinels are equal.
+     */
+    static PipelineTemplate create(String sql, BsonValue[] sentinels) {
+        Map<BsonValue, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < sentinels.length; i++) {
+            if (indexes.put(sentinels[i], i) != null) {
+                return null;
+            }
+        }
+        return new PipelineTemplate(sql, indexes);
+    }
+
+    /**
+     * @param values The parameter values.
+     * @return a sentinel of the same type for each value, or null if a value has no sentinel.
+     */
+    static BsonValue[] sentinels(BsonValue[] values) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String id = Long.toHexString(random.nextLong() & Long.MAX_VALUE);
+        BsonValue[] sentinels = new BsonValue[values.length];
+        for (int i = 0; i < values.length; i++) {
+            switch (values[i].getBsonType()) {
+                case STRING:
+                    sentinels[i] = new BsonString(STRING_SENTINEL_PREFIX + id + "_" + i);
+                    break;
+                case INT32:
+                    // Large enough to never be narrowed or confused with small literals
+                    sentinels[i] = new BsonInt32(random.nextInt(1 << 30, Integer.MAX_VALUE));
+                    break;
+                case INT64:
+                    sentinels[i] =
+                            new BsonInt64(random.nextLong(1L << 40, Long.MAX_VALUE >> 8));
+                    break;
+                case DOUBLE:
+                    sentinels[i] = new BsonDouble(random.nextInt(1 << 20, 1 << 30) + 0.5);
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return sentinels;
+    }
+
+    /** @return the query to translate, with the sentinels as parameter values. */
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * @param catalog The fingerprint of the current schema catalog.
+     * @return the translation made with this catalog, or null if there is none.
+     */
+    Translation getTranslation(CatalogFingerprint catalog) {
+        Translation current = translation;
+        return (current != null && current.catalog.equals(catalog)) ? current : null;
+    }
+
+    /**
+     * Keeps the translation of the query for a schema catalog, replacing the previous one.
+     *
+     * @param result The translation of {@link #getSql()}.
+     * @param catalog The fingerprint of the catalog the query was translated with.
+     * @return the translation, whose result is null if it cannot be used as a template.
+     */
+    Translation setTranslation(TranslateResult result, CatalogFingerprint catalog) {
+        Map<BsonValue, Integer> found = new HashMap<>();
+        for (BsonDocument stage : result.pipeline) {
+            if (!collect(stage, false, found)) {
+                found = null;
+                break;
+            }
+        }
+        boolean reusable = found != null && found.size() == sentinels.size();
+        Translation current = new Translation(catalog, reusable ? result : null);
+        translation = current;
+        return current;
+    }
+
+    private boolean collect(BsonValue value, boolean literal, Map<BsonValue, Integer> found) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            // Everything below a $literal is a constant
+            boolean isLiteral = literal || (document.size() == 1 && document.containsKey(LITERAL));
+            for (BsonValue v : document.values()) {
+                if (!collect(v, isLiteral, found)) {
+                    return false;
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue v : value.asArray()) {
+                if (!collect(v, literal, found)) {
+                    return false;
+                }
+            }
+        } else {
+            Integer index = sentinels.get(value);
+            if (index != null) {
+                if (!literal) {
+                    // A bound value could be read as a field path, a variable or an operator
+                    return false;
+                }
+                found.put(value, index);
+            } else if (value.isString()
+                    && value.asString().getValue().contains(STRING_SENTINEL_PREFIX)) {
+                // A sentinel was rewritten, the translation depends on the parameter value
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param result The translation, as returned by {@link Translation#getResult()}.
+     * @param values The parameter values, of the same types as the ones of the template.
+     * @return a copy of the pipeline with the sentinels replaced by the values.
+     */
+    List<BsonDocument> bind(TranslateResult result, BsonValue[] values) {
+        List<BsonDocument> pipeline = new ArrayList<>(result.pipeline.size());
+        for (BsonDocument stage : result.pipeline) {
+            pipeline.add(bind(stage, values).asDocument());
+        }
+        return pipeline;
+    }
+
+    private BsonValue bind(BsonValue value, BsonValue[] values) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            BsonDocument copy = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+                copy.put(entry.getKey(), bind(entry.getValue(), values));
+            }
+            return copy;
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            BsonArray copy = new BsonArray();
+            for (BsonValue v : array) {
+                copy.add(bind(v, values));
+            }
+            return copy;
+        }
+        // The sentinels only appear under a $literal, see collect
+        Integer index = sentinels.get(value);
+        return (index != null) ? values[index] : value;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+
+/**
+ * PrefetchingCursor reads an underlying cursor on a background thread into a bounded queue, so
+ * that the getMore round trips overlap with the processing of the rows already received.
+ *
+ * <p>The queue is bounded both by a number of rows and by the size of the buffered rows. The size
+ * is only known for raw BSON rows, other rows only count against the row limit. Once started, the
+ * background thread is the only one iterating the underlying cursor. It closes the cursor when it
+ * reaches its end or fails, otherwise {@link #close()} stops it and then closes the cursor.
+ *
+ * <p>The background thread runs on the task executor of the driver, prefetching threads spend most
+ * of their time blocked on the network or on a full queue.
+ */
+public class PrefetchingCursor<T extends BsonDocument> implements MongoCursor<T> {
+    // Queue entry marking the end of the underlying cursor or the failure of the prefetch.
+    private static final class EndOfCursor {
+        private final RuntimeException error;
+
+        EndOfCursor(RuntimeException error) {
+            this.error = error;
+        }
+    }
+
+    private final MongoCursor<T> cursor;
+    // Rows and the end marker. Its size is bounded by the producer, based on the counters below.
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final int maxBufferedRows;
+    private final long maxBufferedBytes;
+    private final Future<?> producer;
+    // Set by whichever of the producer and close() comes first. If close() wins, the producer
+    // never runs and close() closes the underlying cursor itself.
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Object bufferLock = new Object();
+    private int bufferedRows = 0;
+    private long bufferedBytes = 0;
+    private volatile boolean closed = false;
+
+    // The next row, taken from the queue by hasNext() and not returned by next() yet.
+    private T peeked;
+    private EndOfCursor end;
+
+    /**
+     * @param cursor The cursor to prefetch.
+     * @param maxBufferedRows The maximum number of rows read ahead.
+     * @param maxBufferedBytes The maximum size of the raw rows read ahead. At least one row is
+     *     always read ahead, whatever its size.
+     */
+    public PrefetchingCursor(MongoCursor<T> cursor, int maxBufferedRows, long maxBufferedBytes) {
+        this.cursor = cursor;
+        this.maxBufferedRows = Math.max(1, maxBufferedRows);
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.producer = MongoExecutors.getTaskExecutor().submit(this::prefetch);
+    }
+
+    private static long sizeOf(BsonDocument doc) {
+        return (doc instanceof RawBsonDocument)
+                ? ((RawBsonDocument) doc).getByteBuffer().remaining()
+                : 0;
+    }
+
+    private void prefetch() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        EndOfCursor endOfCursor = new EndOfCursor(null);
+        try {
+            while (!closed && cursor.hasNext()) {
+                T doc = cursor.next();
+                long size = sizeOf(doc);
+                synchronized (bufferLock) {
+                    // Always accept a row when the buffer is empty, whatever its size.
+                    while (!closed
+                            && bufferedRows > 0
+                            && (bufferedRows >= maxBufferedRows
+                                    || bufferedBytes + size > maxBufferedBytes)) {
+                        bufferLock.wait();
+                    }
+                    bufferedRows++;
+                    bufferedBytes += size;
+                }
+                queue.add(doc);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            endOfCursor = new EndOfCursor(e);
+        } finally {
+            if (!closed) {
+                // Otherwise close() closes the cursor once this returns
+                closeCursor();
+            }
+            queue.add(endOfCursor);
+        }
+    }
+
+    private void closeCursor() {
+        try {
+            cursor.close();
+        } catch (RuntimeException ignored) {
+            // The cursor might already be closed on the server
+        }
+    }
+
+    private void released(T doc) {
+        long size = sizeOf(doc);
+        synchronized (bufferLock) {
+            bufferedRows--;
+            bufferedBytes -= size;
+            bufferLock.notifyAll();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        if (peeked != null) {
+            return true;
+        }
+        if (end != null || closed) {
+            return false;
+        }
+        Object next;
+        try {
+            next = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MongoInterruptedException("Interrupted while waiting for the next row", e);
+        }
+        if (next instanceof EndOfCursor) {
+            end = (EndOfCursor) next;
+            if (end.error != null) {
+                throw end.error;
+            }
+            return false;
+        }
+        peeked = (T) next;
+        released(peeked);
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T next = peeked;
+        peeked = null;
+        return next;
+    }
+
+    @Override
+    public int available() {
+        synchronized (bufferLock) {
+            return (peeked != null ? 1 : 0) + bufferedRows;
+        }
+    }
+
+    @Override
+    public T tryNext() {
+        if (peeked == null && queue.isEmpty()) {
+            return null;
+        }
+        return hasNext() ? next() : null;
+    }
+
+    /**
+     * Stops the prefetching and closes the underlying cursor. A getMore in progress is not
+     * interrupted, so this may block until it completes, which is bounded by the maxTimeMS of the
+     * query. A thread waiting for the next row in {@link #hasNext()} sees the end of the cursor.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // An interrupted thread can't send the killCursors command, clear the interrupt status
+        // until the cursor is closed.
+        boolean interrupted = Thread.interrupted();
+        if (started.compareAndSet(false, true)) {
+            // The producer never ran
+            producer.cancel(false);
+        } else {
+            // Wake up a producer waiting for room and wait for it to stop. It is not interrupted,
+            // a pending getMore completes first.
+            synchronized (bufferLock) {
+                bufferLock.notifyAll();
+            }
+            while (true) {
+                try {
+                    producer.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        closeCursor();
+        queue.clear();
+        // The end marker of the producer may just have been cleared, a reader waiting for a row
+        // must still see the end.
+        queue.add(new EndOfCursor(null));
+        peeked = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public ServerCursor getServerCursor() {
+        return cursor.getServerCursor();
+    }
+
+    @Override
+    public ServerAddress getServerAddress() {
+        return cursor.getServerAddress();
+    }
+}
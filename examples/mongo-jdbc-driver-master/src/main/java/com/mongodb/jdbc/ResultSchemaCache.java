@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.utils.LruCache;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Responses of the Atlas Data Federation sqlGetResultSchema command, shared by all the connections
+ * using the same MongoClient. The command is a second round trip of every $sql query, while its
+ * response only depends on the database, the SQL text and the federated schemas, which rarely
+ * change. Entries are keyed on the database and the SQL text and expire after the time-to-live of
+ * the connection looking them up.
+ *
+ * <p>Cached responses are shared and must not be modified by callers.
+ */
+public class ResultSchemaCache {
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private static final Map<MongoClient, ResultSchemaCache> CACHES = new WeakHashMap<>();
+
+    private final LruCache<List<String>, MongoJsonSchemaResult> entries;
+
+    /**
+     * Returns the cache associated to the given client, creating it if needed.
+     *
+     * @param client The MongoClient the queries are run with.
+     * @return the cache for this client.
+     */
+    public static ResultSchemaCache forClient(MongoClient client) {
+        synchronized (CACHES) {
+            return CACHES.computeIfAbsent(client, c -> new ResultSchemaCache(DEFAULT_MAX_SIZE));
+        }
+    }
+
+    /** @param maxSize The maximum number of responses kept. */
+    ResultSchemaCache(int maxSize) {
+        this.entries = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns the cached result schema of a query.
+     *
+     * @param dbName The database the query runs against.
+     * @param sql The SQL query.
+     * @param ttlMs How long, in milliseconds, a response can be served after it was fetched.
+     * @return the response, or null if it is not cached or has expired.
+     */
+    public MongoJsonSchemaResult get(String dbName, String sql, long ttlMs) {
+        return entries.get(Arrays.asList(dbName, sql), ttlMs);
+    }
+
+    /**
+     * Caches the result schema of a query, evicting the least recently used entries past the
+     * maximum size.
+     *
+     * @param dbName The database the query runs against.
+     * @param sql The SQL query.
+     * @param result The sqlGetResultSchema response.
+     */
+    public void put(String dbName, String sql, MongoJsonSchemaResult result) {
+        entries.put(Arrays.asList(dbName, sql), result);
+    }
+
+    /** Drops every cached entry. The counters are left untouched. */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return entries.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultSchemaCache{" + entries + "}";
+    }
+}
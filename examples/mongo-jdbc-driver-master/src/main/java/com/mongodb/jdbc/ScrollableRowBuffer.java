@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import com.mongodb.jdbc.utils.BsonUtils;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+
+/**
+ * The rows read so far by a scrollable result set, kept as raw BSON.
+ *
+ * <p>Rows are appended to byte array segments until they hold the memory limit, then written to a
+ * temporary file, so that scrolling over results larger than the limit is possible. Closing the
+ * buffer drops the segments and deletes the file, nothing is left for the garbage collector to
+ * release outside of the heap. Each read of a row returns a new {@link RawBsonDocument}, whose
+ * values are only decoded when accessed.
+ */
+class ScrollableRowBuffer {
+    // Rows are appended to segments of up to this size, or of the size of larger rows.
+    static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+    // The first segments are small, each new segment is as large as the previous ones together.
+    static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    // Rows are written to the file in chunks of up to this size.
+    static final int SPILL_BUFFER_SIZE = 64 * 1024;
+
+    private final long maxMemoryBytes;
+    private final int segmentSize;
+    private final List<byte[]> segments = new ArrayList<>();
+    // The segment rows are appended to, and the number of bytes used in it
+    private byte[] tail;
+    private int tailLength;
+    // The position of each row: the segment index in the high 32 bits and the offset in the low
+    // ones for rows in memory, -1 - the offset in the file for the others.
+    private long[] positions = new long[64];
+    private int size;
+    private long memoryBytes;
+    private FileChannel spillChannel;
+    // The rows not yet written to the file
+    private ByteBuffer spillBuffer;
+    private long spillBytes;
+
+    /** @param maxMemoryBytes The size of the segments, past which rows go to a file. */
+    ScrollableRowBuffer(long maxMemoryBytes) {
+        this(maxMemoryBytes, SEGMENT_SIZE);
+    }
+
+    ScrollableRowBuffer(long maxMemoryBytes, int segmentSize) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param row The row. Raw rows are copied as is, other rows are encoded first.
+     * @throws IOException If the row could not be written to the file.
+     * @throws MongoSerializationException If the row could not be encoded.
+     */
+    void add(BsonDocument row) throws IOException, MongoSerializationException {
+        ByteBuffer bytes =
+                (row instanceof RawBsonDocument)
+                        ? ((RawBsonDocument) row).getByteBuffer().asNIO()
+                        : ByteBuffer.wrap(BsonUtils.serialize(row));
+        int length = bytes.remaining();
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        if (tail == null || tail.length - tailLength < length) {
+            int capacity =
+                    Math.max(
+                            length,
+                            (int) Math.min(segmentSize, Math.max(MIN_SEGMENT_SIZE, memoryBytes)));
+            if (spillChannel != null || memoryBytes + capacity > maxMemoryBytes) {
+                positions[size++] = -1 - spill(bytes);
+                return;
+            }
+            tail = new byte[capacity];
+            tailLength = 0;
+            segments.add(tail);
+            memoryBytes += capacity;
+        }
+        positions[size++] = ((long) (segments.size() - 1) << 32) | tailLength;
+        bytes.get(tail, tailLength, length);
+        tailLength += length;
+    }
+
+    /**
+     * Appends a row to the file.
+     *
+     * @return the offset of the row in the file.
+     */
+    private long spill(ByteBuffer bytes) throws IOException {
+        if (spillChannel == null) {
+            spillChannel =
+                    FileChannel.open(
+                            Files.createTempFile("mongodb-jdbc-rows", ".bson"),
+                            StandardOpenOption.READ,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.DELETE_ON_CLOSE);
+            spillBuffer = ByteBuffer.allocate(Math.min(segmentSize, SPILL_BUFFER_SIZE));
+        }
+        long offset = spillBytes + spillBuffer.position();
+        if (bytes.remaining() > spillBuffer.remaining()) {
+            flush();
+        }
+        if (bytes.remaining() > spillBuffer.remaining()) {
+            // Larger than the buffer, written as is
+            spillBytes += write(bytes, spillBytes);
+        } else {
+            spillBuffer.put(bytes);
+        }
+        return offset;
+    }
+
+    private void flush() throws IOException {
+        spillBuffer.flip();
+        spillBytes += write(spillBuffer, spillBytes);
+        spillBuffer.clear();
+    }
+
+    private int write(ByteBuffer bytes, long offset) throws IOException {
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            spillChannel.write(bytes, offset + length - bytes.remaining());
+        }
+        return length;
+    }
+
+    private void read(ByteBuffer bytes, long offset) throws IOException {
+        int length = bytes.remaining();
+        while (bytes.hasRemaining()) {
+            if (spillChannel.read(bytes, offset + length - bytes.remaining()) < 0) {
+                throw new EOFException("Row at offset " + offset + " is past the end of the file");
+            }
+        }
+    }
+
+    /**
+     * @param index The zero-based index of the row.
+     * @return the row.
+     * @throws IOException If the row could not be read from the file.
+     */
+    RawBsonDocument get(int index) throws IOException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        long position = positions[index];
+        if (position < 0) {
+            long offset = -1 - position;
+            if (offset >= spillBytes) {
+                flush();
+            }
+            // A BSON document starts with its length
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            read(length, offset);
+            byte[] bytes = new byte[length.getInt(0)];
+            read(ByteBuffer.wrap(bytes), offset);
+            return new RawBsonDocument(bytes);
+        }
+        byte[] segment = segments.get((int) (position >>> 32));
+        int offset = (int) position;
+        int length = ByteBuffer.wrap(segment).order(ByteOrder.LITTLE_ENDIAN).getInt(offset);
+        return new RawBsonDocument(Arrays.copyOfRange(segment, offset, offset + length));
+    }
+
+    /** @return the number of rows. */
+    int size() {
+        return size;
+    }
+
+    /** @return true if rows were written to the file. */
+    boolean isSpilled() {
+        return spillChannel != null;
+    }
+
+    /** Drops the segments and deletes the file. */
+    void close() {
+        segments.clear();
+        tail = null;
+        tailLength = 0;
+        positions = new long[64];
+        size = 0;
+        memoryBytes = 0;
+        spillBuffer = null;
+        spillBytes = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                // The file is deleted on close, there is nothing left to release.
+            }
+            spillChannel = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling rates of the method entries logged by the LoggingAspect. The rates are given as a comma
+ * separated list of {@code <class>[.<method>]:<n>} entries, meaning that only one out of n calls
+ * is logged. Classes are identified by their simple name and a method rate takes precedence over
+ * the rate of its class. For example {@code MongoResultSet:1000,MongoStatement.executeQuery:10}.
+ */
+public class LogSampling {
+    private final Map<String, Integer> rates;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private LogSampling(Map<String, Integer> rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * @param spec The sampling rates, in the format described above.
+     * @return the parsed sampling rates, or null if the spec is null or empty.
+     * @throws IllegalArgumentException If the spec is malformed.
+     */
+    public static LogSampling parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) {
+            return null;
+        }
+        Map<String, Integer> rates = new HashMap<>();
+        for (String entry : spec.split(",")) {
+            int sep = entry.lastIndexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException(
+                        "Expected <class>[.<method>]:<n> but got '" + entry.trim() + "'");
+            }
+            String target = entry.substring(0, sep).trim();
+            int rate;
+            try {
+                rate = Integer.parseInt(entry.substring(sep + 1).trim());
+            } catch (NumberFormatException e) {
+                rate = 0;
+            }
+            if (target.isEmpty() || rate < 1) {
+                throw new IllegalArgumentException(
+                        "Invalid sampling rate '"
+                                + entry.trim()
+                                + "', the rate must be a positive integer");
+            }
+            rates.put(target, rate);
+        }
+        return new LogSampling(rates);
+    }
+
+    /**
+     * Counts a call and decides whether it is logged. The first call of each sampled class or
+     * method is always logged.
+     *
+     * @param className The simple name of the class declaring the method.
+     * @param methodName The method name.
+     * @return true if this call should be logged.
+     */
+    public boolean sample(String className, String methodName) {
+        String key = className + "." + methodName;
+        Integer rate = rates.get(key);
+        if (rate == null) {
+            key = className;
+            rate = rates.get(key);
+        }
+        if (rate == null || rate == 1) {
+            return true;
+        }
+        long count = counters.computeIfAbsent(key, k -> new AtomicLong()).getAndIncrement();
+        return count % rate == 0;
+    }
+}
@@ -19,6 +19,7 @@ package com.mongodb.jdbc.logging;
 import com.mongodb.jdbc.MongoJsonSchema;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -32,6 +33,12 @@ public class MongoLogger {
     private Integer connectionId;
     private Integer statementId;
     private QueryDiagnostics queryDiagnostics = new QueryDiagnostics();
+    // The class this logger was created for, used as source class by the logp methods.
+    private String sourceClassName;
+    // sourceClassName with the connection and statement ids, computed on first use.
+    private String decoratedSourceClassName;
+    // Sampling of the method entries, shared by the loggers of a connection. Null logs them all.
+    private LogSampling logSampling;
 
     /**
      * Gets a logger, tied to a connection. Used for logging after a connection has been created.
@@ -42,6 +49,7 @@ public class MongoLogger {
     public MongoLogger(Logger logger, int connectionId) {
         this.logger = logger;
         this.connectionId = connectionId;
+        this.sourceClassName = (logger != null) ? logger.getName() : null;
     }
 
     /**
@@ -80,6 +88,7 @@ public class MongoLogger {
                         ? className
                         : parentLogger.connectionId + "_" + className;
         this.logger = Logger.getLogger(loggername);
+        this.sourceClassName = className;
         logger.setLevel(parentLogger.logger.getLevel());
 
         // This is a work-around for the simpler logic of calling `logger.setParent(parent); logger.setUseParentHandlers(true);`
@@ -94,6 +103,33 @@ public class MongoLogger {
             logger.addHandler(handler);
         }
         this.connectionId = parentLogger.connectionId;
+        this.logSampling = parentLogger.logSampling;
+    }
+
+    /**
+     * Sets the sampling of the method entries logged by this logger and by the loggers created
+     * from it afterwards.
+     *
+     * @param logSampling The sampling rates, or null to log every method entry.
+     */
+    public void setLogSampling(LogSampling logSampling) {
+        this.logSampling = logSampling;
+    }
+
+    /**
+     * Checks whether a method entry must be logged, based on the level and the sampling rates.
+     * Each call counts against the sampling rate of the method, so it must only be called once per
+     * method entry.
+     *
+     * @param level The level the entry would be logged at.
+     * @param className The simple name of the class declaring the method.
+     * @param methodName The method name.
+     * @return true if the method entry must be logged.
+     */
+    protected boolean isMethodEntryLoggable(Level level, String className, String methodName) {
+        return (null != logger)
+                && logger.isLoggable(level)
+                && (logSampling == null || logSampling.sample(className, methodName));
     }
 
     /**
@@ -105,9 +141,20 @@ public class MongoLogger {
      * @param callSignature The call signature, method and arguments, to log.
      */
     protected void logMethodEntry(String sourceName, String callSignature) {
-        if ((null != logger) && logger.isLoggable(Level.FINER)) {
+        logMethodEntry(Level.FINER, sourceName, callSignature);
+    }
+
+    /**
+     * Log a method entry at the given level.
+     *
+     * @param level The level to log the entry at.
+     * @param sourceName Name of class that issued the logging request
+     * @param callSignature The call signature, method and arguments, to log.
+     */
+    protected void logMethodEntry(Level level, String sourceName, String callSignature) {
+        if ((null != logger) && logger.isLoggable(level)) {
             logger.logp(
-                    Level.FINER,
+                    level,
                     addConnectionStatementIdsToSourceName(sourceName),
                     null,
                     ENTRY_PREFIX + callSignature);
@@ -156,6 +203,61 @@ public class MongoLogger {
         }
     }
 
+    /**
+     * @param level One of the message level identifiers, e.g., SEVERE
+     * @return true if a message logged at this level would be forwarded to the handlers.
+     */
+    public boolean isLoggable(Level level) {
+        return (null != logger) && logger.isLoggable(level);
+    }
+
+    /**
+     * Log a message built lazily. The message is only built, and the caller only resolved, if the
+     * logger is enabled for the given level.
+     *
+     * @param level One of the message level identifiers, e.g., SEVERE
+     * @param msgSupplier A function which produces the message
+     */
+    public void log(Level level, Supplier<String> msgSupplier) {
+        if ((null != logger) && logger.isLoggable(level)) {
+            // Get access to caller
+            StackTraceElement[] stacktrace = Thread.currentThread().getStackTrace();
+            StackTraceElement ste = stacktrace[2];
+            String sourceClassName = ste.getClassName();
+            String methodName = ste.getMethodName();
+
+            logger.logp(
+                    level,
+                    addConnectionStatementIdsToSourceName(sourceClassName),
+                    methodName,
+                    msgSupplier.get());
+        }
+    }
+
+    /**
+     * Log a message built lazily, with the caller method given explicitly. The source class is the
+     * class this logger was created for, so no stack trace is captured. This is the variant to use
+     * on hot paths, like per-row logging.
+     *
+     * @param level One of the message level identifiers, e.g., SEVERE
+     * @param sourceMethod Name of the method that issued the logging request
+     * @param msgSupplier A function which produces the message
+     */
+    public void logp(Level level, String sourceMethod, Supplier<String> msgSupplier) {
+        if ((null != logger) && logger.isLoggable(level)) {
+            logger.logp(level, getDecoratedSourceClassName(), sourceMethod, msgSupplier.get());
+        }
+    }
+
+    private String getDecoratedSourceClassName() {
+        String name = decoratedSourceClassName;
+        if (name == null) {
+            name = addConnectionStatementIdsToSourceName(sourceClassName);
+            decoratedSourceClassName = name;
+        }
+        return name;
+    }
+
     /**
      * Log a message, with an array of object arguments.
      *
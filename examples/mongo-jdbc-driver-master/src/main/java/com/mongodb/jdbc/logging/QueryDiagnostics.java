@@ -21,19 +21,183 @@ import static com.mongodb.jdbc.utils.BsonUtils.JSON_WRITER_NO_INDENT_SETTINGS;
 import com.mongodb.jdbc.MongoDriver;
 import com.mongodb.jdbc.MongoJsonSchema;
 import com.mongodb.jdbc.utils.BsonUtils;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.bson.BsonArray;
 import org.bson.BsonDocument;
 import org.bson.codecs.Codec;
 import org.bson.codecs.pojo.annotations.BsonProperty;
 
+/**
+ * What is known about a query: the SQL text, catalog, schema and pipeline, the time spent in each
+ * phase of its execution, the CPU time and memory it used and the rows it fetched. It can be
+ * retrieved with {@code unwrap(QueryDiagnostics.class)} on the statement, for its last query, or on
+ * the result set, to attribute the cost of queries to their callers. Each query has its own
+ * instance, so a result set keeps its diagnostics when its statement runs another query.
+ *
+ * <p>CPU time and allocated bytes are those of the thread running the query, measured while the
+ * query executes and during each getMore. They are only recorded if the JVM supports measuring
+ * them. Timings are in nanoseconds.
+ */
 public class QueryDiagnostics {
+    public static final String GET_NAMESPACES = "getNamespaces";
+    public static final String BUILD_CATALOG_DOCUMENT = "buildCatalogDocument";
+    public static final String TRANSLATE = "translate";
+    public static final String AGGREGATE = "aggregate";
+    public static final String SQL_GET_RESULT_SCHEMA = "sqlGetResultSchema";
+    public static final String EXECUTE = "execute";
+    // Only the duration of the first getMores is kept, the others are only counted.
+    static final int MAX_GET_MORE_TIMINGS = 1000;
+
     private static final Codec<QueryDiagnostics> CODEC =
             MongoDriver.getCodecRegistry().get(QueryDiagnostics.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATED_BYTES_SUPPORTED = isAllocatedBytesSupported();
 
     @BsonProperty private String sqlQuery;
     @BsonProperty private BsonDocument queryCatalog;
     @BsonProperty private MongoJsonSchema resultSetSchema;
     @BsonProperty private BsonArray pipeline;
+    @BsonProperty private Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    @BsonProperty private List<Long> getMoreNanos = new ArrayList<>();
+    @BsonProperty private long getMoreCount;
+    @BsonProperty private long cpuNanos;
+    @BsonProperty private long allocatedBytes;
+    @BsonProperty private long rowsFetched;
+    @BsonProperty private long bytesFetched;
+
+    /**
+     * The state of the current thread when a measure started: wall clock time, CPU time and
+     * allocated bytes, the last two being -1 if they cannot be measured.
+     */
+    public static final class Stopwatch {
+        private final long startNanos;
+        private final long startCpuNanos;
+        private final long startAllocatedBytes;
+
+        private Stopwatch() {
+            startNanos = System.nanoTime();
+            startCpuNanos = currentThreadCpuTime();
+            startAllocatedBytes = currentThreadAllocatedBytes();
+        }
+
+        /** @return the wall clock time elapsed since the start, in nanoseconds. */
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+    }
+
+    private static long currentThreadCpuTime() {
+        try {
+            return THREADS.isCurrentThreadCpuTimeSupported()
+                    ? THREADS.getCurrentThreadCpuTime()
+                    : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isAllocatedBytesSupported() {
+        try {
+            return THREADS instanceof com.sun.management.ThreadMXBean;
+        } catch (LinkageError e) {
+            // The JVM does not provide the com.sun.management extensions
+            return false;
+        }
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (!ALLOCATED_BYTES_SUPPORTED) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        try {
+            return threads.isThreadAllocatedMemoryEnabled()
+                    ? threads.getThreadAllocatedBytes(Thread.currentThread().getId())
+                    : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /** @return a stopwatch started now, on the current thread. */
+    public Stopwatch start() {
+        return new Stopwatch();
+    }
+
+    /**
+     * Adds a duration to the time spent in a phase.
+     *
+     * @param phase The name of the phase.
+     * @param nanos How long the phase took, in nanoseconds.
+     */
+    public void recordPhase(String phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Records the execution of the query, which includes the other phases, and the resources it
+     * used.
+     *
+     * @param stopwatch The stopwatch started when the execution started, on this thread.
+     */
+    public void recordExecution(Stopwatch stopwatch) {
+        recordPhase(EXECUTE, stopwatch.elapsedNanos());
+        recordResources(stopwatch);
+    }
+
+    /**
+     * Records a getMore and the resources it used.
+     *
+     * @param stopwatch The stopwatch started before the getMore, on this thread.
+     */
+    public void recordGetMore(Stopwatch stopwatch) {
+        if (getMoreNanos.size() < MAX_GET_MORE_TIMINGS) {
+            getMoreNanos.add(stopwatch.elapsedNanos());
+        }
+        getMoreCount++;
+        recordResources(stopwatch);
+    }
+
+    private void recordResources(Stopwatch stopwatch) {
+        if (stopwatch.startCpuNanos >= 0) {
+            long cpu = currentThreadCpuTime();
+            if (cpu >= 0) {
+                cpuNanos += cpu - stopwatch.startCpuNanos;
+            }
+        }
+        if (stopwatch.startAllocatedBytes >= 0) {
+            long allocated = currentThreadAllocatedBytes();
+            if (allocated >= 0) {
+                allocatedBytes += allocated - stopwatch.startAllocatedBytes;
+            }
+        }
+    }
+
+    /**
+     * Counts a row read from the cursor.
+     *
+     * @param size The size of the row in bytes, 0 if it is not known.
+     */
+    public void addRow(long size) {
+        rowsFetched++;
+        bytesFetched += size;
+    }
+
+    /** Clears the timings, resources and row counts, before the next query runs. */
+    public void resetMeasures() {
+        phaseNanos.clear();
+        getMoreNanos.clear();
+        getMoreCount = 0;
+        cpuNanos = 0;
+        allocatedBytes = 0;
+        rowsFetched = 0;
+        bytesFetched = 0;
+    }
 
     public void setSqlQuery(String sqlQuery) {
         this.sqlQuery = sqlQuery;
@@ -67,6 +231,37 @@ public class QueryDiagnostics {
         return pipeline;
     }
 
+    /** @return the time spent in each phase, in nanoseconds, by phase name. */
+    public Map<String, Long> getPhaseNanos() {
+        return phaseNanos;
+    }
+
+    /** @return the duration of each getMore, in nanoseconds, up to the first 1000. */
+    public List<Long> getGetMoreNanos() {
+        return getMoreNanos;
+    }
+
+    public long getGetMoreCount() {
+        return getMoreCount;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    /** @return the size of the rows fetched as raw BSON, the size of other rows is not known. */
+    public long getBytesFetched() {
+        return bytesFetched;
+    }
+
     @Override
     public String toString() {
         return BsonUtils.toString(CODEC, this, JSON_WRITER_NO_INDENT_SETTINGS);
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.logging;
+
+import static com.mongodb.jdbc.utils.BsonUtils.JSON_WRITER_NO_INDENT_SETTINGS;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import org.bson.BsonDocument;
+
+/**
+ * Log of the queries slower than the threshold of their connection, one JSON document per line.
+ * It is written to rotating files, {@code slow-queries.0.log} being the current one, in the log
+ * directory of the connection, separately from the connection log. Connections without a log
+ * directory do not log their slow queries.
+ *
+ * <p>The connections logging to the same directory share the same log, which is closed when the
+ * last of them is closed and the records they are still explaining are written.
+ */
+public class SlowQueryLog {
+    public static final String FILE_PATTERN = "slow-queries.%g.log";
+    static final int FILE_SIZE_LIMIT = 10000000;
+    static final int FILE_COUNT = 5;
+
+    private static final Map<String, SlowQueryLog> LOGS = new HashMap<>();
+
+    private final String dirPath;
+    private final FileHandler handler;
+    // Number of open() calls not matched by a close() call yet
+    private int references;
+
+    private SlowQueryLog(String dirPath) throws IOException {
+        this.dirPath = dirPath;
+        // Configured here rather than by the logging properties, like the connection log
+        this.handler =
+                new FileHandler(
+                        dirPath + File.separator + FILE_PATTERN, FILE_SIZE_LIMIT, FILE_COUNT, true);
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(
+                new Formatter() {
+                    @Override
+                    public String format(LogRecord record) {
+                        return record.getMessage() + System.lineSeparator();
+                    }
+                });
+    }
+
+    /**
+     * Returns the slow query log of the given directory, opening it if needed. Each call must be
+     * matched by a call to {@link #close()}.
+     *
+     * @param dir The directory of the log.
+     * @return the log.
+     * @throws IOException If the log file cannot be opened.
+     */
+    public static SlowQueryLog open(File dir) throws IOException {
+        Preconditions.checkNotNull(dir, "The slow query log requires a log directory");
+        String dirPath = dir.getAbsolutePath();
+        synchronized (LOGS) {
+            SlowQueryLog log = LOGS.get(dirPath);
+            if (log == null) {
+                log = new SlowQueryLog(dirPath);
+                LOGS.put(dirPath, log);
+            }
+            log.references++;
+            return log;
+        }
+    }
+
+    /**
+     * Keeps the log open for a record written later, until the matching call to {@link #close()}.
+     *
+     * @return false if the log is already closed, the record would then be dropped.
+     */
+    public boolean retain() {
+        synchronized (LOGS) {
+            if (references == 0) {
+                return false;
+            }
+            references++;
+            return true;
+        }
+    }
+
+    /** @return the directory of the log files. */
+    public String getDirPath() {
+        return dirPath;
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * @param record The record, written as relaxed extended JSON.
+     */
+    public void write(BsonDocument record) {
+        handler.publish(new LogRecord(Level.INFO, record.toJson(JSON_WRITER_NO_INDENT_SETTINGS)));
+        handler.flush();
+    }
+
+    /** Closes the log once each call to {@link #open(File)} and {@link #retain()} is matched. */
+    public void close() {
+        synchronized (LOGS) {
+            if (references == 0 || --references > 0) {
+                return;
+            }
+            LOGS.remove(dirPath);
+        }
+        handler.close();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+/**
+ * Java Flight Recorder events of the life of a query: its execution, the translation and catalog
+ * fetch of direct cluster queries, the getMores of its cursor and the close of its result set.
+ * They are named {@code com.mongodb.jdbc.*} and can be correlated with the other events of the
+ * same thread, such as socket reads.
+ *
+ * <p>The driver still runs on JVMs without the {@code jdk.jfr} API, the events are then never
+ * created. Otherwise, an event is only created when a recording enables it, so they cost a check
+ * per call when nothing is recorded.
+ */
+public final class DriverEvents {
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    /** An event which began and must be passed to the matching {@code end} method. */
+    public interface Span {}
+
+    private DriverEvents() {}
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, DriverEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /** @return true if the JVM supports Java Flight Recorder events. */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /** @return the begun query event, or null if it is not recorded. */
+    public static Span beginQuery() {
+        return AVAILABLE ? JfrEvents.beginQuery() : null;
+    }
+
+    /**
+     * @param span The span returned by {@link #beginQuery()}, may be null.
+     * @param connectionId The id of the connection.
+     * @param statementId The id of the statement.
+     * @param sql The SQL query.
+     * @param succeeded true if the query returned a result set.
+     */
+    public static void endQuery(
+            Span span, int connectionId, int statementId, String sql, boolean succeeded) {
+        if (span != null) {
+            JfrEvents.endQuery(span, connectionId, statementId, sql, succeeded);
+        }
+    }
+
+    /** @return the begun translate event, or null if it is not recorded. */
+    public static Span beginTranslate() {
+        return AVAILABLE ? JfrEvents.beginTranslate() : null;
+    }
+
+    /**
+     * @param span The span returned by {@link #beginTranslate()}, may be null.
+     * @param dbName The database of the query.
+     * @param sql The SQL query.
+     */
+    public static void endTranslate(Span span, String dbName, String sql) {
+        if (span != null) {
+            JfrEvents.endTranslate(span, dbName, sql);
+        }
+    }
+
+    /** @return the begun catalog fetch event, or null if it is not recorded. */
+    public static Span beginCatalogFetch() {
+        return AVAILABLE ? JfrEvents.beginCatalogFetch() : null;
+    }
+
+    /**
+     * @param span The span returned by {@link #beginCatalogFetch()}, may be null.
+     * @param dbName The database of the collections.
+     * @param collectionCount The number of collections whose schema was fetched.
+     * @param found true if a schema was found for at least one collection.
+     */
+    public static void endCatalogFetch(
+            Span span, String dbName, int collectionCount, boolean found) {
+        if (span != null) {
+            JfrEvents.endCatalogFetch(span, dbName, collectionCount, found);
+        }
+    }
+
+    /** @return the begun getMore event, or null if it is not recorded. */
+    public static Span beginGetMore() {
+        return AVAILABLE ? JfrEvents.beginGetMore() : null;
+    }
+
+    /**
+     * @param span The span returned by {@link #beginGetMore()}, may be null.
+     * @param statementId The id of the statement of the cursor.
+     * @param rowCount The number of rows of the batch returned.
+     */
+    public static void endGetMore(Span span, int statementId, int rowCount) {
+        if (span != null) {
+            JfrEvents.endGetMore(span, statementId, rowCount);
+        }
+    }
+
+    /**
+     * @param statementId The id of the statement of the result set.
+     * @param rowCount The number of rows read from its cursor.
+     * @param byteCount The size of these rows, if known.
+     * @param exhausted true if all the rows were read.
+     */
+    public static void resultSetClosed(
+            int statementId, long rowCount, long byteCount, boolean exhausted) {
+        if (AVAILABLE) {
+            JfrEvents.resultSetClosed(statementId, rowCount, byteCount, exhausted);
+        }
+    }
+}
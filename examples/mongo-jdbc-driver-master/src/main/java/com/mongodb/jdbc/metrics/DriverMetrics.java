@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms of a MongoClient, or of one of its connections. The metrics of
+ * a connection are also added to the metrics of its client, so the client ones cover every
+ * connection using the same client, including the closed ones.
+ *
+ * <p>When registered, the metrics are exposed on the platform MBean server as {@code
+ * com.mongodb.jdbc:type=Client,client=<n>} and {@code
+ * com.mongodb.jdbc:type=Connection,client=<n>,connection=<id>}, with one {@code ClientLatency} or
+ * {@code ConnectionLatency} MBean per phase. Rows are counted as they are read from the cursor.
+ * Their size is only known, and counted, for rows fetched as raw BSON: with lazy decoding,
+ * prefetching or scrollable result sets.
+ */
+public class DriverMetrics implements DriverMetricsMXBean {
+    public static final String DOMAIN = "com.mongodb.jdbc";
+
+    private static final Map<MongoClient, DriverMetrics> CLIENTS = new WeakHashMap<>();
+    private static final AtomicInteger CLIENT_COUNTER = new AtomicInteger();
+
+    /** The phases of the execution of a query. */
+    public enum Phase {
+        /** Looking up the collections a query reads, on direct clusters. */
+        NAMESPACES("namespaces"),
+        /** Building the schema catalog of these collections, on direct clusters. */
+        CATALOG("catalog"),
+        /** Translating the query to a pipeline, on direct clusters. */
+        TRANSLATE("translate"),
+        /** Running the query until its cursor returns the first batch. */
+        FIRST_BATCH("firstBatch"),
+        /** Reading the rows of a result set, from its first batch until it is exhausted. */
+        FULL_FETCH("fullFetch");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final DriverMetrics parent;
+    private final String type;
+    private final String keyProperties;
+    private final AtomicLong openConnections = new AtomicLong();
+    private final AtomicLong openStatements = new AtomicLong();
+    private final AtomicLong openResultSets = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Phase.values().length];
+    // Number of registerMBeans calls not matched by an unregisterMBeans call yet
+    private int mbeanReferences;
+
+    private DriverMetrics(DriverMetrics parent, String type, String keyProperties) {
+        this.parent = parent;
+        this.type = type;
+        this.keyProperties = keyProperties;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the metrics associated to the given client, creating them if needed.
+     *
+     * @param client The MongoClient.
+     * @return the metrics of this client.
+     */
+    public static DriverMetrics forClient(MongoClient client) {
+        synchronized (CLIENTS) {
+            return CLIENTS.computeIfAbsent(
+                    client,
+                    c ->
+                            new DriverMetrics(
+                                    null, "Client", "client=" + CLIENT_COUNTER.incrementAndGet()));
+        }
+    }
+
+    /**
+     * @param connectionId The id of the connection.
+     * @return new metrics for a connection using this client.
+     */
+    public DriverMetrics forConnection(int connectionId) {
+        return new DriverMetrics(this, "Connection", keyProperties + ",connection=" + connectionId);
+    }
+
+    public void connectionOpened() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openConnections.incrementAndGet();
+        }
+    }
+
+    public void connectionClosed() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openConnections.decrementAndGet();
+        }
+    }
+
+    public void statementOpened() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openStatements.incrementAndGet();
+        }
+    }
+
+    public void statementClosed() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openStatements.decrementAndGet();
+        }
+    }
+
+    public void resultSetOpened() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openResultSets.incrementAndGet();
+        }
+    }
+
+    public void resultSetClosed() {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.openResultSets.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records the outcome of a query.
+     *
+     * @param succeeded true if the query returned a result set.
+     */
+    public void queryExecuted(boolean succeeded) {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            (succeeded ? m.queries : m.errors).incrementAndGet();
+        }
+    }
+
+    /**
+     * @param rowCount The number of rows read from a cursor.
+     * @param byteCount The size of these rows, if known.
+     */
+    public void rowsFetched(long rowCount, long byteCount) {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.rows.addAndGet(rowCount);
+            m.bytes.addAndGet(byteCount);
+        }
+    }
+
+    /**
+     * @param phase The phase of the query.
+     * @param nanos How long the phase took, in nanoseconds.
+     */
+    public void record(Phase phase, long nanos) {
+        for (DriverMetrics m = this; m != null; m = m.parent) {
+            m.latencies[phase.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * @param phase The phase of the query.
+     * @return the latencies of this phase.
+     */
+    public LatencyHistogram getLatency(Phase phase) {
+        return latencies[phase.ordinal()];
+    }
+
+    @Override
+    public long getOpenConnections() {
+        return openConnections.get();
+    }
+
+    @Override
+    public long getOpenStatements() {
+        return openStatements.get();
+    }
+
+    @Override
+    public long getOpenResultSets() {
+        return openResultSets.get();
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queries.get();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public long getRowsFetched() {
+        return rows.get();
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return bytes.get();
+    }
+
+    /**
+     * @param phase The phase, or null for the counters.
+     * @return the name of the MBean of the counters or of the latencies of the given phase.
+     * @throws JMException If the name is invalid.
+     */
+    public ObjectName getObjectName(Phase phase) throws JMException {
+        return new ObjectName(
+                DOMAIN
+                        + ":type="
+                        + type
+                        + ((phase != null) ? "Latency," : ",")
+                        + keyProperties
+                        + ((phase != null) ? ",phase=" + phase.getName() : ""));
+    }
+
+    /**
+     * Registers the MBeans of these metrics, and of the client metrics for connection metrics, on
+     * the platform MBean server. They stay registered until each call is matched by a call to
+     * {@link #unregisterMBeans(MongoLogger)}. Failures are logged and otherwise ignored.
+     *
+     * @param logger The logger of the connection the metrics are registered for.
+     */
+    public synchronized void registerMBeans(MongoLogger logger) {
+        if (parent != null) {
+            parent.registerMBeans(logger);
+        }
+        if (mbeanReferences++ > 0) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, getObjectName(null));
+            for (Phase phase : Phase.values()) {
+                server.registerMBean(latencies[phase.ordinal()], getObjectName(phase));
+            }
+        } catch (JMException | SecurityException e) {
+            logger.log(Level.WARNING, "Failed to register the MBeans of " + keyProperties, e);
+        }
+    }
+
+    /**
+     * Unregisters the MBeans once each call to {@link #registerMBeans(MongoLogger)} is matched.
+     *
+     * @param logger The logger of the connection the metrics were registered for.
+     */
+    public synchronized void unregisterMBeans(MongoLogger logger) {
+        if (mbeanReferences == 0) {
+            return;
+        }
+        if (--mbeanReferences == 0) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                unregister(server, getObjectName(null));
+                for (Phase phase : Phase.values()) {
+                    unregister(server, getObjectName(phase));
+                }
+            } catch (JMException | SecurityException e) {
+                logger.log(Level.WARNING, "Failed to unregister the MBeans of " + keyProperties, e);
+            }
+        }
+        if (parent != null) {
+            parent.unregisterMBeans(logger);
+        }
+    }
+
+    private static void unregister(MBeanServer server, ObjectName name) throws JMException {
+        try {
+            server.unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            // Its registration failed
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DriverMetrics{"
+                + keyProperties
+                + ", openConnections="
+                + openConnections.get()
+                + ", openStatements="
+                + openStatements.get()
+                + ", openResultSets="
+                + openResultSets.get()
+                + ", queries="
+                + queries.get()
+                + ", errors="
+                + errors.get()
+                + ", rows="
+                + rows.get()
+                + ", bytes="
+                + bytes.get()
+                + "}";
+    }
+}
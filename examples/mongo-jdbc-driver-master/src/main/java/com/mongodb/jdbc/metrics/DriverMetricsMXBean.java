@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+/**
+ * JMX view of the activity of a MongoClient or of a connection. The latencies of each phase are
+ * exposed by separate {@link LatencyHistogramMXBean}s.
+ */
+public interface DriverMetricsMXBean {
+    long getOpenConnections();
+
+    long getOpenStatements();
+
+    long getOpenResultSets();
+
+    /** @return the number of queries which returned a result set. */
+    long getQueryCount();
+
+    /** @return the number of queries which failed. */
+    long getErrorCount();
+
+    long getRowsFetched();
+
+    /** @return the size of the rows fetched as raw BSON, see {@link DriverMetrics}. */
+    long getBytesFetched();
+}
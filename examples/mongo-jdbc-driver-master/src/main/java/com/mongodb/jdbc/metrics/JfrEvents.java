@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of {@link DriverEvents}. This class is only loaded when the
+ * {@code jdk.jfr} API is available.
+ */
+final class JfrEvents {
+    private static final String CATEGORY = "MongoDB JDBC";
+
+    private JfrEvents() {}
+
+    @Name("com.mongodb.jdbc.Query")
+    @Label("Query")
+    @Category(CATEGORY)
+    @Description("Execution of a query, until its result set is returned")
+    static final class QueryEvent extends Event implements DriverEvents.Span {
+        @Label("Connection Id")
+        int connectionId;
+
+        @Label("Statement Id")
+        int statementId;
+
+        @Label("SQL")
+        String sql;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.mongodb.jdbc.Translate")
+    @Label("Translate")
+    @Category(CATEGORY)
+    @Description("Translation of a SQL query to a pipeline, when it is not cached")
+    static final class TranslateEvent extends Event implements DriverEvents.Span {
+        @Label("Database")
+        String dbName;
+
+        @Label("SQL")
+        String sql;
+    }
+
+    @Name("com.mongodb.jdbc.CatalogFetch")
+    @Label("Catalog Fetch")
+    @Category(CATEGORY)
+    @Description("Fetch of the schemas of the collections of a query, when they are not cached")
+    static final class CatalogFetchEvent extends Event implements DriverEvents.Span {
+        @Label("Database")
+        String dbName;
+
+        @Label("Collection Count")
+        int collectionCount;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("com.mongodb.jdbc.GetMore")
+    @Label("Get More")
+    @Category(CATEGORY)
+    @Description("Wait for the next batch of a result set cursor")
+    @StackTrace(false)
+    static final class GetMoreEvent extends Event implements DriverEvents.Span {
+        @Label("Statement Id")
+        int statementId;
+
+        @Label("Row Count")
+        int rowCount;
+    }
+
+    @Name("com.mongodb.jdbc.ResultSetClose")
+    @Label("Result Set Close")
+    @Category(CATEGORY)
+    @Description("Close of a result set, with the rows read from its cursor")
+    @StackTrace(false)
+    static final class ResultSetCloseEvent extends Event {
+        @Label("Statement Id")
+        int statementId;
+
+        @Label("Row Count")
+        long rowCount;
+
+        @Label("Size")
+        @DataAmount
+        long byteCount;
+
+        @Label("Exhausted")
+        boolean exhausted;
+    }
+
+    static DriverEvents.Span beginQuery() {
+        QueryEvent event = new QueryEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endQuery(
+            DriverEvents.Span span,
+            int connectionId,
+            int statementId,
+            String sql,
+            boolean succeeded) {
+        QueryEvent event = (QueryEvent) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.connectionId = connectionId;
+            event.statementId = statementId;
+            event.sql = sql;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    static DriverEvents.Span beginTranslate() {
+        TranslateEvent event = new TranslateEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endTranslate(DriverEvents.Span span, String dbName, String sql) {
+        TranslateEvent event = (TranslateEvent) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dbName = dbName;
+            event.sql = sql;
+            event.commit();
+        }
+    }
+
+    static DriverEvents.Span beginCatalogFetch() {
+        CatalogFetchEvent event = new CatalogFetchEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endCatalogFetch(
+            DriverEvents.Span span, String dbName, int collectionCount, boolean found) {
+        CatalogFetchEvent event = (CatalogFetchEvent) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dbName = dbName;
+            event.collectionCount = collectionCount;
+            event.found = found;
+            event.commit();
+        }
+    }
+
+    static DriverEvents.Span beginGetMore() {
+        GetMoreEvent event = new GetMoreEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endGetMore(DriverEvents.Span span, int statementId, int rowCount) {
+        GetMoreEvent event = (GetMoreEvent) span;
+        event.end();
+        if (event.shouldCommit()) {
+            event.statementId = statementId;
+            event.rowCount = rowCount;
+            event.commit();
+        }
+    }
+
+    static void resultSetClosed(int statementId, long rowCount, long byteCount, boolean exhausted) {
+        ResultSetCloseEvent event = new ResultSetCloseEvent();
+        if (event.isEnabled()) {
+            event.statementId = statementId;
+            event.rowCount = rowCount;
+            event.byteCount = byteCount;
+            event.exhausted = exhausted;
+            event.commit();
+        }
+    }
+}
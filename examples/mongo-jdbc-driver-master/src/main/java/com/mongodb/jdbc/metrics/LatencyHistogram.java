@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations with bounded relative error, in the manner of HdrHistogram.
+ *
+ * <p>Durations are recorded in microseconds. Values below 32 have their own bucket. Above, each
+ * power of two is split into 16 buckets, so a reported percentile is at most 1/16 above the
+ * recorded value. Durations above about 71 minutes fall in the last bucket. Recording is a few
+ * atomic increments and never allocates.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_MICROS = (1L << 32) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    static int bucketIndex(long micros) {
+        if (micros < 2 * SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (micros >>> shift);
+    }
+
+    /** @return the highest value, in microseconds, counted in the given bucket. */
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /** @param nanos The duration, in nanoseconds. Negative durations are recorded as 0. */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_MICROS);
+        counts.incrementAndGet(bucketIndex(micros));
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @param percentile The percentile, between 0 and 100.
+     * @return the duration, in microseconds, at or below which the given percentage of the
+     *     recorded durations fall, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                // Never report more than the largest recorded duration
+                return Math.min(
+                        bucketUpperBound(i), TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            }
+        }
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long n = count.get();
+        return (n == 0) ? 0 : totalNanos.get() / 1e6 / n;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return getValueAtPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return getValueAtPercentile(90) / 1e3;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return getValueAtPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return getValueAtPercentile(99.9) / 1e3;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count="
+                + getCount()
+                + ", meanMs="
+                + getMeanMillis()
+                + ", p50Ms="
+                + getP50Millis()
+                + ", p99Ms="
+                + getP99Millis()
+                + ", maxMs="
+                + getMaxMillis()
+                + "}";
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import com.mongodb.jdbc.MongoSerializationException;
+import com.mongodb.jdbc.utils.BsonUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import org.bson.BsonDocument;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonValue;
+
+/**
+ * SHA-256 digest of a schema catalog. Translations are keyed on it rather than on the catalog, so a
+ * cached translation does not retain its catalog and a lookup does not walk and compare whole
+ * catalogs.
+ *
+ * <p>The fingerprint is computed from the database names and the digest of each collection schema,
+ * so that the digests of the schemas served by the {@link SchemaCatalogCache} are only computed
+ * once, rather than the whole catalog being encoded and hashed on every query.
+ */
+public final class CatalogFingerprint {
+    private final byte[] digest;
+    private final int catalogSize;
+    private final int hash;
+
+    private CatalogFingerprint(byte[] digest, int catalogSize) {
+        this.digest = digest;
+        this.catalogSize = catalogSize;
+        this.hash = Arrays.hashCode(digest);
+    }
+
+    /** SHA-256 digest of the BSON encoding of a collection name and its schema. */
+    static final class SchemaDigest {
+        private final byte[] digest;
+        private final int schemaSize;
+
+        private SchemaDigest(byte[] digest, int schemaSize) {
+            this.digest = digest;
+            this.schemaSize = schemaSize;
+        }
+
+        /**
+         * @param collectionName The collection name.
+         * @param schema The schema of the collection.
+         * @return the digest of the schema.
+         * @throws MongoSerializationException If the schema cannot be encoded.
+         */
+        static SchemaDigest of(String collectionName, BsonValue schema)
+                throws MongoSerializationException {
+            byte[] bytes = BsonUtils.serialize(new BsonDocument(collectionName, schema));
+            return new SchemaDigest(newDigest().digest(bytes), bytes.length);
+        }
+
+        /** @return the size in bytes of the encoded schema. */
+        int getSchemaSize() {
+            return schemaSize;
+        }
+    }
+
+    /**
+     * @param schemaCatalog The schema catalog.
+     * @return the fingerprint of the catalog.
+     * @throws MongoSerializationException If the catalog cannot be encoded.
+     */
+    public static CatalogFingerprint of(BsonDocument schemaCatalog)
+            throws MongoSerializationException {
+        return of(schemaCatalog, null);
+    }
+
+    /**
+     * @param schemaCatalog The schema catalog.
+     * @param schemaCache The cache the digests of the cached schemas are read from, or null to
+     *     compute the digest of every schema.
+     * @return the fingerprint of the catalog.
+     * @throws MongoSerializationException If the catalog cannot be encoded.
+     */
+    static CatalogFingerprint of(BsonDocument schemaCatalog, SchemaCatalogCache schemaCache)
+            throws MongoSerializationException {
+        MessageDigest catalogDigest = newDigest();
+        int catalogSize = 0;
+        try {
+            for (Map.Entry<String, BsonValue> db : schemaCatalog.entrySet()) {
+                String dbName = db.getKey();
+                byte[] name = dbName.getBytes(StandardCharsets.UTF_8);
+                catalogDigest.update(name);
+                // Database names cannot contain a null character
+                catalogDigest.update((byte) 0);
+                catalogSize += name.length + 1;
+                for (Map.Entry<String, BsonValue> collection :
+                        db.getValue().asDocument().entrySet()) {
+                    SchemaDigest schema =
+                            (schemaCache == null)
+                                    ? SchemaDigest.of(collection.getKey(), collection.getValue())
+                                    : schemaCache.getDigest(
+                                            dbName, collection.getKey(), collection.getValue());
+                    catalogDigest.update(schema.digest);
+                    catalogSize += schema.schemaSize;
+                }
+            }
+        } catch (BsonInvalidOperationException e) {
+            throw new MongoSerializationException("Invalid schema catalog.", e);
+        }
+        return new CatalogFingerprint(catalogDigest.digest(), catalogSize);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return the approximate size in bytes of the encoded catalog. */
+    public int getCatalogSize() {
+        return catalogSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CatalogFingerprint)) {
+            return false;
+        }
+        CatalogFingerprint other = (CatalogFingerprint) o;
+        return hash == other.hash && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -30,20 +30,32 @@ import com.mongodb.jdbc.MongoJsonSchemaResult;
 import com.mongodb.jdbc.MongoSerializationException;
 import com.mongodb.jdbc.logging.AutoLoggable;
 import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.metrics.DriverEvents;
 import com.mongodb.jdbc.utils.BsonUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import org.bson.*;
+import org.bson.codecs.Codec;
 import org.bson.codecs.DecoderContext;
 import org.bson.conversions.Bson;
+import org.bson.io.BasicOutputBuffer;
 
 @AutoLoggable
 public class MongoSQLTranslate {
     public static final String SQL_SCHEMAS_COLLECTION = "__sql_schemas";
     private final MongoLogger logger;
+    private final TranslateCache translateCache;
+    private SchemaCatalogCache schemaCache;
+    private long schemaCacheTtlMs;
+    private boolean schemaCacheWatch;
+    // The library handle is not safe for concurrent use, while the statements of the connection,
+    // such as the ones running the queries of a batch, can translate from several threads.
+    private final Object commandLock = new Object();
 
     /** Native method to send commands via JNI. */
     public native byte[] runCommand(byte[] command, int length);
@@ -51,13 +63,78 @@ public class MongoSQLTranslate {
     public static final String ERROR_KEY = "error";
     public static final String IS_INTERNAL_ERROR_KEY = "error_is_internal";
 
+    // Buffers larger than this are not kept for the next command of the thread.
+    private static final int MAX_RETAINED_COMMAND_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final ThreadLocal<BasicOutputBuffer> COMMAND_BUFFER =
+            ThreadLocal.withInitial(BasicOutputBuffer::new);
+
     public MongoSQLTranslate(MongoLogger logger) {
+        this(logger, TranslateCache.DEFAULT_MAX_SIZE_MB);
+    }
+
+    /**
+     * @param logger The connection logger.
+     * @param translateCacheSizeMb The maximum size in megabytes of the translations cached for the
+     *     connection. 0 disables the cache.
+     */
+    public MongoSQLTranslate(MongoLogger logger, int translateCacheSizeMb) {
         this.logger = logger;
+        this.translateCache = new TranslateCache(translateCacheSizeMb * 1024L * 1024L);
+    }
+
+    /**
+     * Enables caching of the schemas read from __sql_schemas.
+     *
+     * @param schemaCache The cache, usually shared by all the connections of a MongoClient.
+     * @param ttlMs How long a cached schema is served. 0 means until a change is observed, which
+     *     is only valid when watch is true.
+     * @param watch Whether changes to __sql_schemas should be watched to evict updated schemas.
+     */
+    public void enableSchemaCache(SchemaCatalogCache schemaCache, long ttlMs, boolean watch) {
+        this.schemaCache = schemaCache;
+        this.schemaCacheTtlMs = ttlMs;
+        this.schemaCacheWatch = watch;
+    }
+
+    /** @return the schema cache or null if schemas are not cached. */
+    public SchemaCatalogCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    /**
+     * Returns how long a cached schema of this database can be served, starting to watch the
+     * database if required.
+     *
+     * @return the time-to-live in milliseconds, 0 if the cache must not be used.
+     */
+    private long getSchemaCacheTtlMs(MongoDatabase mongoDatabase) {
+        if (schemaCache == null) {
+            return 0;
+        }
+        if (schemaCacheWatch) {
+            schemaCache.watch(mongoDatabase, logger);
+            if (schemaCacheTtlMs == 0) {
+                // Without a ttl, the cache is only safe to use while changes are observed
+                return schemaCache.isWatching(mongoDatabase.getName()) ? Long.MAX_VALUE : 0;
+            }
+        }
+        return schemaCacheTtlMs;
+    }
+
+    /** @return the translation cache of this instance, mainly to monitor its hit ratio. */
+    public TranslateCache getTranslateCache() {
+        return translateCache;
     }
 
     /**
      * Executes the JNI runCommand and returns the response as a POJO.
      *
+     * <p>The command is serialized in a buffer reused by the thread, so that large catalog
+     * documents don't grow a new buffer on every translation, and the response is decoded straight
+     * from the returned bytes. The library is passed the backing array of the buffer along with
+     * the length of the command, so the command is not copied. Only the native call itself is
+     * serialized, the commands and responses are encoded and decoded concurrently.
+     *
      * @param command The command to be executed.
      * @param responseClass The class of the response POJO.
      * @return The response POJO.
@@ -67,26 +144,45 @@ public class MongoSQLTranslate {
      */
     public <T> T runCommand(BsonDocument command, Class<T> responseClass)
             throws MongoSerializationException, MongoSQLException {
+        byte[] responseBytes;
+        BasicOutputBuffer buffer = COMMAND_BUFFER.get();
+        try {
+            buffer.truncateToPosition(0);
+            BsonUtils.serialize(command, buffer);
+            synchronized (commandLock) {
+                responseBytes = runCommand(buffer.getInternalBuffer(), buffer.getPosition());
+            }
+        } finally {
+            if (buffer.getInternalBuffer().length > MAX_RETAINED_COMMAND_BUFFER_SIZE) {
+                // Don't keep the memory of an exceptionally large command
+                COMMAND_BUFFER.remove();
+            }
+        }
+        if (responseBytes == null) {
+            throw new MongoSerializationException("Failed to deserialize BSON.");
+        }
 
-        byte[] commandBytes = BsonUtils.serialize(command);
-        byte[] responseBytes = runCommand(commandBytes, commandBytes.length);
-        BsonDocument responseDoc = BsonUtils.deserialize(responseBytes);
-
-        BsonDocumentReader reader = new BsonDocumentReader(responseDoc);
-        BsonValue error = responseDoc.get(ERROR_KEY);
-        if (error != null) {
-            String errorMessage =
-                    String.format(
-                            responseDoc.getBoolean(IS_INTERNAL_ERROR_KEY).getValue()
-                                    ? "Internal error: %s"
-                                    : "Error executing command: %s",
-                            error.asString().getValue());
+        // Only the error fields are read from the raw response before decoding it
+        String errorMessage = null;
+        try {
+            RawBsonDocument response = new RawBsonDocument(responseBytes);
+            BsonValue error = response.get(ERROR_KEY);
+            if (error != null) {
+                errorMessage =
+                        String.format(
+                                response.getBoolean(IS_INTERNAL_ERROR_KEY).getValue()
+                                        ? "Internal error: %s"
+                                        : "Error executing command: %s",
+                                error.asString().getValue());
+            }
+        } catch (BsonSerializationException | BsonInvalidOperationException e) {
+            throw new MongoSerializationException("Failed to deserialize BSON.", e);
+        }
+        if (errorMessage != null) {
             throw new MongoSQLException(errorMessage);
         }
 
-        return MongoDriver.getCodecRegistry()
-                .get(responseClass)
-                .decode(reader, DecoderContext.builder().build());
+        return BsonUtils.decode(responseBytes, MongoDriver.getCodecRegistry().get(responseClass));
     }
 
     /**
@@ -136,7 +232,9 @@ public class MongoSQLTranslate {
     }
 
     /**
-     * Executes a translate command based on the provided SQL and returns the response.
+     * Executes a translate command based on the provided SQL and returns the response. Results are
+     * cached per (dbName, sql, schemaCatalog fingerprint) so the returned value must not be
+     * modified.
      *
      * @param sql The SQL query to translate.
      * @param dbName The database name.
@@ -148,6 +246,15 @@ public class MongoSQLTranslate {
      */
     public TranslateResult translate(String sql, String dbName, BsonDocument schemaCatalog)
             throws MongoSQLException, MongoSerializationException {
+        CatalogFingerprint fingerprint = null;
+        if (translateCache.isEnabled()) {
+            fingerprint = fingerprint(schemaCatalog);
+            TranslateResult cached = translateCache.getTranslation(dbName, sql, fingerprint);
+            if (cached != null) {
+                logger.log(Level.FINER, "Translation cache hit");
+                return cached;
+            }
+        }
 
         // Setting excludeNamespaces to default value false and relaxSchemaChecking to default value true.
         // These options are not currently handled in the JDBC driver
@@ -160,7 +267,26 @@ public class MongoSQLTranslate {
         BsonDocument translateCommand =
                 new BsonDocument("command", new BsonString("translate")).append("options", options);
 
-        return runCommand(translateCommand, TranslateResult.class);
+        DriverEvents.Span span = DriverEvents.beginTranslate();
+        TranslateResult result = runCommand(translateCommand, TranslateResult.class);
+        DriverEvents.endTranslate(span, dbName, sql);
+        if (fingerprint != null) {
+            translateCache.putTranslation(dbName, sql, fingerprint, result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the fingerprint of a schema catalog, reusing the digests of the schemas served by
+     * the schema cache.
+     *
+     * @param schemaCatalog The schema catalog.
+     * @return the fingerprint of the catalog.
+     * @throws MongoSerializationException If the catalog cannot be encoded.
+     */
+    public CatalogFingerprint fingerprint(BsonDocument schemaCatalog)
+            throws MongoSerializationException {
+        return CatalogFingerprint.of(schemaCatalog, schemaCache);
     }
 
     /**
@@ -175,13 +301,19 @@ public class MongoSQLTranslate {
      */
     public GetNamespacesResult getNamespaces(String dbName, String sql)
             throws MongoSQLException, MongoSerializationException {
+        GetNamespacesResult cached = translateCache.getNamespaces(dbName, sql);
+        if (cached != null) {
+            return cached;
+        }
         BsonDocument options =
                 new BsonDocument("sql", new BsonString(sql)).append("db", new BsonString(dbName));
         BsonDocument command =
                 new BsonDocument("command", new BsonString("getNamespaces"))
                         .append("options", options);
 
-        return runCommand(command, GetNamespacesResult.class);
+        GetNamespacesResult result = runCommand(command, GetNamespacesResult.class);
+        translateCache.putNamespaces(dbName, sql, result);
+        return result;
     }
 
     /**
@@ -208,12 +340,80 @@ public class MongoSQLTranslate {
             return new BsonDocument(dbName, new BsonDocument("", new BsonDocument()));
         }
 
-        // Create an aggregation pipeline to fetch the schema information for the specified collections.
-        // The pipeline uses $in to query all the specified collections and projects them into the desired format:
-        // "dbName": { "collection1" : "Schema1", "collection2" : "Schema2", ... }
         List<String> collectionNames =
                 collections.stream().map(ns -> ns.collection).collect(Collectors.toList());
 
+        // Serve what we can from the schema cache and only fetch the other collections.
+        long ttlMs = getSchemaCacheTtlMs(mongoDatabase);
+        BsonDocument schemas = new BsonDocument();
+        List<String> collectionsToFetch = collectionNames;
+        if (ttlMs > 0) {
+            collectionsToFetch = new ArrayList<>();
+            for (String collectionName : collectionNames) {
+                BsonValue schema = schemaCache.get(dbName, collectionName, ttlMs);
+                if (schema != null) {
+                    schemas.append(collectionName, schema);
+                } else {
+                    collectionsToFetch.add(collectionName);
+                }
+            }
+        }
+
+        if (!collectionsToFetch.isEmpty()) {
+            long generation = (ttlMs > 0) ? schemaCache.getGeneration() : 0;
+            DriverEvents.Span span = DriverEvents.beginCatalogFetch();
+            BsonDocument fetchedCatalog =
+                    fetchCatalogDocument(mongoDatabase, dbName, collectionsToFetch);
+            DriverEvents.endCatalogFetch(
+                    span, dbName, collectionsToFetch.size(), fetchedCatalog != null);
+            if (fetchedCatalog != null) {
+                for (Map.Entry<String, BsonValue> schema :
+                        fetchedCatalog.getDocument(dbName).entrySet()) {
+                    schemas.append(schema.getKey(), schema.getValue());
+                    if (ttlMs > 0) {
+                        schemaCache.put(dbName, schema.getKey(), schema.getValue(), generation);
+                    }
+                }
+            } else if (schemas.isEmpty()) {
+                logger.log(
+                        Level.SEVERE,
+                        "No schema information found for any of the requested collections. Will use empty schemas. Hint: Generate schemas for your collections.");
+                for (String collectionName : collectionNames) {
+                    schemas.append(collectionName, new BsonDocument());
+                }
+            }
+        }
+        BsonDocument catalog = new BsonDocument(dbName, schemas);
+
+        // Check that all expected collections are present in the result
+        BsonDocument resultCollections = catalog.getDocument(dbName);
+        List<String> returnedCollections = new ArrayList<>(resultCollections.keySet());
+        List<String> missingCollections =
+                collections
+                        .stream()
+                        .map(ns -> ns.collection)
+                        .filter(c -> !returnedCollections.contains(c))
+                        .collect(Collectors.toList());
+
+        if (!missingCollections.isEmpty()) {
+            throw new MongoSQLException(
+                    "Could not retrieve schema for collections: " + missingCollections);
+        }
+
+        return catalog;
+    }
+
+    /**
+     * Runs the aggregation fetching the schemas of the specified collections from __sql_schemas.
+     *
+     * @return the catalog document for the collections found or null if none of them has a schema.
+     */
+    private BsonDocument fetchCatalogDocument(
+            MongoDatabase mongoDatabase, String dbName, List<String> collectionNames)
+            throws MongoSQLException {
+        // Create an aggregation pipeline to fetch the schema information for the specified collections.
+        // The pipeline uses $in to query all the specified collections and projects them into the desired format:
+        // "dbName": { "collection1" : "Schema1", "collection2" : "Schema2", ... }
         // Filter documents where _id is in the list of collection names
         Bson matchStage = Aggregates.match(Filters.in("_id", collectionNames));
 
@@ -282,32 +482,6 @@ public class MongoSQLTranslate {
             catalog = doc;
             foundResult = true;
         }
-        if (!foundResult) {
-            logger.log(
-                    Level.SEVERE,
-                    "No schema information found for any of the requested collections. Will use empty schemas. Hint: Generate schemas for your collections.");
-            BsonDocument schemas = new BsonDocument();
-            for (String collectionName : collectionNames) {
-                schemas.append(collectionName, new BsonDocument());
-            }
-            catalog = new BsonDocument(dbName, schemas);
-        }
-
-        // Check that all expected collections are present in the result
-        BsonDocument resultCollections = catalog.getDocument(dbName);
-        List<String> returnedCollections = new ArrayList<>(resultCollections.keySet());
-        List<String> missingCollections =
-                collections
-                        .stream()
-                        .map(ns -> ns.collection)
-                        .filter(c -> !returnedCollections.contains(c))
-                        .collect(Collectors.toList());
-
-        if (!missingCollections.isEmpty()) {
-            throw new MongoSQLException(
-                    "Could not retrieve schema for collections: " + missingCollections);
-        }
-
         return catalog;
     }
 
@@ -336,11 +510,32 @@ public class MongoSQLTranslate {
                                         Projections.computed("schema.version", new BsonInt32(1)))),
                         Aggregates.addFields(new Field<>("ok", new BsonInt32(1))));
 
-        MongoCollection<BsonDocument> schemasCollection =
-                mongoDatabase.getCollection(SQL_SCHEMAS_COLLECTION, BsonDocument.class);
-        AggregateIterable<BsonDocument> result = schemasCollection.aggregate(pipeline);
-
-        BsonDocument resultDoc = result.first();
+        long ttlMs = getSchemaCacheTtlMs(mongoDatabase);
+        String dbName = mongoDatabase.getName();
+        BsonDocument resultDoc = null;
+        BsonValue cachedSchema =
+                (ttlMs > 0) ? schemaCache.get(dbName, collectionName, ttlMs) : null;
+        if (cachedSchema != null) {
+            resultDoc =
+                    new BsonDocument(
+                                    "schema",
+                                    new BsonDocument("jsonSchema", cachedSchema)
+                                            .append("version", new BsonInt32(1)))
+                            .append("ok", new BsonInt32(1));
+        } else {
+            long generation = (ttlMs > 0) ? schemaCache.getGeneration() : 0;
+            MongoCollection<BsonDocument> schemasCollection =
+                    mongoDatabase.getCollection(SQL_SCHEMAS_COLLECTION, BsonDocument.class);
+            AggregateIterable<BsonDocument> result = schemasCollection.aggregate(pipeline);
+
+            resultDoc = result.first();
+            if (ttlMs > 0 && resultDoc != null && resultDoc.isDocument("schema")) {
+                BsonValue schema = resultDoc.getDocument("schema").get("jsonSchema");
+                if (schema != null) {
+                    schemaCache.put(dbName, collectionName, schema, generation);
+                }
+            }
+        }
 
         if (resultDoc == null) {
             logger.log(
@@ -356,4 +551,72 @@ public class MongoSQLTranslate {
                         .decode(reader, DecoderContext.builder().build());
         return mongoJsonSchemaResult;
     }
+
+    /**
+     * Retrieves the schemas of several collections of a database with a single $in aggregation on
+     * __sql_schemas. Unlike {@link #buildCatalogDocument}, each schema is returned in its own
+     * document, so the total size of the schemas is not limited by the maximum document size.
+     *
+     * @param mongoDatabase MongoDB database instance.
+     * @param collectionNames Names of the collections to retrieve the schemas of.
+     * @return the schema result of each collection which has a schema, by collection name.
+     */
+    public Map<String, MongoJsonSchemaResult> getSchemas(
+            MongoDatabase mongoDatabase, List<String> collectionNames) {
+        long ttlMs = getSchemaCacheTtlMs(mongoDatabase);
+        String dbName = mongoDatabase.getName();
+        Map<String, BsonValue> schemas = new HashMap<>();
+        List<String> collectionsToFetch = collectionNames;
+        if (ttlMs > 0) {
+            collectionsToFetch = new ArrayList<>();
+            for (String collectionName : collectionNames) {
+                BsonValue schema = schemaCache.get(dbName, collectionName, ttlMs);
+                if (schema != null) {
+                    schemas.put(collectionName, schema);
+                } else {
+                    collectionsToFetch.add(collectionName);
+                }
+            }
+        }
+
+        if (!collectionsToFetch.isEmpty()) {
+            long generation = (ttlMs > 0) ? schemaCache.getGeneration() : 0;
+            List<Bson> pipeline =
+                    Arrays.asList(
+                            Aggregates.match(Filters.in("_id", collectionsToFetch)),
+                            Aggregates.project(Projections.include("schema")));
+            for (BsonDocument doc :
+                    mongoDatabase
+                            .getCollection(SQL_SCHEMAS_COLLECTION, BsonDocument.class)
+                            .aggregate(pipeline)) {
+                BsonValue id = doc.get("_id");
+                BsonValue schema = doc.get("schema");
+                if (id == null || !id.isString() || schema == null) {
+                    continue;
+                }
+                schemas.put(id.asString().getValue(), schema);
+                if (ttlMs > 0) {
+                    schemaCache.put(dbName, id.asString().getValue(), schema, generation);
+                }
+            }
+        }
+
+        Codec<MongoJsonSchemaResult> codec =
+                MongoDriver.getCodecRegistry().get(MongoJsonSchemaResult.class);
+        Map<String, MongoJsonSchemaResult> results = new HashMap<>();
+        for (Map.Entry<String, BsonValue> schema : schemas.entrySet()) {
+            // Same format as the result of getSchema
+            BsonDocument resultDoc =
+                    new BsonDocument(
+                                    "schema",
+                                    new BsonDocument("jsonSchema", schema.getValue())
+                                            .append("version", new BsonInt32(1)))
+                            .append("ok", new BsonInt32(1));
+            results.put(
+                    schema.getKey(),
+                    codec.decode(
+                            new BsonDocumentReader(resultDoc), DecoderContext.builder().build()));
+        }
+        return results;
+    }
 }
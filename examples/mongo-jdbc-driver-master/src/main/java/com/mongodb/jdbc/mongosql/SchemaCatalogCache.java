@@ -0,0 +1,376 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import static com.mongodb.jdbc.mongosql.MongoSQLTranslate.SQL_SCHEMAS_COLLECTION;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.jdbc.MongoExecutors;
+import com.mongodb.jdbc.MongoSerializationException;
+import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.utils.LruCache;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+/**
+ * Schemas read from the __sql_schemas collection, shared by all the connections using the same
+ * MongoClient. Entries are stamped with the time they were fetched and each lookup applies the
+ * caller's time-to-live, so connections with different settings can share the same cache. A schema
+ * weighs the size of its encoding, which is computed along with its digest when it is cached, and
+ * the least recently used schemas are evicted past the maximum size.
+ *
+ * <p>When invalidation is requested, a change stream is opened on __sql_schemas for each database
+ * looked up and the entries of the modified collections are evicted as soon as the change is
+ * observed. The change streams are polled by the driver's task executor, backing off while they
+ * are idle, and are closed once every connection which {@link #retain() retained} the cache has
+ * released it. Cached schemas are shared and must not be modified by callers.
+ */
+public class SchemaCatalogCache {
+    public static final int DEFAULT_MAX_SIZE_MB = 32;
+
+    private static final Map<MongoClient, SchemaCatalogCache> CACHES = new WeakHashMap<>();
+    private static final long WATCH_MAX_AWAIT_MS = 1000;
+    // Pause after an empty poll, doubled on each consecutive one up to the maximum
+    private static final long WATCH_MIN_IDLE_DELAY_MS = 100;
+    private static final long WATCH_MAX_IDLE_DELAY_MS = 5000;
+    // Delay before a failed watch is retried, doubled on each consecutive failure up to the maximum
+    private static final long WATCH_RETRY_DELAY_MS = 60000;
+    private static final long WATCH_MAX_RETRY_DELAY_MS = 30 * 60000;
+    private static final Long WATCHING = 0L;
+
+    private final LruCache<SchemaKey, CachedSchema> schemas;
+    // Database name -> WATCHING, or the time after which a failed watch can be retried
+    private final Map<String, Long> watchStates = new ConcurrentHashMap<>();
+    // Database name -> number of consecutive failures to watch it
+    private final Map<String, Integer> watchFailures = new ConcurrentHashMap<>();
+    private final Object watchLock = new Object();
+    // Number of connections which may start watchers, guarded by watchLock
+    private int watchUsers;
+    // Bumped when the last user releases the cache to stop the running watchers, guarded by
+    // watchLock
+    private long watchEpoch;
+    // Bumped on every invalidation so that a schema fetched concurrently is not cached stale
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SchemaCatalogCache() {
+        this(DEFAULT_MAX_SIZE_MB * 1024L * 1024L);
+    }
+
+    /** @param maxBytes The maximum size in bytes of the schemas kept. */
+    public SchemaCatalogCache(long maxBytes) {
+        this.schemas = new LruCache<>(maxBytes, (key, value) -> value.digest.getSchemaSize());
+    }
+
+    /**
+     * Returns the cache associated to the given client, creating it if needed.
+     *
+     * @param client The MongoClient the schemas are read with.
+     * @return the cache for this client.
+     */
+    public static SchemaCatalogCache forClient(MongoClient client) {
+        synchronized (CACHES) {
+            return CACHES.computeIfAbsent(client, c -> new SchemaCatalogCache());
+        }
+    }
+
+    private static final class CachedSchema {
+        private final BsonValue schema;
+        private final CatalogFingerprint.SchemaDigest digest;
+
+        CachedSchema(BsonValue schema, CatalogFingerprint.SchemaDigest digest) {
+            this.schema = schema;
+            this.digest = digest;
+        }
+    }
+
+    private static final class SchemaKey {
+        private final String dbName;
+        private final String collectionName;
+
+        SchemaKey(String dbName, String collectionName) {
+            this.dbName = dbName;
+            this.collectionName = collectionName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SchemaKey)) {
+                return false;
+            }
+            SchemaKey other = (SchemaKey) o;
+            return Objects.equals(dbName, other.dbName)
+                    && Objects.equals(collectionName, other.collectionName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dbName, collectionName);
+        }
+    }
+
+    /**
+     * Returns the cached schema of a collection.
+     *
+     * @param dbName The database name.
+     * @param collectionName The collection name.
+     * @param ttlMs How long, in milliseconds, a schema can be served after it was fetched.
+     * @return the schema or null if it is not cached or has expired.
+     */
+    public BsonValue get(String dbName, String collectionName, long ttlMs) {
+        CachedSchema cached = schemas.get(new SchemaKey(dbName, collectionName), ttlMs);
+        return (cached == null) ? null : cached.schema;
+    }
+
+    /**
+     * Returns the digest of a schema, which is computed once when the schema is cached.
+     *
+     * @param dbName The database name.
+     * @param collectionName The collection name.
+     * @param schema The schema of the collection, as returned by {@link #get(String, String,
+     *     long)} or fetched from __sql_schemas.
+     * @return the digest of the schema.
+     * @throws MongoSerializationException If the schema cannot be encoded.
+     */
+    CatalogFingerprint.SchemaDigest getDigest(
+            String dbName, String collectionName, BsonValue schema)
+            throws MongoSerializationException {
+        CachedSchema cached = schemas.peek(new SchemaKey(dbName, collectionName));
+        return (cached != null && cached.schema == schema)
+                ? cached.digest
+                : CatalogFingerprint.SchemaDigest.of(collectionName, schema);
+    }
+
+    /**
+     * @return the current generation, to be read before fetching schemas and passed back to {@link
+     *     #put(String, String, BsonValue, long)}.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the schema of a collection, unless an invalidation happened since the schema was read
+     * or the schema cannot be encoded.
+     *
+     * @param dbName The database name.
+     * @param collectionName The collection name.
+     * @param schema The schema stored in __sql_schemas.
+     * @param fetchGeneration The value of {@link #getGeneration()} before the schema was read.
+     */
+    public void put(String dbName, String collectionName, BsonValue schema, long fetchGeneration) {
+        if (generation.get() != fetchGeneration) {
+            return;
+        }
+        CatalogFingerprint.SchemaDigest digest;
+        try {
+            digest = CatalogFingerprint.SchemaDigest.of(collectionName, schema);
+        } catch (MongoSerializationException e) {
+            // Translating with this schema fails anyway, it is fetched again on the next query
+            return;
+        }
+        schemas.put(new SchemaKey(dbName, collectionName), new CachedSchema(schema, digest));
+    }
+
+    public void invalidate(String dbName, String collectionName) {
+        generation.incrementAndGet();
+        if (schemas.remove(new SchemaKey(dbName, collectionName))) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public void invalidate(String dbName) {
+        generation.incrementAndGet();
+        int removed = schemas.removeIf((key, value) -> key.dbName.equals(dbName));
+        invalidations.addAndGet(removed);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        schemas.clear();
+    }
+
+    public long getHitCount() {
+        return schemas.getHitCount();
+    }
+
+    public long getMissCount() {
+        return schemas.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return schemas.getEvictionCount();
+    }
+
+    /** @return the size in bytes of the cached schemas. */
+    public long getSize() {
+        return schemas.getWeight();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Registers a connection which may watch __sql_schemas. Each call must be matched by a call to
+     * {@link #release()} when the connection is closed.
+     */
+    public void retain() {
+        synchronized (watchLock) {
+            watchUsers++;
+        }
+    }
+
+    /** Releases the cache, closing its change streams if no other connection retains it. */
+    public void release() {
+        synchronized (watchLock) {
+            if (watchUsers > 0 && --watchUsers == 0) {
+                watchEpoch++;
+                watchLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Starts watching __sql_schemas in the given database if it is not already watched. Any change
+     * evicts the schema of the modified collection. If the change stream can't be opened or fails
+     * (standalone server, missing privileges, closed client, ...), the database entries are dropped
+     * and watching is retried on a later lookup, after a delay growing with the consecutive
+     * failures. Nothing is watched while the cache is not retained.
+     *
+     * @param mongoDatabase The database to watch.
+     * @param parentLogger The logger of the connection starting the watch.
+     */
+    public void watch(MongoDatabase mongoDatabase, MongoLogger parentLogger) {
+        long epoch;
+        synchronized (watchLock) {
+            if (watchUsers == 0) {
+                return;
+            }
+            epoch = watchEpoch;
+        }
+        String dbName = mongoDatabase.getName();
+        Long state = watchStates.get(dbName);
+        if (state == null) {
+            if (watchStates.putIfAbsent(dbName, WATCHING) != null) {
+                return;
+            }
+        } else if (state.equals(WATCHING)
+                || System.currentTimeMillis() < state
+                || !watchStates.replace(dbName, state, WATCHING)) {
+            return;
+        }
+        MongoLogger logger = new MongoLogger(SchemaCatalogCache.class.getName(), parentLogger);
+        MongoExecutors.getTaskExecutor().execute(() -> watchLoop(mongoDatabase, epoch, logger));
+    }
+
+    /**
+     * @param dbName The database name.
+     * @return true if a change stream is currently watching __sql_schemas in this database.
+     */
+    public boolean isWatching(String dbName) {
+        return WATCHING.equals(watchStates.get(dbName));
+    }
+
+    private boolean isStopped(long epoch) {
+        synchronized (watchLock) {
+            return watchEpoch != epoch;
+        }
+    }
+
+    /** Waits for the given delay, returning early if the watchers are stopped. */
+    private void pause(long epoch, long delayMs) {
+        synchronized (watchLock) {
+            if (watchEpoch == epoch) {
+                try {
+                    watchLock.wait(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void watchLoop(MongoDatabase mongoDatabase, long epoch, MongoLogger logger) {
+        String dbName = mongoDatabase.getName();
+        boolean stopped = false;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<BsonDocument>> cursor =
+                mongoDatabase
+                        .getCollection(SQL_SCHEMAS_COLLECTION, BsonDocument.class)
+                        .watch()
+                        .maxAwaitTime(WATCH_MAX_AWAIT_MS, TimeUnit.MILLISECONDS)
+                        .cursor()) {
+            watchFailures.remove(dbName);
+            // Anything cached before the stream was opened may already be stale
+            invalidate(dbName);
+            long idleDelayMs = 0;
+            while (!(stopped = isStopped(epoch))) {
+                ChangeStreamDocument<BsonDocument> change = cursor.tryNext();
+                if (change == null) {
+                    idleDelayMs =
+                            (idleDelayMs == 0)
+                                    ? WATCH_MIN_IDLE_DELAY_MS
+                                    : Math.min(2 * idleDelayMs, WATCH_MAX_IDLE_DELAY_MS);
+                    pause(epoch, idleDelayMs);
+                    continue;
+                }
+                idleDelayMs = 0;
+                OperationType op = change.getOperationType();
+                BsonDocument key = change.getDocumentKey();
+                if (key != null && key.isString("_id")) {
+                    invalidate(dbName, key.getString("_id").getValue());
+                } else {
+                    invalidate(dbName);
+                }
+                if (op == OperationType.INVALIDATE) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.log(
+                    Level.FINE,
+                    "Stopped watching " + dbName + "." + SQL_SCHEMAS_COLLECTION + " : " + e);
+        } finally {
+            if (stopped) {
+                // Watching can start again as soon as the cache is retained again
+                watchStates.remove(dbName);
+            } else {
+                int failures = watchFailures.merge(dbName, 1, Integer::sum);
+                long retryDelayMs =
+                        Math.min(
+                                WATCH_RETRY_DELAY_MS << Math.min(failures - 1, 5),
+                                WATCH_MAX_RETRY_DELAY_MS);
+                watchStates.put(dbName, System.currentTimeMillis() + retryDelayMs);
+            }
+            invalidate(dbName);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import com.mongodb.jdbc.MongoSerializationException;
+import com.mongodb.jdbc.utils.BsonUtils;
+import com.mongodb.jdbc.utils.LruCache;
+import java.util.Objects;
+import org.bson.BsonDocument;
+import org.bson.io.BasicOutputBuffer;
+
+/**
+ * Size-bounded LRU cache for the results of the mongosqltranslate library. A connection re-issuing
+ * the same SQL against an unchanged schema catalog can reuse the previous translation instead of
+ * round-tripping through JNI.
+ *
+ * <p>Namespaces only depend on the database and the SQL text, while translations are also keyed on
+ * the {@link CatalogFingerprint} of the schema catalog so that a schema change in __sql_schemas
+ * naturally produces a cache miss. A translation weighs the size of its SQL text, pipeline and
+ * catalog, which approximates the size of its result set schema, and each of the two maps is
+ * bounded by the maximum size. Cached values are shared and must not be modified by callers.
+ */
+public class TranslateCache {
+    public static final int DEFAULT_MAX_SIZE_MB = 16;
+
+    private final long maxBytes;
+    private final LruCache<NamespacesKey, GetNamespacesResult> namespaces;
+    private final LruCache<TranslateKey, WeighedResult> translations;
+
+    /**
+     * @param maxBytes The maximum size in bytes of the translations (and namespaces) kept. A value
+     *     of 0 disables the cache.
+     */
+    public TranslateCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        this.namespaces = new LruCache<>(this.maxBytes, TranslateCache::weigh);
+        this.translations =
+                new LruCache<>(this.maxBytes, (key, value) -> weigh(key.sql) + value.weight);
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    private static long weigh(String s) {
+        return (s != null) ? 2L * s.length() : 0;
+    }
+
+    private static long weigh(NamespacesKey key, GetNamespacesResult result) {
+        long weight = weigh(key.sql);
+        if (result.namespaces == null) {
+            return weight;
+        }
+        for (GetNamespacesResult.Namespace namespace : result.namespaces) {
+            weight += weigh(namespace.database) + weigh(namespace.collection);
+        }
+        return weight;
+    }
+
+    public GetNamespacesResult getNamespaces(String dbName, String sql) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return namespaces.get(new NamespacesKey(dbName, sql));
+    }
+
+    public void putNamespaces(String dbName, String sql, GetNamespacesResult result) {
+        if (!isEnabled() || result == null) {
+            return;
+        }
+        namespaces.put(new NamespacesKey(dbName, sql), result);
+    }
+
+    public TranslateResult getTranslation(String dbName, String sql, CatalogFingerprint catalog) {
+        if (!isEnabled()) {
+            return null;
+        }
+        WeighedResult cached = translations.get(new TranslateKey(dbName, sql, catalog));
+        return (cached != null) ? cached.result : null;
+    }
+
+    public void putTranslation(
+            String dbName, String sql, CatalogFingerprint catalog, TranslateResult result)
+            throws MongoSerializationException {
+        if (!isEnabled() || result == null) {
+            return;
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        if (result.pipeline != null) {
+            for (BsonDocument stage : result.pipeline) {
+                BsonUtils.serialize(stage, buffer);
+            }
+        }
+        translations.put(
+                new TranslateKey(dbName, sql, catalog),
+                new WeighedResult(result, buffer.getPosition() + catalog.getCatalogSize()));
+    }
+
+    /** Drops every cached entry. The counters are left untouched. */
+    public void clear() {
+        namespaces.clear();
+        translations.clear();
+    }
+
+    public int size() {
+        return translations.size();
+    }
+
+    /** @return the total weight in bytes of the cached translations. */
+    public long getWeight() {
+        return translations.getWeight();
+    }
+
+    public long getHitCount() {
+        return namespaces.getHitCount() + translations.getHitCount();
+    }
+
+    public long getMissCount() {
+        return namespaces.getMissCount() + translations.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return namespaces.getEvictionCount() + translations.getEvictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return "TranslateCache{maxBytes="
+                + maxBytes
+                + ", size="
+                + size()
+                + ", weight="
+                + getWeight()
+                + ", hits="
+                + getHitCount()
+                + ", misses="
+                + getMissCount()
+                + ", evictions="
+                + getEvictionCount()
+                + "}";
+    }
+
+    private static final class WeighedResult {
+        private final TranslateResult result;
+        private final long weight;
+
+        WeighedResult(TranslateResult result, long weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    private static final class NamespacesKey {
+        private final String dbName;
+        private final String sql;
+
+        NamespacesKey(String dbName, String sql) {
+            this.dbName = dbName;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NamespacesKey)) {
+                return false;
+            }
+            NamespacesKey other = (NamespacesKey) o;
+            return Objects.equals(dbName, other.dbName) && Objects.equals(sql, other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dbName, sql);
+        }
+    }
+
+    private static final class TranslateKey {
+        private final String dbName;
+        private final String sql;
+        private final CatalogFingerprint catalog;
+
+        TranslateKey(String dbName, String sql, CatalogFingerprint catalog) {
+            this.dbName = dbName;
+            this.sql = sql;
+            this.catalog = catalog;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TranslateKey)) {
+                return false;
+            }
+            TranslateKey other = (TranslateKey) o;
+            return Objects.equals(dbName, other.dbName)
+                    && Objects.equals(sql, other.sql)
+                    && Objects.equals(catalog, other.catalog);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dbName, sql, catalog);
+        }
+    }
+}
@@ -61,6 +61,45 @@ public class BsonUtils {
         }
     }
 
+    /**
+     * Serializes a BsonDocument at the current position of the given buffer, so that the buffer
+     * can be reused between documents.
+     *
+     * @param doc The BsonDocument to serialize.
+     * @param buffer The buffer to write to.
+     * @throws MongoSerializationException If serialization fails.
+     */
+    public static void serialize(BsonDocument doc, BasicOutputBuffer buffer)
+            throws MongoSerializationException {
+        if (doc == null) {
+            throw new MongoSerializationException("Cannot serialize a null BsonDocument.");
+        }
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new BsonDocumentCodec().encode(writer, doc, EncoderContext.builder().build());
+            writer.flush();
+        } catch (RuntimeException e) {
+            throw new MongoSerializationException("Failed to serialize BSON.", e);
+        }
+    }
+
+    /**
+     * Decodes a BSON byte array straight into an object, without building an intermediate
+     * BsonDocument.
+     *
+     * @param bytes The BSON byte array.
+     * @param codec The codec of the object.
+     * @return The decoded object.
+     * @throws MongoSerializationException If decoding fails.
+     */
+    public static <T> T decode(byte[] bytes, Decoder<T> codec)
+            throws MongoSerializationException {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes))) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        } catch (RuntimeException e) {
+            throw new MongoSerializationException("Failed to deserialize BSON.", e);
+        }
+    }
+
     /**
      * Deserializes a BSON byte array into a BsonDocument.
      *
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Thread-safe map evicting its least recently used entries once their total weight exceeds a
+ * maximum. The weight of an entry is 1 unless a weigher is given, in which case the maximum bounds
+ * the memory or any other cost of the entries.
+ *
+ * <p>Entries are stamped with the time they were inserted so a lookup can also reject the entries
+ * older than a time-to-live. Expired entries are not removed, as they may still be fresh for a
+ * caller with a longer time-to-live, and are eventually evicted.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long insertedAtMs;
+
+        Entry(V value, long weight, long insertedAtMs) {
+            this.value = value;
+            this.weight = weight;
+            this.insertedAtMs = insertedAtMs;
+        }
+    }
+
+    /** @param maxSize The maximum number of entries kept. */
+    public LruCache(long maxSize) {
+        this(maxSize, (k, v) -> 1);
+    }
+
+    /**
+     * @param maxWeight The maximum total weight of the entries kept.
+     * @param weigher Computes the weight of an entry when it is inserted.
+     */
+    public LruCache(long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        this.maxWeight = Math.max(0, maxWeight);
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns a cached value, whatever its age.
+     *
+     * @param key The key of the value.
+     * @return the value, or null if it is not cached.
+     */
+    public V get(K key) {
+        return get(key, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a cached value if it is recent enough.
+     *
+     * @param key The key of the value.
+     * @param ttlMs How long, in milliseconds, the value can be served after it was inserted.
+     * @return the value, or null if it is not cached or has expired.
+     */
+    public V get(K key, long ttlMs) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null || System.currentTimeMillis() - entry.insertedAtMs > ttlMs) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Returns a cached value, whatever its age, without counting a hit or a miss.
+     *
+     * @param key The key of the value.
+     * @return the value, or null if it is not cached.
+     */
+    public V peek(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return (entry == null) ? null : entry.value;
+        }
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entries past the maximum weight given at
+     * construction.
+     *
+     * @param key The key of the value.
+     * @param value The value.
+     */
+    public void put(K key, V value) {
+        put(key, value, maxWeight);
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entries past the given weight. This lets
+     * the users of a shared cache bound it with their own setting. A value heavier than the
+     * maximum on its own is not cached.
+     *
+     * @param key The key of the value.
+     * @param value The value.
+     * @param maxWeight The maximum total weight of the entries to keep.
+     */
+    public void put(K key, V value, long maxWeight) {
+        long entryWeight = weigher.applyAsLong(key, value);
+        Entry<V> entry = new Entry<>(value, entryWeight, System.currentTimeMillis());
+        synchronized (entries) {
+            Entry<V> previous = entries.remove(key);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            if (entryWeight > maxWeight) {
+                return;
+            }
+            entries.put(key, entry);
+            weight += entryWeight;
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes a cached value.
+     *
+     * @param key The key of the value.
+     * @return true if the value was cached.
+     */
+    public boolean remove(K key) {
+        synchronized (entries) {
+            Entry<V> previous = entries.remove(key);
+            if (previous == null) {
+                return false;
+            }
+            weight -= previous.weight;
+            return true;
+        }
+    }
+
+    /**
+     * Removes the entries matching a filter.
+     *
+     * @param filter The filter, called with the key and value of each entry.
+     * @return the number of entries removed.
+     */
+    public int removeIf(BiPredicate<? super K, ? super V> filter) {
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> entry = it.next();
+                if (filter.test(entry.getKey(), entry.getValue().value)) {
+                    weight -= entry.getValue().weight;
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Drops every cached entry. The counters are left untouched.
+     *
+     * @return the number of entries removed.
+     */
+    public int clear() {
+        synchronized (entries) {
+            int removed = entries.size();
+            entries.clear();
+            weight = 0;
+            return removed;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** @return the total weight of the cached entries. */
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** @return the fraction of the lookups served from the cache, 0 if there was none. */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return "size="
+                + size()
+                + ", weight="
+                + getWeight()
+                + ", hits="
+                + hits.get()
+                + ", misses="
+                + misses.get()
+                + ", evictions="
+                + evictions.get();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.mongodb.jdbc.utils.LruCache;
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+    @Test
+    void testWeightedEviction() {
+        // Weighted by the length of the values
+        LruCache<String, String> cache = new LruCache<>(10, (k, v) -> v.length());
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        assertEquals(8, cache.getWeight());
+        // Reading a makes b the least recently used entry
+        assertEquals("aaaa", cache.get("a"));
+        cache.put("c", "cccc");
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertEquals("cccc", cache.get("c"));
+
+        // Replacing an entry replaces its weight
+        cache.put("c", "c");
+        assertEquals(5, cache.getWeight());
+
+        // A value heavier than the maximum on its own is not cached
+        cache.put("d", "ddddddddddd");
+        assertNull(cache.get("d"));
+        assertEquals(2, cache.size());
+        assertEquals(5, cache.getWeight());
+    }
+
+    @Test
+    void testExpiry() throws Exception {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("a", "a");
+        Thread.sleep(20);
+
+        // The time-to-live is the caller's, the same entry can be fresh for one and not another
+        assertNull(cache.get("a", 5));
+        assertEquals("a", cache.get("a", 60_000));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testRemoveIfAndClear() {
+        LruCache<String, String> cache = new LruCache<>(10, (k, v) -> v.length());
+        cache.put("a", "x");
+        cache.put("b", "yy");
+        cache.put("c", "x");
+
+        assertEquals(2, cache.removeIf((k, v) -> v.equals("x")));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getWeight());
+
+        assertEquals(1, cache.clear());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        // Clearing is not an eviction
+        assertEquals(0, cache.getEvictionCount());
+    }
+}
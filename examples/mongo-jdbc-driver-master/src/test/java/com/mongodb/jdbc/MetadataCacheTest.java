@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+class MetadataCacheTest {
+    private static final long TTL_MS = 60_000;
+
+    private static List<BsonDocument> rows(String name) {
+        return Collections.singletonList(new BsonDocument("TABLE_NAME", new BsonString(name)));
+    }
+
+    @Test
+    void testGetAndPut() {
+        MetadataCache cache = new MetadataCache();
+        assertNull(cache.get("getTables", "db", TTL_MS, "%", null));
+
+        cache.put("getTables", "db", rows("foo"), 10, "%", null);
+        assertEquals(rows("foo"), cache.get("getTables", "db", TTL_MS, "%", null));
+
+        // Any other argument is a different entry
+        assertNull(cache.get("getTables", "db", TTL_MS, "f%", null));
+        assertNull(cache.get("getTables", "other", TTL_MS, "%", null));
+        assertNull(cache.get("getColumns", "db", TTL_MS, "%", null));
+        assertNull(
+                cache.get("getTables", "db", TTL_MS, "%", Arrays.asList("table", "view")));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+        assertEquals(1.0 / 6, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testCachedRowsAreReadOnly() {
+        MetadataCache cache = new MetadataCache();
+        cache.put("getCatalogs", null, rows("db"), 10);
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> cache.get("getCatalogs", null, TTL_MS).clear());
+    }
+
+    @Test
+    void testExpiry() throws Exception {
+        MetadataCache cache = new MetadataCache();
+        cache.put("getCatalogs", null, rows("db"), 10);
+        Thread.sleep(20);
+
+        // The time-to-live is the caller's, the same entry can be fresh for one and not another
+        assertNull(cache.get("getCatalogs", null, 5));
+        assertNotNull(cache.get("getCatalogs", null, TTL_MS));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        MetadataCache cache = new MetadataCache();
+        cache.put("getTables", "a", rows("a"), 2);
+        cache.put("getTables", "b", rows("b"), 2);
+        // Reading a makes b the least recently used entry
+        assertNotNull(cache.get("getTables", "a", TTL_MS));
+        cache.put("getTables", "c", rows("c"), 2);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("getTables", "a", TTL_MS));
+        assertNull(cache.get("getTables", "b", TTL_MS));
+        assertNotNull(cache.get("getTables", "c", TTL_MS));
+    }
+
+    @Test
+    void testInvalidate() {
+        MetadataCache cache = new MetadataCache();
+        cache.put("getCatalogs", null, rows("db"), 10);
+        cache.put("getTables", null, rows("foo"), 10, "%", null);
+        cache.put("getTables", "db", rows("foo"), 10, "%", null);
+        cache.put("getTables", "other", rows("bar"), 10, "%", null);
+
+        // Entries over all the catalogs may include the invalidated one
+        cache.invalidate("db");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getInvalidationCount());
+        assertNotNull(cache.get("getTables", "other", TTL_MS, "%", null));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getInvalidationCount());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static com.mongodb.jdbc.BsonTypeInfo.BSON_BOOL;
+import static com.mongodb.jdbc.BsonTypeInfo.BSON_INT;
+import static com.mongodb.jdbc.BsonTypeInfo.BSON_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonElement;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+class MetadataRowStoreTest {
+    private static final List<SortableBsonDocument.SortSpec> SORT_SPECS =
+            Arrays.asList(
+                    new SortableBsonDocument.SortSpec(
+                            "NON_UNIQUE", SortableBsonDocument.ValueType.Boolean),
+                    new SortableBsonDocument.SortSpec(
+                            "TABLE_NAME", SortableBsonDocument.ValueType.String),
+                    new SortableBsonDocument.SortSpec(
+                            "ORDINAL_POSITION", SortableBsonDocument.ValueType.Int));
+
+    private static final MongoJsonSchema SCHEMA = schema();
+
+    private static MongoJsonSchema schema() {
+        MongoJsonSchema fields = MongoJsonSchema.createEmptyObjectSchema();
+        fields.addScalarKeys(
+                new MongoJsonSchema.ScalarProperties("NON_UNIQUE", BSON_BOOL),
+                new MongoJsonSchema.ScalarProperties("TABLE_NAME", BSON_STRING),
+                new MongoJsonSchema.ScalarProperties("ORDINAL_POSITION", BSON_INT),
+                new MongoJsonSchema.ScalarProperties("REMARKS", BSON_STRING, false));
+        MongoJsonSchema schema = MongoJsonSchema.createEmptyObjectSchema();
+        schema.required.add("");
+        schema.properties.put("", fields);
+        return schema;
+    }
+
+    private static BsonElement[] row(
+            boolean nonUnique, String table, int position, String remarks) {
+        return new BsonElement[] {
+            new BsonElement("NON_UNIQUE", BsonBoolean.valueOf(nonUnique)),
+            new BsonElement("TABLE_NAME", new BsonString(table)),
+            new BsonElement("ORDINAL_POSITION", new BsonInt32(position)),
+            new BsonElement("REMARKS", new BsonString(remarks))
+        };
+    }
+
+    @Test
+    void testSameOrderAsSortableBsonDocument() {
+        Random random = new Random(42);
+        List<BsonElement[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Few distinct keys, so that equal keys check the sort is stable
+            rows.add(
+                    row(
+                            random.nextBoolean(),
+                            "table" + random.nextInt(5),
+                            random.nextInt(5),
+                            "row" + i));
+        }
+
+        List<BsonDocument> expected =
+                rows.stream()
+                        .map(
+                                fields ->
+                                        new SortableBsonDocument(
+                                                SORT_SPECS,
+                                                "",
+                                                new BsonDocument(Arrays.asList(fields))))
+                        .sorted()
+                        .collect(Collectors.toList());
+        List<BsonDocument> actual = MetadataRowStore.sorted("", SCHEMA, rows.stream(), SORT_SPECS);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void testColumnsComeFromTheSchema() {
+        MetadataRowStore store = new MetadataRowStore("", SCHEMA, SORT_SPECS);
+        // The first row does not have all the columns, the fields of the next rows are kept
+        store.add(
+                new BsonElement("NON_UNIQUE", BsonBoolean.FALSE),
+                new BsonElement("TABLE_NAME", new BsonString("b")),
+                new BsonElement("ORDINAL_POSITION", new BsonInt32(1)));
+        // Fields in another order than the columns, or which are not columns, are accepted
+        store.add(
+                new BsonElement("UNKNOWN", new BsonString("ignored")),
+                new BsonElement("REMARKS", new BsonString("second")),
+                new BsonElement("ORDINAL_POSITION", new BsonInt32(1)),
+                new BsonElement("TABLE_NAME", new BsonString("a")),
+                new BsonElement("NON_UNIQUE", BsonBoolean.FALSE));
+        store.sort();
+
+        assertEquals(2, store.size());
+        BsonDocument first = store.getRow(0).getDocument("");
+        assertEquals(new BsonString("second"), first.get("REMARKS"));
+        assertEquals(
+                Arrays.asList("NON_UNIQUE", "TABLE_NAME", "ORDINAL_POSITION", "REMARKS"),
+                new ArrayList<>(first.keySet()));
+        assertEquals(BsonNull.VALUE, store.getRow(1).getDocument("").get("REMARKS"));
+    }
+
+    @Test
+    void testRowsAreReadOnly() {
+        List<BsonDocument> rows =
+                MetadataRowStore.sorted("", SCHEMA, Stream.of(row(true, "a", 1, "")), SORT_SPECS);
+        assertThrows(UnsupportedOperationException.class, () -> rows.remove(0));
+
+        // Each read builds a new document, changing it does not change the store
+        rows.get(0).getDocument("").put("REMARKS", new BsonString("changed"));
+        assertEquals(new BsonString(""), rows.get(0).getDocument("").get("REMARKS"));
+    }
+
+    @Test
+    void testEmpty() {
+        List<BsonDocument> rows =
+                MetadataRowStore.sorted("", SCHEMA, Stream.<BsonElement[]>empty(), SORT_SPECS);
+        assertTrue(rows.isEmpty());
+        assertNull(new BsonExplicitCursor(rows).tryNext());
+    }
+}
@@ -347,6 +347,29 @@ public class MongoDatabaseMetaDataTest {
         testGetFunctionsHelper("SUBSTRING", 2);
         // The 'SUBS(any character)RING' function(s)
         testGetFunctionsHelper("SUBS_RING", 2);
+        // No pattern
+        testGetFunctionsHelper(null, 114);
+    }
+
+    @Test
+    void testStaticResultSetsAreShared() throws SQLException {
+        // Result sets over the same precomputed rows are iterated independently
+        ResultSet rs1 = databaseMetaData.getTypeInfo();
+        ResultSet rs2 = databaseMetaData.getTypeInfo();
+        assertTrue(rs1.next());
+        int typeInfoRows = countRows(rs2);
+        assertEquals(typeInfoRows - 1, countRows(rs1));
+        assertEquals(typeInfoRows, countRows(databaseMetaData.getTypeInfo()));
+
+        // Filtering the shared rows does not affect the unfiltered result set
+        assertEquals(
+                114, countRows(databaseMetaData.getFunctionColumns(null, null, null, "argReturn")));
+        assertEquals(
+                countRows(databaseMetaData.getFunctionColumns(null, null, "%", "%")),
+                countRows(databaseMetaData.getFunctionColumns(null, null, null, null)));
+
+        assertEquals(0, countRows(databaseMetaData.getClientInfoProperties()));
+        assertEquals(4, databaseMetaData.getClientInfoProperties().getMetaData().getColumnCount());
     }
 
     @Test
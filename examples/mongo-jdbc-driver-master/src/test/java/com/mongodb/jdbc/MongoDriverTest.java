@@ -21,8 +21,10 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.mongodb.AuthenticationMechanism;
 import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.mongosql.TranslateCache;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
@@ -36,6 +38,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.logging.Level;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -677,6 +681,186 @@ class MongoDriverTest {
         assertNotNull(c);
     }
 
+    @Test
+    void testTranslateCacheSizeProperty() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        MongoConnection c;
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        // TranslateCacheSize not set uses the default size
+        c = d.getUnvalidatedConnection(basicURL, p);
+        assertEquals(
+                TranslateCache.DEFAULT_MAX_SIZE_MB * 1024L * 1024L,
+                c.getMongosqlTranslate().getTranslateCache().getMaxBytes());
+
+        // Invalid TranslateCacheSize property results in Exception
+        p.setProperty(TRANSLATE_CACHE_SIZE.getPropertyName(), "-1");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the cache size is negative.");
+        p.setProperty(TRANSLATE_CACHE_SIZE.getPropertyName(), "many");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the cache size is not a number.");
+
+        p.setProperty(TRANSLATE_CACHE_SIZE.getPropertyName(), "0");
+        c = d.getUnvalidatedConnection(basicURL, p);
+        assertFalse(c.getMongosqlTranslate().getTranslateCache().isEnabled());
+
+        p.setProperty(TRANSLATE_CACHE_SIZE.getPropertyName(), "10");
+        c = d.getUnvalidatedConnection(basicURL, p);
+        // The size is in megabytes
+        assertEquals(
+                10L * 1024 * 1024, c.getMongosqlTranslate().getTranslateCache().getMaxBytes());
+    }
+
+    @Test
+    void testSchemaCacheProperties() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        MongoConnection c;
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        // Schemas are not cached by default
+        c = d.getUnvalidatedConnection(basicURL, p);
+        assertNull(c.getMongosqlTranslate().getSchemaCache());
+
+        p.setProperty(SCHEMA_CACHE_TTL.getPropertyName(), "-5");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the ttl is negative.");
+
+        // Connections sharing a client share the schema cache
+        p.setProperty(SCHEMA_CACHE_TTL.getPropertyName(), "30");
+        c = d.getUnvalidatedConnection(basicURL, p);
+        MongoConnection c2 = d.getUnvalidatedConnection(basicURL, p);
+        assertNotNull(c.getMongosqlTranslate().getSchemaCache());
+        assertSame(
+                c.getMongosqlTranslate().getSchemaCache(),
+                c2.getMongosqlTranslate().getSchemaCache());
+    }
+
+    @Test
+    void testLogSamplingProperty() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        p.setProperty(LOG_SAMPLING.getPropertyName(), "MongoStatement.executeQuery:10");
+        assertNotNull(d.getUnvalidatedConnection(basicURL, p));
+
+        p.setProperty(LOG_SAMPLING.getPropertyName(), "MongoResultSet:0");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the sampling rate is not positive.");
+
+        p.setProperty(LOG_SAMPLING.getPropertyName(), "MongoResultSet");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the sampling rate is missing.");
+    }
+
+    @Test
+    void testMetadataConcurrencyProperty() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        assertEquals(
+                MongoConnectionProperties.DEFAULT_METADATA_CONCURRENCY,
+                d.getUnvalidatedConnection(basicURL, p).getMetadataConcurrency());
+
+        p.setProperty(METADATA_CONCURRENCY.getPropertyName(), "16");
+        assertEquals(16, d.getUnvalidatedConnection(basicURL, p).getMetadataConcurrency());
+
+        // 0 runs the metadata requests serially, as 1 does
+        p.setProperty(METADATA_CONCURRENCY.getPropertyName(), "0");
+        assertEquals(1, d.getUnvalidatedConnection(basicURL, p).getMetadataConcurrency());
+
+        p.setProperty(METADATA_CONCURRENCY.getPropertyName(), "-1");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the concurrency is negative.");
+    }
+
+    @Test
+    void testMetadataCacheProperties() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        // Disabled by default
+        MongoConnection conn = d.getUnvalidatedConnection(basicURL, p);
+        assertEquals(0, conn.getMetadataCacheTtlMs());
+        assertEquals(MetadataCache.DEFAULT_MAX_SIZE, conn.getMetadataCacheSize());
+
+        p.setProperty(METADATA_CACHE_TTL.getPropertyName(), "30");
+        p.setProperty(METADATA_CACHE_SIZE.getPropertyName(), "10");
+        conn = d.getUnvalidatedConnection(basicURL, p);
+        assertEquals(30000, conn.getMetadataCacheTtlMs());
+        assertEquals(10, conn.getMetadataCacheSize());
+
+        // Connections sharing a client share the cache
+        assertSame(
+                conn.getMetadataCache(),
+                d.getUnvalidatedConnection(basicURL, p).getMetadataCache());
+
+        p.setProperty(METADATA_CACHE_TTL.getPropertyName(), "-1");
+        assertThrows(
+                SQLException.class,
+                () -> d.getUnvalidatedConnection(basicURL, p),
+                "The connection should fail because the time-to-live is negative.");
+    }
+
+    @Test
+    void testJmxMetricsProperty() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        p.setProperty(DATABASE.getPropertyName(), "test");
+        p.setProperty(JMX_METRICS.getPropertyName(), "true");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        MongoConnection conn = d.getUnvalidatedConnection(basicURL, p);
+        ObjectName name = conn.getMetrics().getObjectName(null);
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L, server.getAttribute(name, "OpenConnections"));
+
+        conn.close();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    void testSlowQueryProperties() throws Exception {
+        MongoDriver d = new MongoDriver();
+        Properties p = new Properties();
+        p.setProperty(DATABASE.getPropertyName(), "test");
+
+        // Disabled by default
+        MongoConnection conn = d.getUnvalidatedConnection(basicURL, p);
+        assertNull(conn.getSlowQueryLog());
+        conn.close();
+
+        File logDir = Files.createTempDirectory("slow-queries").toFile();
+        p.setProperty(LOG_DIR.getPropertyName(), logDir.getPath());
+        p.setProperty(SLOW_QUERY_THRESHOLD.getPropertyName(), "500");
+        p.setProperty(SLOW_QUERY_EXPLAIN.getPropertyName(), "true");
+        conn = d.getUnvalidatedConnection(basicURL, p);
+        assertEquals(500, conn.getSlowQueryThresholdMs());
+        assertTrue(conn.getSlowQueryExplain());
+        assertEquals(logDir.getAbsolutePath(), conn.getSlowQueryLog().getDirPath());
+        conn.close();
+
+        p.setProperty(SLOW_QUERY_THRESHOLD.getPropertyName(), "-1");
+        assertThrows(SQLException.class, () -> d.getUnvalidatedConnection(basicURL, p));
+    }
+
     @Test
     void testClientCaching() throws Exception {
         MongoDriver d = new MongoDriver();
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MongoExecutorsTest {
+
+    @Test
+    void testExecutorsCannotBeShutDown() throws Exception {
+        for (ExecutorService executor :
+                new ExecutorService[] {
+                    MongoExecutors.getQueryExecutor(), MongoExecutors.getTaskExecutor()
+                }) {
+            assertThrows(UnsupportedOperationException.class, executor::shutdown);
+            assertThrows(UnsupportedOperationException.class, executor::shutdownNow);
+            assertThrows(
+                    UnsupportedOperationException.class,
+                    () -> executor.awaitTermination(1, TimeUnit.MILLISECONDS));
+            assertFalse(executor.isShutdown());
+            // Tasks still run after a rejected shutdown
+            assertEquals(1, (int) executor.submit(() -> 1).get(10, TimeUnit.SECONDS));
+        }
+    }
+}
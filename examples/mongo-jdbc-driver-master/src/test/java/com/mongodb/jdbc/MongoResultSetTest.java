@@ -21,8 +21,10 @@ import static org.mockito.Mockito.when;
 
 import com.mongodb.client.MongoCursor;
 import java.math.BigDecimal;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -42,8 +44,10 @@ import org.bson.BsonInt32;
 import org.bson.BsonNull;
 import org.bson.BsonString;
 import org.bson.BsonUndefined;
+import org.bson.RawBsonDocument;
 import org.bson.UuidRepresentation;
 import org.bson.codecs.BsonDateTimeCodec;
+import org.bson.codecs.BsonDocumentCodec;
 import org.bson.codecs.Codec;
 import org.bson.codecs.DecoderContext;
 import org.bson.json.JsonReader;
@@ -365,6 +369,159 @@ class MongoResultSetTest extends MongoMock {
                 mongoResultSet.getBytes(BINARY_COL), mongoResultSet.getBytes(BINARY_COL_LABEL));
     }
 
+    @Test
+    void testValuesFollowCurrentRow() throws Exception {
+        BsonDocument firstRow = generateRow();
+        BsonDocument secondRow = generateRow();
+        secondRow.getDocument("foo").put(INT_COL_LABEL, new BsonInt32(42));
+        // A row without the "" datasource
+        secondRow.remove("");
+        MongoResultSet rs =
+                new MongoResultSet(
+                        mongoStatement,
+                        new BsonExplicitCursor(Arrays.asList(firstRow, secondRow)),
+                        schema,
+                        null,
+                        false,
+                        UuidRepresentation.STANDARD);
+
+        assertTrue(rs.next());
+        assertEquals(2, rs.getInt(INT_COL));
+        assertEquals("a", rs.getString(STRING_COL_LABEL));
+
+        assertTrue(rs.next());
+        assertEquals(42, rs.getInt(INT_COL));
+        assertEquals(42, rs.getInt(INT_COL_LABEL));
+        assertNull(rs.getString(STRING_COL));
+        assertTrue(rs.wasNull());
+
+        assertThrows(SQLException.class, () -> rs.getInt(0));
+        assertThrows(SQLException.class, () -> rs.getInt(ARRAY_COL + 1));
+        assertThrows(SQLException.class, () -> rs.getString(BOT_DUP_COL_LABEL));
+    }
+
+    @Test
+    void testScrollInsensitive() throws Exception {
+        List<BsonDocument> rows = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            BsonDocument row = generateRow();
+            row.getDocument("foo").put(INT_COL_LABEL, new BsonInt32(i));
+            rows.add(row);
+        }
+        MongoStatement scrollStatement = new MongoStatement(mongoConnection, "test");
+        scrollStatement.setResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+        MongoResultSet rs =
+                new MongoResultSet(
+                        scrollStatement,
+                        new BsonExplicitCursor(rows),
+                        schema,
+                        null,
+                        false,
+                        UuidRepresentation.STANDARD);
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+
+        assertTrue(rs.isBeforeFirst());
+        assertFalse(rs.previous());
+        assertTrue(rs.next());
+        assertTrue(rs.isFirst());
+        assertEquals(1, rs.getInt(INT_COL));
+        assertTrue(rs.last());
+        assertTrue(rs.isLast());
+        assertEquals(3, rs.getRow());
+        assertEquals(3, rs.getInt(INT_COL));
+        assertTrue(rs.previous());
+        assertEquals(2, rs.getInt(INT_COL));
+        assertEquals("a", rs.getString(STRING_COL_LABEL));
+
+        assertTrue(rs.absolute(-3));
+        assertEquals(1, rs.getInt(INT_COL));
+        assertTrue(rs.relative(2));
+        assertEquals(3, rs.getInt(INT_COL));
+        assertFalse(rs.relative(1));
+        assertTrue(rs.isAfterLast());
+        assertEquals(0, rs.getRow());
+        assertThrows(SQLException.class, () -> rs.getInt(INT_COL));
+        assertFalse(rs.next());
+        assertTrue(rs.previous());
+        assertEquals(3, rs.getInt(INT_COL));
+
+        rs.beforeFirst();
+        assertTrue(rs.isBeforeFirst());
+        assertTrue(rs.first());
+        assertEquals(1, rs.getInt(INT_COL));
+        assertFalse(rs.absolute(4));
+        assertFalse(rs.absolute(0));
+        assertTrue(rs.isBeforeFirst());
+        rs.afterLast();
+        assertTrue(rs.isAfterLast());
+        rs.close();
+
+        // Forward only result sets do not scroll
+        MongoResultSet forwardOnly =
+                new MongoResultSet(
+                        mongoStatement,
+                        new BsonExplicitCursor(rows),
+                        schema,
+                        null,
+                        false,
+                        UuidRepresentation.STANDARD);
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, forwardOnly.getType());
+        assertTrue(forwardOnly.next());
+        assertThrows(SQLFeatureNotSupportedException.class, () -> forwardOnly.previous());
+        assertThrows(SQLFeatureNotSupportedException.class, () -> forwardOnly.absolute(1));
+    }
+
+    @Test
+    void testScrollInsensitiveEmpty() throws Exception {
+        MongoStatement scrollStatement = new MongoStatement(mongoConnection, "test");
+        scrollStatement.setResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE);
+        MongoResultSet rs =
+                new MongoResultSet(
+                        scrollStatement,
+                        new BsonExplicitCursor(new ArrayList<>()),
+                        schema,
+                        null,
+                        false,
+                        UuidRepresentation.STANDARD);
+
+        // Without rows, the result set is neither before the first row nor after the last one
+        assertFalse(rs.isBeforeFirst());
+        assertFalse(rs.next());
+        assertFalse(rs.isAfterLast());
+        assertFalse(rs.first());
+        assertFalse(rs.last());
+        assertEquals(0, rs.getRow());
+    }
+
+    @Test
+    void testRawBsonRowsDecodeLazily() throws Exception {
+        BsonDocument row = generateRow();
+        RawBsonDocument rawRow = new RawBsonDocument(row, new BsonDocumentCodec());
+        MongoResultSet rs =
+                new MongoResultSet(
+                        mongoStatement,
+                        new BsonExplicitCursor(Arrays.asList(rawRow)),
+                        schema,
+                        null,
+                        false,
+                        UuidRepresentation.STANDARD);
+
+        assertTrue(rs.next());
+        // Nothing is decoded until a column is accessed
+        assertTrue(Arrays.stream(rs.currentValues).noneMatch(v -> v instanceof BsonInt32));
+        assertEquals(2, rs.getInt(INT_COL));
+        // The whole row is decoded at once
+        assertEquals(new BsonInt32(2), rs.currentValues[INT_COL - 1]);
+        assertEquals(new BsonString("a"), rs.currentValues[STRING_COL - 1]);
+        assertEquals("a", rs.getString(STRING_COL_LABEL));
+        assertArrayEquals(
+                row.getDocument("").getBinary(BINARY_COL_LABEL).getData(),
+                rs.getBytes(BINARY_COL));
+        rs.getInt(INT_OR_NULL_COL);
+        assertTrue(rs.wasNull());
+        assertFalse(rs.next());
+    }
+
     @Test
     void testGetStringValues() throws Exception {
         // DOUBLE_COL              2.4
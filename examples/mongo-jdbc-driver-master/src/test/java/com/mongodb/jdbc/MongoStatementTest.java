@@ -17,26 +17,60 @@
 package com.mongodb.jdbc;
 
 import static java.sql.Statement.CLOSE_CURRENT_RESULT;
+import static java.sql.Statement.EXECUTE_FAILED;
+import static java.sql.Statement.SUCCESS_NO_INFO;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.jdbc.logging.QueryDiagnostics;
+import com.mongodb.jdbc.logging.SlowQueryLog;
+import com.mongodb.jdbc.metrics.DriverMetrics;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.MockitoAnnotations;
+import org.mockito.internal.util.reflection.FieldSetter;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -153,6 +187,330 @@ class MongoStatementTest extends MongoMock {
         assertTrue(rs.isLast());
     }
 
+    @Test
+    void testExecuteQueryCachesResultSchema() throws Exception {
+        AtomicInteger schemaCnt = new AtomicInteger();
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenAnswer(
+                        invocation -> {
+                            schemaCnt.incrementAndGet();
+                            return generateSchema();
+                        });
+        Field ttl = MongoConnection.class.getDeclaredField("resultSchemaCacheTtlMs");
+        String sql = "select * from foo where a = 1";
+        try {
+            FieldSetter.setField(mongoConnection, ttl, 60_000L);
+            assertEquals(12, mongoStatement.executeQuery(sql).getMetaData().getColumnCount());
+            assertEquals(12, mongoStatement.executeQuery(sql).getMetaData().getColumnCount());
+            assertEquals(1, schemaCnt.get());
+
+            // Without the cache, the schema is fetched for each execution
+            FieldSetter.setField(mongoConnection, ttl, 0L);
+            mongoStatement.executeQuery(sql);
+            assertEquals(2, schemaCnt.get());
+        } finally {
+            FieldSetter.setField(mongoConnection, ttl, 0L);
+            mongoConnection.getResultSchemaCache().clear();
+        }
+    }
+
+    @Test
+    void testExecuteQueryResultSchemaFailure() throws SQLException {
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenThrow(new MongoException("schema failure"));
+
+        try {
+            // The schema is fetched on another thread, its failure is rethrown as is
+            MongoException e =
+                    assertThrows(
+                            MongoException.class, () -> mongoStatement.executeQuery("select 1"));
+            assertEquals("schema failure", e.getMessage());
+            assertNull(mongoStatement.getResultSet());
+        } finally {
+            // The mocks are shared by the tests
+            when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                    .thenReturn(generateSchema());
+        }
+    }
+
+    @Test
+    void testExecuteQueryMetrics() throws SQLException {
+        AtomicInteger rowCnt = new AtomicInteger();
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenAnswer(invocation -> rowCnt.get() < 2);
+        when(mongoCursor.next())
+                .thenAnswer(
+                        invocation -> {
+                            rowCnt.incrementAndGet();
+                            return generateRow();
+                        });
+        // The metrics of the connection are shared by the tests, only check their changes
+        DriverMetrics metrics = mongoConnection.getMetrics();
+        long queries = metrics.getQueryCount();
+        long rows = metrics.getRowsFetched();
+        long openResultSets = metrics.getOpenResultSets();
+        long fullFetches = metrics.getLatency(DriverMetrics.Phase.FULL_FETCH).getCount();
+
+        ResultSet rs = mongoStatement.executeQuery("select * from foo");
+        assertEquals(queries + 1, metrics.getQueryCount());
+        assertEquals(openResultSets + 1, metrics.getOpenResultSets());
+        while (rs.next()) {}
+        assertEquals(rows + 2, metrics.getRowsFetched());
+        assertEquals(
+                fullFetches + 1, metrics.getLatency(DriverMetrics.Phase.FULL_FETCH).getCount());
+
+        rs.close();
+        assertEquals(openResultSets, metrics.getOpenResultSets());
+        // The rows are only counted once
+        assertEquals(rows + 2, metrics.getRowsFetched());
+    }
+
+    @Test
+    void testExecuteQueryDiagnostics() throws SQLException {
+        AtomicInteger rowCnt = new AtomicInteger();
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenAnswer(invocation -> rowCnt.get() < 2);
+        when(mongoCursor.next())
+                .thenAnswer(
+                        invocation -> {
+                            rowCnt.incrementAndGet();
+                            return generateRow();
+                        });
+        // Each call to hasNext() has to wait for a batch until the cursor is exhausted
+        when(mongoCursor.getServerCursor())
+                .thenAnswer(
+                        invocation ->
+                                (rowCnt.get() < 2)
+                                        ? new ServerCursor(42L, new ServerAddress())
+                                        : null);
+        try {
+            assertTrue(mongoStatement.isWrapperFor(QueryDiagnostics.class));
+            ResultSet rs = mongoStatement.executeQuery("select * from foo");
+            QueryDiagnostics diagnostics = mongoStatement.unwrap(QueryDiagnostics.class);
+            assertSame(diagnostics, rs.unwrap(QueryDiagnostics.class));
+            assertSame(rs, rs.unwrap(ResultSet.class));
+            assertEquals("select * from foo", diagnostics.getSqlQuery());
+            assertTrue(diagnostics.getPhaseNanos().containsKey(QueryDiagnostics.AGGREGATE));
+            assertTrue(
+                    diagnostics
+                            .getPhaseNanos()
+                            .containsKey(QueryDiagnostics.SQL_GET_RESULT_SCHEMA));
+            assertTrue(diagnostics.getPhaseNanos().containsKey(QueryDiagnostics.EXECUTE));
+
+            while (rs.next()) {}
+            assertEquals(2, diagnostics.getRowsFetched());
+            assertEquals(2, diagnostics.getGetMoreCount());
+            assertEquals(2, diagnostics.getGetMoreNanos().size());
+            rs.close();
+
+            // The next query has its own diagnostics, those of the first result set are kept
+            rowCnt.set(2);
+            ResultSet next = mongoStatement.executeQuery("select * from foo");
+            QueryDiagnostics nextDiagnostics = mongoStatement.unwrap(QueryDiagnostics.class);
+            assertNotSame(diagnostics, nextDiagnostics);
+            assertSame(nextDiagnostics, next.unwrap(QueryDiagnostics.class));
+            next.close();
+            assertEquals(0, nextDiagnostics.getRowsFetched());
+            assertEquals(0, nextDiagnostics.getGetMoreCount());
+            assertEquals(2, rs.unwrap(QueryDiagnostics.class).getRowsFetched());
+            assertEquals(2, diagnostics.getGetMoreCount());
+        } finally {
+            when(mongoCursor.getServerCursor()).thenReturn(null);
+        }
+    }
+
+    @Test
+    void testSlowQueryLog() throws Exception {
+        AtomicInteger rowCnt = new AtomicInteger();
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext())
+                .thenAnswer(
+                        invocation -> {
+                            // Slower than the threshold
+                            Thread.sleep(2);
+                            return rowCnt.get() < 2;
+                        });
+        when(mongoCursor.next())
+                .thenAnswer(
+                        invocation -> {
+                            rowCnt.incrementAndGet();
+                            return generateRow();
+                        });
+        CountDownLatch explaining = new CountDownLatch(1);
+        when(mongoDatabase.runCommand(
+                        argThat(cmd -> cmd != null && ((BsonDocument) cmd).containsKey("explain")),
+                        eq(BsonDocument.class)))
+                .thenAnswer(
+                        invocation -> {
+                            explaining.await(10, TimeUnit.SECONDS);
+                            return new BsonDocument("queryPlanner", new BsonDocument());
+                        });
+        File logDir = Files.createTempDirectory("slow-queries").toFile();
+        Path logFile = new File(logDir, "slow-queries.0.log").toPath();
+        Field threshold = MongoConnection.class.getDeclaredField("slowQueryThresholdMs");
+        Field explain = MongoConnection.class.getDeclaredField("slowQueryExplain");
+        Field log = MongoConnection.class.getDeclaredField("slowQueryLog");
+        SlowQueryLog slowQueryLog = SlowQueryLog.open(logDir);
+        try {
+            FieldSetter.setField(mongoConnection, threshold, 1L);
+            FieldSetter.setField(mongoConnection, log, slowQueryLog);
+            ResultSet rs = mongoStatement.executeQuery("select * from foo");
+            while (rs.next()) {}
+            // The query is logged once its result set is closed
+            assertEquals(0, Files.size(logFile));
+            rs.close();
+            List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+            assertEquals(1, lines.size());
+            BsonDocument record = BsonDocument.parse(lines.get(0));
+            assertEquals("select * from foo", record.getString("sql").getValue());
+            assertEquals(2, record.getNumber("rows").longValue());
+            assertEquals(1, record.getArray("pipeline").size());
+            assertTrue(record.getDocument("phaseNanos").containsKey(QueryDiagnostics.EXECUTE));
+            assertFalse(record.containsKey("explain"));
+
+            // A result set left open is logged when its statement is closed
+            MongoStatement statement = new MongoStatement(mongoConnection, database);
+            rowCnt.set(1);
+            statement.executeQuery("select * from bar").next();
+            statement.close();
+            lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+            assertEquals(2, lines.size());
+            record = BsonDocument.parse(lines.get(1));
+            assertEquals("select * from bar", record.getString("sql").getValue());
+            assertEquals(1, record.getNumber("rows").longValue());
+
+            // The explain runs in the background, the record is written once it is done, even if
+            // the log was closed in the meantime
+            FieldSetter.setField(mongoConnection, explain, true);
+            rowCnt.set(0);
+            mongoStatement.executeQuery("select * from foo").close();
+            slowQueryLog.close();
+            explaining.countDown();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (Files.readAllLines(logFile, StandardCharsets.UTF_8).size() < 3
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+            assertEquals(3, lines.size());
+            assertTrue(BsonDocument.parse(lines.get(2)).containsKey("explain"));
+        } finally {
+            FieldSetter.setField(mongoConnection, threshold, 0L);
+            FieldSetter.setField(mongoConnection, explain, false);
+            FieldSetter.setField(mongoConnection, log, null);
+            slowQueryLog.close();
+        }
+    }
+
+    @Test
+    void testExecuteQueryAsync() throws Exception {
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenReturn(true);
+        when(mongoCursor.next()).thenReturn(generateRow());
+
+        CompletableFuture<ResultSet> future = mongoStatement.executeQueryAsync("select * from foo");
+        ResultSet rs = future.get(10, TimeUnit.SECONDS);
+        assertTrue(rs.next());
+        assertEquals(1, rs.getInt(1));
+
+        // The query runs on the given executor
+        rs = mongoStatement.executeQueryAsync("select * from foo", Runnable::run).getNow(null);
+        assertTrue(rs.next());
+
+        // Errors complete the future exceptionally
+        mongoStatement.close();
+        ExecutionException e =
+                assertThrows(
+                        ExecutionException.class,
+                        () -> mongoStatement.executeQueryAsync("select * from foo").get());
+        assertTrue(e.getCause() instanceof SQLException);
+    }
+
+    @Test
+    void testExecuteBatch() throws SQLException {
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenReturn(true);
+        when(mongoCursor.next()).thenReturn(generateRow());
+
+        mongoStatement.addBatch("select * from foo");
+        mongoStatement.addBatch("select * from bar");
+        assertArrayEquals(
+                new int[] {SUCCESS_NO_INFO, SUCCESS_NO_INFO}, mongoStatement.executeBatch());
+
+        // The results are retrieved in submission order
+        ResultSet first = mongoStatement.getResultSet();
+        assertEquals(mongoStatement, first.getStatement());
+        assertTrue(first.next());
+        assertTrue(mongoStatement.getMoreResults());
+        assertTrue(first.isClosed());
+        ResultSet second = mongoStatement.getResultSet();
+        assertTrue(second.next());
+        assertFalse(mongoStatement.getMoreResults());
+        assertTrue(second.isClosed());
+        assertNull(mongoStatement.getResultSet());
+
+        // The batch is cleared once executed
+        assertEquals(0, mongoStatement.executeBatch().length);
+
+        // Cancelling the statement cancels every result set of the batch
+        mongoStatement.addBatch("select * from foo");
+        mongoStatement.addBatch("select * from bar");
+        mongoStatement.executeBatch();
+        mongoStatement.cancel();
+        SQLException cancelled =
+                assertThrows(SQLException.class, () -> mongoStatement.getResultSet().next());
+        assertEquals(MongoStatement.SQLSTATE_CANCELLED, cancelled.getSQLState());
+        assertTrue(mongoStatement.getMoreResults());
+        assertThrows(SQLException.class, () -> mongoStatement.getResultSet().next());
+        assertFalse(mongoStatement.getMoreResults());
+
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenThrow(new MongoException("schema error"));
+        mongoStatement.addBatch("select * from foo");
+        BatchUpdateException e =
+                assertThrows(BatchUpdateException.class, () -> mongoStatement.executeBatch());
+        assertArrayEquals(new int[] {EXECUTE_FAILED}, e.getUpdateCounts());
+
+        testExceptionAfterConnectionClosed(() -> mongoStatement.addBatch("select * from foo"));
+    }
+
+    @Test
+    void testExecuteBatchFromQueryThreads() throws Exception {
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenReturn(true);
+        when(mongoCursor.next()).thenReturn(generateRow());
+
+        // Every query thread runs a batch larger than the executor, none of them can wait for
+        // queries queued on the executor
+        int threads = MongoExecutors.getQueryThreadCount();
+        List<CompletableFuture<int[]>> batches = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            MongoStatement statement = new MongoStatement(mongoConnection, database);
+            for (int j = 0; j <= threads; j++) {
+                statement.addBatch("select * from foo");
+            }
+            batches.add(
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return statement.executeBatch();
+                                } catch (SQLException e) {
+                                    throw new CompletionException(e);
+                                }
+                            },
+                            MongoExecutors.getQueryExecutor()));
+        }
+        for (CompletableFuture<int[]> batch : batches) {
+            assertEquals(threads + 1, batch.get(30, TimeUnit.SECONDS).length);
+        }
+    }
+
     @Test
     void testCloseForEmptyStatement() throws SQLException {
         assertFalse(mongoStatement.isClosed());
@@ -202,6 +560,43 @@ class MongoStatementTest extends MongoMock {
         assertTrue(mongoStatement.isClosed());
     }
 
+    @Test
+    void testCancel() throws SQLException {
+        when(mongoCursor.hasNext()).thenReturn(true);
+        when(mongoCursor.next()).thenReturn(generateRow());
+        when(mongoCursor.getServerCursor()).thenReturn(new ServerCursor(42L, new ServerAddress()));
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+
+        // Nothing to cancel yet
+        testNoop(() -> mongoStatement.cancel());
+
+        ResultSet rs = mongoStatement.executeQuery("select * from foo");
+        assertTrue(rs.next());
+        mongoStatement.cancel();
+        verify(mongoDatabase)
+                .runCommand(
+                        argThat(
+                                cmd ->
+                                        cmd != null
+                                                && ((BsonDocument) cmd).containsKey("killCursors")
+                                                && ((BsonDocument) cmd)
+                                                        .getArray("cursors")
+                                                        .contains(new BsonInt64(42L))),
+                        eq(BsonDocument.class));
+
+        SQLException e = assertThrows(SQLException.class, rs::next);
+        assertEquals("HY008", e.getSQLState());
+        assertTrue(rs.isClosed());
+        assertFalse(mongoStatement.isClosed());
+
+        // The next query is not affected by the previous cancellation
+        rs = mongoStatement.executeQuery("select * from foo");
+        assertTrue(rs.next());
+
+        testExceptionAfterConnectionClosed(() -> mongoStatement.cancel());
+    }
+
     @Test
     void testGetMaxFieldSize() throws SQLException {
         assertEquals(0, mongoStatement.getMaxFieldSize());
@@ -221,9 +616,74 @@ class MongoStatementTest extends MongoMock {
 
     @Test
     void testSetMaxRows() throws SQLException {
+        mongoStatement.setMaxRows(10);
+        assertEquals(10, mongoStatement.getMaxRows());
+        assertEquals(10, mongoStatement.getLargeMaxRows());
+        assertThrows(SQLException.class, () -> mongoStatement.setMaxRows(-1));
         testNoop(() -> mongoStatement.setMaxRows(0));
     }
 
+    @Test
+    void testExecuteQueryMaxRows() throws SQLException {
+        AtomicInteger rowCnt = new AtomicInteger();
+        when(mongoDatabase.runCommand(any(), eq(MongoJsonSchemaResult.class)))
+                .thenReturn(generateSchema());
+        when(mongoCursor.hasNext()).thenAnswer(invocation -> rowCnt.get() < 5);
+        when(mongoCursor.next())
+                .thenAnswer(
+                        invocation -> {
+                            rowCnt.incrementAndGet();
+                            return generateRow();
+                        });
+
+        mongoStatement.setMaxRows(2);
+        ResultSet rs = mongoStatement.executeQuery("select * from foo");
+
+        // The server is asked for the rows with a $limit stage after the $sql stage
+        verify(mongoDatabase)
+                .aggregate(
+                        argThat(
+                                pipeline ->
+                                        pipeline.size() == 2
+                                                && ((BsonDocument) pipeline.get(0))
+                                                        .containsKey("$sql")
+                                                && ((BsonDocument) pipeline.get(1))
+                                                        .equals(
+                                                                new BsonDocument(
+                                                                        "$limit",
+                                                                        new BsonInt64(2)))),
+                        eq(BsonDocument.class));
+
+        // The result set stops at the limit even when the cursor has more rows
+        assertTrue(rs.next());
+        assertFalse(rs.isLast());
+        assertTrue(rs.next());
+        assertTrue(rs.isLast());
+        assertFalse(rs.next());
+        assertEquals(2, rowCnt.get());
+    }
+
+    @Test
+    void testLimitPipeline() {
+        BsonDocument match = new BsonDocument("$match", new BsonDocument());
+        List<BsonDocument> pipeline = Collections.singletonList(match);
+
+        assertSame(pipeline, MongoStatement.limitPipeline(pipeline, 0));
+        assertEquals(
+                Arrays.asList(match, new BsonDocument("$limit", new BsonInt64(5))),
+                MongoStatement.limitPipeline(pipeline, 5));
+        assertEquals(1, pipeline.size());
+
+        // A trailing $limit is lowered, never raised
+        List<BsonDocument> limited =
+                Arrays.asList(match, new BsonDocument("$limit", new BsonInt32(10)));
+        assertEquals(
+                Arrays.asList(match, new BsonDocument("$limit", new BsonInt64(5))),
+                MongoStatement.limitPipeline(limited, 5));
+        assertEquals(new BsonDocument("$limit", new BsonInt32(10)), limited.get(1));
+        assertSame(limited, MongoStatement.limitPipeline(limited, 20));
+    }
+
     @Test
     void testSetEscapeProcessing() throws SQLException {
         testNoop(() -> mongoStatement.setEscapeProcessing(true));
@@ -301,6 +761,17 @@ class MongoStatementTest extends MongoMock {
     @Test
     void testGetResultSetType() throws SQLException {
         assertEquals(ResultSet.TYPE_FORWARD_ONLY, mongoStatement.getResultSetType());
+
+        Statement scrollable =
+                mongoConnection.createStatement(
+                        ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, scrollable.getResultSetType());
+        assertThrows(
+                SQLFeatureNotSupportedException.class,
+                () ->
+                        mongoConnection.createStatement(
+                                ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY));
+
         testExceptionAfterConnectionClosed(() -> mongoStatement.getResultSetType());
     }
 
@@ -366,6 +837,10 @@ class MongoStatementTest extends MongoMock {
     @Test
     void testGetLargeMaxRows() throws SQLException {
         assertEquals(0, mongoStatement.getLargeMaxRows());
+        mongoStatement.setLargeMaxRows(Integer.MAX_VALUE + 1L);
+        assertEquals(Integer.MAX_VALUE + 1L, mongoStatement.getLargeMaxRows());
+        assertEquals(Integer.MAX_VALUE, mongoStatement.getMaxRows());
+        assertThrows(SQLException.class, () -> mongoStatement.setLargeMaxRows(-1));
         testExceptionAfterConnectionClosed(() -> mongoStatement.getLargeMaxRows());
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import org.bson.BsonBoolean;
+import org.bson.BsonDateTime;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+class ParameterizedSqlTest {
+    @Test
+    void testParameterMarkers() {
+        assertEquals(0, ParameterizedSql.parse("SELECT * FROM foo").getParameterCount());
+        assertEquals(
+                2,
+                ParameterizedSql.parse("SELECT * FROM foo WHERE a = ? AND b > ?")
+                        .getParameterCount());
+        // Quoted strings, quoted identifiers and comments are skipped
+        assertEquals(
+                1,
+                ParameterizedSql.parse(
+                                "SELECT \"a?\", `b?` FROM foo -- c?\n"
+                                        + "WHERE d = 'it''s?' /* e? */ AND f = ?")
+                        .getParameterCount());
+    }
+
+    @Test
+    void testInline() throws SQLException {
+        ParameterizedSql sql =
+                ParameterizedSql.parse("SELECT * FROM foo WHERE a = ? AND b = '?' AND c = ?");
+        assertEquals(
+                "SELECT * FROM foo WHERE a = 'O''Brien' AND b = '?' AND c = 42",
+                sql.inline(new BsonValue[] {new BsonString("O'Brien"), new BsonInt32(42)}));
+    }
+
+    @Test
+    void testSqlLiterals() throws SQLException {
+        assertEquals("NULL", ParameterizedSql.toSqlLiteral(BsonNull.VALUE));
+        assertEquals("TRUE", ParameterizedSql.toSqlLiteral(BsonBoolean.TRUE));
+        assertEquals("-7", ParameterizedSql.toSqlLiteral(new BsonInt32(-7)));
+        assertEquals("10000000000", ParameterizedSql.toSqlLiteral(new BsonInt64(10000000000L)));
+        assertEquals("1.5", ParameterizedSql.toSqlLiteral(new BsonDouble(1.5)));
+        assertEquals(
+                "CAST('1.25' AS DECIMAL)",
+                ParameterizedSql.toSqlLiteral(
+                        new BsonDecimal128(new Decimal128(new BigDecimal("1.25")))));
+        assertEquals(
+                "CAST('1970-01-01T00:00:01Z' AS TIMESTAMP)",
+                ParameterizedSql.toSqlLiteral(new BsonDateTime(1000)));
+        assertThrows(
+                SQLException.class,
+                () -> ParameterizedSql.toSqlLiteral(new BsonDouble(Double.NaN)));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.mongodb.jdbc.mongosql.CatalogFingerprint;
+import com.mongodb.jdbc.mongosql.TranslateResult;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+class PipelineTemplateTest {
+    private static BsonDocument literal(BsonValue value) {
+        return new BsonDocument("$literal", value);
+    }
+
+    private static BsonDocument match(BsonValue a, BsonValue b) {
+        return new BsonDocument(
+                "$match",
+                new BsonDocument(
+                        "$expr",
+                        new BsonDocument(
+                                "$and",
+                                new BsonArray(
+                                        Arrays.asList(
+                                                new BsonDocument(
+                                                        "$eq",
+                                                        new BsonArray(
+                                                                Arrays.asList(
+                                                                        new BsonString("$foo.a"),
+                                                                        a))),
+                                                new BsonDocument(
+                                                        "$gt",
+                                                        new BsonArray(
+                                                                Arrays.asList(
+                                                                        new BsonString("$foo.b"),
+                                                                        b))))))));
+    }
+
+    private static TranslateResult translation(List<BsonDocument> pipeline) {
+        return new TranslateResult("test", "foo", pipeline, null, null);
+    }
+
+    private static CatalogFingerprint catalog(String collection) throws Exception {
+        return CatalogFingerprint.of(
+                new BsonDocument("test", new BsonDocument(collection, new BsonDocument())));
+    }
+
+    private static PipelineTemplate.Translation translate(
+            BsonValue[] sentinels, BsonDocument stage) throws Exception {
+        PipelineTemplate template = PipelineTemplate.create("select", sentinels);
+        assertNotNull(template);
+        return template.setTranslation(
+                translation(Collections.singletonList(stage)), catalog("foo"));
+    }
+
+    @Test
+    void testBind() throws Exception {
+        BsonValue[] values = {new BsonString("x"), new BsonInt32(1)};
+        BsonValue[] sentinels = PipelineTemplate.sentinels(values);
+        assertNotNull(sentinels);
+        assertEquals(values[0].getBsonType(), sentinels[0].getBsonType());
+        assertEquals(values[1].getBsonType(), sentinels[1].getBsonType());
+
+        PipelineTemplate template = PipelineTemplate.create("select", sentinels);
+        assertNotNull(template);
+        assertNull(template.getTranslation(catalog("foo")));
+        PipelineTemplate.Translation translation =
+                template.setTranslation(
+                        translation(
+                                Collections.singletonList(
+                                        match(literal(sentinels[0]), literal(sentinels[1])))),
+                        catalog("foo"));
+        TranslateResult result = translation.getResult();
+        assertNotNull(result);
+        assertEquals(
+                Collections.singletonList(
+                        match(literal(new BsonString("y")), literal(new BsonInt32(2)))),
+                template.bind(result, new BsonValue[] {new BsonString("y"), new BsonInt32(2)}));
+        // Binding does not modify the template
+        assertEquals(
+                Collections.singletonList(
+                        match(literal(new BsonString("z")), literal(new BsonInt32(3)))),
+                template.bind(result, new BsonValue[] {new BsonString("z"), new BsonInt32(3)}));
+
+        // The translation is only reused with the same catalog
+        assertSame(translation, template.getTranslation(catalog("foo")));
+        assertNull(template.getTranslation(catalog("bar")));
+    }
+
+    @Test
+    void testBindDollarString() throws Exception {
+        BsonValue[] sentinels =
+                PipelineTemplate.sentinels(new BsonValue[] {new BsonString("x"), new BsonInt32(1)});
+        PipelineTemplate template = PipelineTemplate.create("select", sentinels);
+        TranslateResult result =
+                template.setTranslation(
+                                translation(
+                                        Collections.singletonList(
+                                                match(
+                                                        literal(sentinels[0]),
+                                                        literal(sentinels[1])))),
+                                catalog("foo"))
+                        .getResult();
+        assertNotNull(result);
+
+        // Strings looking like field paths or variables are bound as literals, not as expressions
+        for (String value : Arrays.asList("$password", "$$ROOT")) {
+            assertEquals(
+                    Collections.singletonList(
+                            match(literal(new BsonString(value)), literal(new BsonInt32(2)))),
+                    template.bind(
+                            result, new BsonValue[] {new BsonString(value), new BsonInt32(2)}));
+        }
+    }
+
+    @Test
+    void testNoTemplate() throws Exception {
+        // Booleans have no sentinel
+        assertNull(PipelineTemplate.sentinels(new BsonValue[] {BsonBoolean.TRUE}));
+
+        BsonValue[] sentinels =
+                PipelineTemplate.sentinels(
+                        new BsonValue[] {new BsonString("x"), new BsonInt32(1)});
+        // A sentinel is missing from the pipeline
+        assertNull(
+                translate(sentinels, match(literal(new BsonString("x")), literal(sentinels[1])))
+                        .getResult());
+        // A sentinel was rewritten
+        assertNull(
+                translate(
+                                sentinels,
+                                match(
+                                        literal(
+                                                new BsonString(
+                                                        "^" + sentinels[0].asString().getValue())),
+                                        literal(sentinels[1])))
+                        .getResult());
+        // A sentinel is not the operand of a $literal, its value could be read as a field path
+        assertNull(translate(sentinels, match(sentinels[0], literal(sentinels[1]))).getResult());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+    private static List<BsonDocument> generateRows(int count) {
+        List<BsonDocument> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(
+                    new RawBsonDocument(
+                            new BsonDocument("i", new BsonInt32(i)), new BsonDocumentCodec()));
+        }
+        return rows;
+    }
+
+    @Test
+    void testReturnsAllRowsInOrder() {
+        List<BsonDocument> rows = generateRows(100);
+        // A memory cap smaller than a row still reads one row at a time.
+        PrefetchingCursor<BsonDocument> cursor =
+                new PrefetchingCursor<>(new BsonExplicitCursor(rows), 4, 1);
+
+        for (int i = 0; i < rows.size(); i++) {
+            assertTrue(cursor.hasNext());
+            assertEquals(i, cursor.next().getInt32("i").getValue());
+        }
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+        cursor.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPropagatesErrors() {
+        MongoCursor<BsonDocument> failing = mock(MongoCursor.class);
+        when(failing.hasNext()).thenReturn(true);
+        when(failing.next())
+                .thenReturn(new BsonDocument("i", new BsonInt32(0)))
+                .thenThrow(new MongoException("getMore failed"));
+
+        PrefetchingCursor<BsonDocument> cursor = new PrefetchingCursor<>(failing, 10, 1024);
+        assertTrue(cursor.hasNext());
+        cursor.next();
+        assertThrows(MongoException.class, cursor::hasNext);
+        verify(failing, timeout(1000)).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCloseStopsPrefetching() {
+        MongoCursor<BsonDocument> endless = mock(MongoCursor.class);
+        when(endless.hasNext()).thenReturn(true);
+        when(endless.next()).thenReturn(new BsonDocument("i", new BsonInt32(0)));
+
+        PrefetchingCursor<BsonDocument> cursor = new PrefetchingCursor<>(endless, 2, 1024);
+        assertTrue(cursor.hasNext());
+        cursor.close();
+        assertFalse(cursor.hasNext());
+        verify(endless, timeout(1000)).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEarlyCloseKillsCursor() {
+        MongoCursor<BsonDocument> endless = mock(MongoCursor.class);
+        when(endless.hasNext()).thenReturn(true);
+        when(endless.next()).thenReturn(new BsonDocument("i", new BsonInt32(0)));
+        AtomicReference<Thread> closingThread = new AtomicReference<>();
+        AtomicBoolean interruptedOnClose = new AtomicBoolean();
+        doAnswer(
+                        i -> {
+                            closingThread.set(Thread.currentThread());
+                            interruptedOnClose.set(Thread.currentThread().isInterrupted());
+                            return null;
+                        })
+                .when(endless)
+                .close();
+
+        PrefetchingCursor<BsonDocument> cursor = new PrefetchingCursor<>(endless, 2, 1024);
+        assertTrue(cursor.hasNext());
+        // Even from an interrupted thread, the cursor is killed once the producer has stopped
+        Thread.currentThread().interrupt();
+        cursor.close();
+        assertTrue(Thread.interrupted());
+
+        verify(endless).close();
+        assertSame(Thread.currentThread(), closingThread.get());
+        assertFalse(interruptedOnClose.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCloseFromAnotherThread() throws Exception {
+        MongoCursor<BsonDocument> slow = mock(MongoCursor.class);
+        CountDownLatch inGetMore = new CountDownLatch(1);
+        CountDownLatch getMoreDone = new CountDownLatch(1);
+        when(slow.hasNext())
+                .thenAnswer(
+                        i -> {
+                            inGetMore.countDown();
+                            getMoreDone.await(10, TimeUnit.SECONDS);
+                            return true;
+                        });
+        when(slow.next()).thenReturn(new BsonDocument("i", new BsonInt32(0)));
+
+        PrefetchingCursor<BsonDocument> cursor = new PrefetchingCursor<>(slow, 2, 1024);
+        AtomicReference<Throwable> readerError = new AtomicReference<>();
+        Thread reader =
+                new Thread(
+                        () -> {
+                            try {
+                                while (cursor.hasNext()) {
+                                    cursor.next();
+                                }
+                            } catch (Throwable t) {
+                                readerError.set(t);
+                            }
+                        });
+        reader.start();
+        assertTrue(inGetMore.await(10, TimeUnit.SECONDS));
+        while (reader.getState() != Thread.State.WAITING && reader.isAlive()) {
+            Thread.sleep(1);
+        }
+
+        // The closing thread waits for the getMore, the reader then sees the end of the cursor
+        Thread closer = new Thread(cursor::close);
+        closer.start();
+        getMoreDone.countDown();
+        closer.join(10_000);
+        reader.join(10_000);
+        assertFalse(closer.isAlive());
+        assertFalse(reader.isAlive());
+        assertNull(readerError.get());
+        verify(slow).close();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class ResultSchemaCacheTest {
+    private static final long TTL_MS = 60_000;
+
+    @Test
+    void testGetAndPut() {
+        ResultSchemaCache cache = new ResultSchemaCache(10);
+        MongoJsonSchemaResult result = new MongoJsonSchemaResult();
+        assertNull(cache.get("db", "select 1", TTL_MS));
+
+        cache.put("db", "select 1", result);
+        assertSame(result, cache.get("db", "select 1", TTL_MS));
+
+        // The same query against another database is a different entry
+        assertNull(cache.get("other", "select 1", TTL_MS));
+        assertNull(cache.get("db", "select 2", TTL_MS));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void testExpiry() throws Exception {
+        ResultSchemaCache cache = new ResultSchemaCache(10);
+        cache.put("db", "select 1", new MongoJsonSchemaResult());
+        Thread.sleep(20);
+
+        // The time-to-live is the caller's, the same entry can be fresh for one and not another
+        assertNull(cache.get("db", "select 1", 5));
+        assertNotNull(cache.get("db", "select 1", TTL_MS));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        ResultSchemaCache cache = new ResultSchemaCache(2);
+        cache.put("db", "a", new MongoJsonSchemaResult());
+        cache.put("db", "b", new MongoJsonSchemaResult());
+        // Reading a makes b the least recently used entry
+        assertNotNull(cache.get("db", "a", TTL_MS));
+        cache.put("db", "c", new MongoJsonSchemaResult());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get("db", "a", TTL_MS));
+        assertNull(cache.get("db", "b", TTL_MS));
+        assertNotNull(cache.get("db", "c", TTL_MS));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.Test;
+
+class ScrollableRowBufferTest {
+    private static BsonDocument row(int i) {
+        return new BsonDocument("", new BsonDocument("i", new BsonInt32(i)))
+                .append("foo", new BsonDocument("s", new BsonString("value " + i)));
+    }
+
+    @Test
+    void testInMemory() throws Exception {
+        ScrollableRowBuffer buffer = new ScrollableRowBuffer(1024 * 1024, 1024);
+        for (int i = 0; i < 100; i++) {
+            buffer.add(row(i));
+        }
+        // Raw rows are copied as is
+        buffer.add(new RawBsonDocument(row(100), new BsonDocumentCodec()));
+
+        assertEquals(101, buffer.size());
+        assertFalse(buffer.isSpilled());
+        for (int i = 100; i >= 0; i--) {
+            assertEquals(row(i), buffer.get(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(101));
+        buffer.close();
+    }
+
+    @Test
+    void testSpillToFile() throws Exception {
+        // Two segments of memory, then the rows go to the file
+        ScrollableRowBuffer buffer = new ScrollableRowBuffer(512, 256);
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(row(i));
+        }
+        assertTrue(buffer.isSpilled());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(row(i), buffer.get(i));
+        }
+        // Rows still waiting to be written to the file can be read back
+        buffer.add(row(1000));
+        assertEquals(row(1000), buffer.get(1000));
+        buffer.close();
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.isSpilled());
+    }
+
+    @Test
+    void testRowLargerThanSegment() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            large.append("abcdefghij");
+        }
+        BsonDocument largeRow =
+                new BsonDocument("", new BsonDocument("s", new BsonString(large.toString())));
+
+        ScrollableRowBuffer buffer = new ScrollableRowBuffer(0, 256);
+        buffer.add(row(0));
+        buffer.add(largeRow);
+        buffer.add(row(1));
+
+        assertEquals(row(0), buffer.get(0));
+        assertEquals(largeRow, buffer.get(1));
+        assertEquals(row(1), buffer.get(2));
+        buffer.close();
+    }
+}
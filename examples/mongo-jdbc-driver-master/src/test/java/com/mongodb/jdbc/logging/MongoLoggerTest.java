@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+class MongoLoggerTest {
+    private static class RecordingHandler extends Handler {
+        final List<LogRecord> records = new ArrayList<>();
+
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    @Test
+    void testLogSampling() {
+        assertNull(LogSampling.parse(null));
+        assertNull(LogSampling.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> LogSampling.parse("Foo:bar"));
+        assertThrows(IllegalArgumentException.class, () -> LogSampling.parse(":2"));
+
+        LogSampling sampling = LogSampling.parse("Foo:3, Foo.bar:2");
+        int logged = 0;
+        for (int i = 0; i < 9; i++) {
+            logged += sampling.sample("Foo", "baz") ? 1 : 0;
+        }
+        assertEquals(3, logged);
+
+        // The method rate takes precedence over the class rate
+        assertTrue(sampling.sample("Foo", "bar"));
+        assertFalse(sampling.sample("Foo", "bar"));
+        assertTrue(sampling.sample("Foo", "bar"));
+
+        // Other classes are not sampled
+        assertTrue(sampling.sample("Qux", "bar"));
+        assertTrue(sampling.sample("Qux", "bar"));
+    }
+
+    @Test
+    void testLazyLogging() {
+        Logger parent = Logger.getLogger("MongoLoggerTest.testLazyLogging");
+        parent.setUseParentHandlers(false);
+        parent.setLevel(Level.FINE);
+        RecordingHandler handler = new RecordingHandler();
+        parent.addHandler(handler);
+
+        MongoLogger connectionLogger = new MongoLogger(parent, 7);
+        MongoLogger logger = new MongoLogger("com.mongodb.jdbc.Foo", connectionLogger, 3);
+        AtomicInteger built = new AtomicInteger();
+
+        // Disabled levels never build the message
+        assertFalse(logger.isLoggable(Level.FINER));
+        logger.logp(Level.FINER, "bar", () -> "msg" + built.incrementAndGet());
+        logger.log(Level.FINEST, () -> "msg" + built.incrementAndGet());
+        assertEquals(0, built.get());
+        assertTrue(handler.records.isEmpty());
+
+        assertTrue(logger.isLoggable(Level.FINE));
+        logger.logp(Level.FINE, "bar", () -> "msg" + built.incrementAndGet());
+        assertEquals(1, built.get());
+        assertEquals(1, handler.records.size());
+        LogRecord record = handler.records.get(0);
+        assertEquals("msg1", record.getMessage());
+        assertEquals("[c-7] [stmt-3] com.mongodb.jdbc.Foo", record.getSourceClassName());
+        assertEquals("bar", record.getSourceMethodName());
+
+        // The supplier variant resolves the caller from the stack
+        logger.log(Level.FINE, () -> "msg" + built.incrementAndGet());
+        record = handler.records.get(1);
+        assertEquals("msg2", record.getMessage());
+        assertEquals("[c-7] [stmt-3] " + getClass().getName(), record.getSourceClassName());
+        assertEquals("testLazyLogging", record.getSourceMethodName());
+    }
+}
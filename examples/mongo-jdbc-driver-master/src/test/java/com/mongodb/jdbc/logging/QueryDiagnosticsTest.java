@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class QueryDiagnosticsTest {
+    @Test
+    void testPhases() {
+        QueryDiagnostics diagnostics = new QueryDiagnostics();
+        diagnostics.recordPhase(QueryDiagnostics.TRANSLATE, 100);
+        diagnostics.recordPhase(QueryDiagnostics.AGGREGATE, 200);
+        // Durations of the same phase add up
+        diagnostics.recordPhase(QueryDiagnostics.TRANSLATE, 50);
+        assertEquals(150L, diagnostics.getPhaseNanos().get(QueryDiagnostics.TRANSLATE));
+        assertEquals(200L, diagnostics.getPhaseNanos().get(QueryDiagnostics.AGGREGATE));
+
+        QueryDiagnostics.Stopwatch stopwatch = diagnostics.start();
+        diagnostics.recordExecution(stopwatch);
+        assertTrue(diagnostics.getPhaseNanos().get(QueryDiagnostics.EXECUTE) >= 0);
+        assertTrue(diagnostics.getCpuNanos() >= 0);
+        assertTrue(diagnostics.getAllocatedBytes() >= 0);
+        assertTrue(diagnostics.toString().contains("\"phaseNanos\""));
+    }
+
+    @Test
+    void testGetMoresAndRows() {
+        QueryDiagnostics diagnostics = new QueryDiagnostics();
+        for (int i = 0; i < QueryDiagnostics.MAX_GET_MORE_TIMINGS + 10; i++) {
+            diagnostics.recordGetMore(diagnostics.start());
+        }
+        diagnostics.addRow(10);
+        diagnostics.addRow(0);
+        // Only the first getMores are timed, all are counted
+        assertEquals(QueryDiagnostics.MAX_GET_MORE_TIMINGS, diagnostics.getGetMoreNanos().size());
+        assertEquals(QueryDiagnostics.MAX_GET_MORE_TIMINGS + 10, diagnostics.getGetMoreCount());
+        assertEquals(2, diagnostics.getRowsFetched());
+        assertEquals(10, diagnostics.getBytesFetched());
+
+        diagnostics.setSqlQuery("select 1");
+        diagnostics.resetMeasures();
+        assertEquals("select 1", diagnostics.getSqlQuery());
+        assertTrue(diagnostics.getPhaseNanos().isEmpty());
+        assertTrue(diagnostics.getGetMoreNanos().isEmpty());
+        assertEquals(0, diagnostics.getGetMoreCount());
+        assertEquals(0, diagnostics.getRowsFetched());
+        assertEquals(0, diagnostics.getBytesFetched());
+        assertEquals(0, diagnostics.getCpuNanos());
+    }
+}
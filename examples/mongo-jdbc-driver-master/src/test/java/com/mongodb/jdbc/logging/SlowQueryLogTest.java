@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryLogTest {
+    @Test
+    void testWrite() throws Exception {
+        File dir = Files.createTempDirectory("slow-queries").toFile();
+        SlowQueryLog log = SlowQueryLog.open(dir);
+        // Connections logging to the same directory share the log
+        assertSame(log, SlowQueryLog.open(dir));
+
+        log.write(new BsonDocument("sql", new BsonString("select 1")));
+        log.write(new BsonDocument("rows", new BsonInt32(2)));
+        List<String> lines =
+                Files.readAllLines(
+                        new File(dir, "slow-queries.0.log").toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("select 1", BsonDocument.parse(lines.get(0)).getString("sql").getValue());
+        assertEquals(2, BsonDocument.parse(lines.get(1)).getInt32("rows").getValue());
+
+        // The log stays open until every connection closes it
+        log.close();
+        assertSame(log, SlowQueryLog.open(dir));
+        log.close();
+        log.close();
+        SlowQueryLog reopened = SlowQueryLog.open(dir);
+        assertNotSame(log, reopened);
+
+        // A retained log stays open until the record is written
+        assertTrue(reopened.retain());
+        reopened.close();
+        assertSame(reopened, SlowQueryLog.open(dir));
+        reopened.close();
+        reopened.close();
+        assertFalse(reopened.retain());
+
+        // There is no default directory
+        assertThrows(NullPointerException.class, () -> SlowQueryLog.open(null));
+    }
+}
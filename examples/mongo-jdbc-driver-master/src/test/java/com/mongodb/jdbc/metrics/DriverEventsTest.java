@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+class DriverEventsTest {
+    @Test
+    void testNotRecorded() {
+        // Nothing is created when no recording enables the events
+        assertNull(DriverEvents.beginQuery());
+        assertNull(DriverEvents.beginGetMore());
+        DriverEvents.endQuery(null, 1, 2, "select 1", true);
+        DriverEvents.resultSetClosed(2, 10, 100, true);
+    }
+
+    @Test
+    void testRecorded() throws Exception {
+        assumeTrue(DriverEvents.isAvailable());
+        Path file = Files.createTempFile("driver-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.mongodb.jdbc.Query");
+            recording.enable("com.mongodb.jdbc.GetMore");
+            recording.enable("com.mongodb.jdbc.ResultSetClose");
+            recording.start();
+
+            DriverEvents.Span query = DriverEvents.beginQuery();
+            DriverEvents.endQuery(query, 1, 2, "select 1", true);
+            DriverEvents.endGetMore(DriverEvents.beginGetMore(), 2, 101);
+            DriverEvents.resultSetClosed(2, 101, 0, true);
+            // Not enabled by the recording
+            assertNull(DriverEvents.beginTranslate());
+
+            recording.stop();
+            recording.dump(file);
+            Map<String, RecordedEvent> events = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                events.put(event.getEventType().getName(), event);
+            }
+            assertEquals(3, events.size());
+            RecordedEvent event = events.get("com.mongodb.jdbc.Query");
+            assertEquals(2, event.getInt("statementId"));
+            assertEquals("select 1", event.getString("sql"));
+            assertTrue(event.getBoolean("succeeded"));
+            assertEquals(101, events.get("com.mongodb.jdbc.GetMore").getInt("rowCount"));
+            assertEquals(101, events.get("com.mongodb.jdbc.ResultSetClose").getLong("rowCount"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
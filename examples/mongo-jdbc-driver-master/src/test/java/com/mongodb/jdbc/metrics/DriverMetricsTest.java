@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Logger;
+import javax.management.MBeanServer;
+import org.junit.jupiter.api.Test;
+
+class DriverMetricsTest {
+    private static final MongoLogger LOGGER =
+            new MongoLogger(Logger.getLogger(DriverMetricsTest.class.getName()), 1);
+
+    @Test
+    void testConnectionMetricsAreAddedToClientMetrics() {
+        MongoClient client = mock(MongoClient.class);
+        DriverMetrics clientMetrics = DriverMetrics.forClient(client);
+        assertSame(clientMetrics, DriverMetrics.forClient(client));
+        assertNotSame(clientMetrics, DriverMetrics.forClient(mock(MongoClient.class)));
+
+        DriverMetrics first = clientMetrics.forConnection(1);
+        DriverMetrics second = clientMetrics.forConnection(2);
+        first.connectionOpened();
+        second.connectionOpened();
+        first.queryExecuted(true);
+        second.queryExecuted(false);
+        second.rowsFetched(10, 100);
+        first.record(DriverMetrics.Phase.TRANSLATE, 1000);
+        second.connectionClosed();
+
+        assertEquals(1, first.getOpenConnections());
+        assertEquals(1, clientMetrics.getOpenConnections());
+        assertEquals(1, clientMetrics.getQueryCount());
+        assertEquals(1, clientMetrics.getErrorCount());
+        assertEquals(0, first.getRowsFetched());
+        assertEquals(10, clientMetrics.getRowsFetched());
+        assertEquals(100, clientMetrics.getBytesFetched());
+        assertEquals(1, clientMetrics.getLatency(DriverMetrics.Phase.TRANSLATE).getCount());
+        assertEquals(0, second.getLatency(DriverMetrics.Phase.TRANSLATE).getCount());
+    }
+
+    @Test
+    void testMBeans() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        DriverMetrics clientMetrics = DriverMetrics.forClient(mock(MongoClient.class));
+        DriverMetrics first = clientMetrics.forConnection(1);
+        DriverMetrics second = clientMetrics.forConnection(2);
+
+        first.registerMBeans(LOGGER);
+        second.registerMBeans(LOGGER);
+        first.queryExecuted(true);
+        assertEquals(1L, server.getAttribute(first.getObjectName(null), "QueryCount"));
+        assertEquals(1L, server.getAttribute(clientMetrics.getObjectName(null), "QueryCount"));
+        assertTrue(
+                server.isRegistered(clientMetrics.getObjectName(DriverMetrics.Phase.FIRST_BATCH)));
+
+        // The client MBeans stay registered as long as one of its connections is
+        first.unregisterMBeans(LOGGER);
+        assertFalse(server.isRegistered(first.getObjectName(null)));
+        assertFalse(server.isRegistered(first.getObjectName(DriverMetrics.Phase.FULL_FETCH)));
+        assertTrue(server.isRegistered(clientMetrics.getObjectName(null)));
+
+        second.unregisterMBeans(LOGGER);
+        assertFalse(server.isRegistered(clientMetrics.getObjectName(null)));
+        // Extra calls are ignored
+        second.unregisterMBeans(LOGGER);
+    }
+}
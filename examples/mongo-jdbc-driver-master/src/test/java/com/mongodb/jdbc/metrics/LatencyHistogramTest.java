@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void testBuckets() {
+        // Every value falls in the bucket whose bounds contain it, and buckets are contiguous
+        long previousUpperBound = -1;
+        for (int i = 0; i < 400; i++) {
+            long upperBound = LatencyHistogram.bucketUpperBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(previousUpperBound + 1));
+            assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+            // The relative error is bounded
+            assertTrue(upperBound - previousUpperBound <= Math.max(1, upperBound / 16 + 1));
+            previousUpperBound = upperBound;
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMeanMillis());
+
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(100, histogram.getMaxMillis(), 1e-9);
+        assertEquals(50, histogram.getP50Millis(), 50 / 16.0);
+        assertEquals(99, histogram.getP99Millis(), 99 / 16.0);
+        // Percentiles never exceed the largest recorded value
+        assertEquals(100, histogram.getP999Millis(), 1e-9);
+    }
+
+    @Test
+    void testOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(TimeUnit.DAYS.toNanos(1));
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 32) - 1, histogram.getValueAtPercentile(100));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.jdbc.MongoJsonSchemaResult;
+import com.mongodb.jdbc.MongoSerializationException;
+import com.mongodb.jdbc.logging.MongoLogger;
+import com.mongodb.jdbc.utils.BsonUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+class MongoSQLTranslateTest {
+    /** Replaces the native library, answering every command with a canned response. */
+    private static class FakeTranslate extends MongoSQLTranslate {
+        private final List<BsonDocument> commands = new ArrayList<>();
+        private final List<byte[]> commandArrays = new ArrayList<>();
+        private BsonDocument response;
+        // Returned as is instead of the response when set
+        private byte[] responseBytes;
+
+        FakeTranslate() {
+            super(new MongoLogger(Logger.getLogger(MongoSQLTranslateTest.class.getName()), 1));
+        }
+
+        @Override
+        public byte[] runCommand(byte[] command, int length) {
+            commandArrays.add(command);
+            try {
+                commands.add(BsonUtils.deserialize(Arrays.copyOf(command, length)));
+                return (responseBytes != null) ? responseBytes : BsonUtils.serialize(response);
+            } catch (MongoSerializationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Test
+    void testRunCommandPassesTheBufferWithoutCopy() throws Exception {
+        FakeTranslate translate = new FakeTranslate();
+        translate.response = new BsonDocument("version", new BsonString("1.2.3"));
+
+        StringBuilder largeValue = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            largeValue.append("abcdefghij");
+        }
+        BsonDocument large = new BsonDocument("command", new BsonString(largeValue.toString()));
+        BsonDocument small = new BsonDocument("command", new BsonString("getVersion"));
+
+        // A smaller command following a larger one is not polluted by the previous bytes
+        translate.runCommand(large, GetMongosqlTranslateVersionResult.class);
+        GetMongosqlTranslateVersionResult result =
+                translate.runCommand(small, GetMongosqlTranslateVersionResult.class);
+
+        assertEquals("1.2.3", result.version);
+        assertEquals(Arrays.asList(large, small), translate.commands);
+        // Both commands are passed in the same array, along with their length
+        assertSame(translate.commandArrays.get(0), translate.commandArrays.get(1));
+    }
+
+    @Test
+    void testRunCommandMalformedResponse() throws Exception {
+        FakeTranslate translate = new FakeTranslate();
+        byte[] response =
+                BsonUtils.serialize(
+                        new BsonDocument("error", new BsonString("failed"))
+                                .append("error_is_internal", new BsonBoolean(false)));
+        BsonDocument command = new BsonDocument("command", new BsonString("getVersion"));
+
+        // Truncated, or with an error of the wrong type
+        translate.responseBytes = Arrays.copyOf(response, 12);
+        assertThrows(
+                MongoSerializationException.class,
+                () -> translate.runCommand(command, GetMongosqlTranslateVersionResult.class));
+        translate.responseBytes =
+                BsonUtils.serialize(
+                        new BsonDocument("error", new BsonBoolean(true))
+                                .append("error_is_internal", new BsonBoolean(false)));
+        assertThrows(
+                MongoSerializationException.class,
+                () -> translate.runCommand(command, GetMongosqlTranslateVersionResult.class));
+
+        translate.responseBytes = response;
+        assertThrows(
+                MongoSQLException.class,
+                () -> translate.runCommand(command, GetMongosqlTranslateVersionResult.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetSchemas() {
+        MongoDatabase db = mock(MongoDatabase.class);
+        MongoCollection<BsonDocument> schemas = mock(MongoCollection.class);
+        AggregateIterable<BsonDocument> iterable = mock(AggregateIterable.class);
+        MongoCursor<BsonDocument> cursor = mock(MongoCursor.class);
+        BsonDocument fooSchema =
+                new BsonDocument("bsonType", new BsonString("object"))
+                        .append("properties", new BsonDocument());
+        when(db.getName()).thenReturn("test");
+        when(db.getCollection(MongoSQLTranslate.SQL_SCHEMAS_COLLECTION, BsonDocument.class))
+                .thenReturn(schemas);
+        when(schemas.aggregate(anyList())).thenReturn(iterable);
+        when(iterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next())
+                .thenReturn(
+                        new BsonDocument("_id", new BsonString("foo"))
+                                .append("schema", fooSchema));
+
+        // A single aggregation for all the collections, those without a schema are left out
+        Map<String, MongoJsonSchemaResult> results =
+                new FakeTranslate().getSchemas(db, Arrays.asList("foo", "bar"));
+        verify(schemas, times(1)).aggregate(anyList());
+        assertEquals(1, results.size());
+        assertEquals(1, results.get("foo").ok);
+        assertTrue(results.get("foo").schema.mongoJsonSchema.isObject());
+    }
+
+    @Test
+    void testRunCommandError() {
+        FakeTranslate translate = new FakeTranslate();
+        translate.response =
+                new BsonDocument(MongoSQLTranslate.ERROR_KEY, new BsonString("bad query"))
+                        .append(MongoSQLTranslate.IS_INTERNAL_ERROR_KEY, BsonBoolean.FALSE);
+
+        MongoSQLException e =
+                assertThrows(
+                        MongoSQLException.class,
+                        () ->
+                                translate.runCommand(
+                                        new BsonDocument("command", new BsonString("translate")),
+                                        TranslateResult.class));
+        assertTrue(e.getMessage().contains("bad query"));
+    }
+}
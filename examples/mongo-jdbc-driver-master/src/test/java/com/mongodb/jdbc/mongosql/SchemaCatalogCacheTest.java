@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import static com.mongodb.jdbc.mongosql.MongoSQLTranslate.SQL_SCHEMAS_COLLECTION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.jdbc.logging.MongoLogger;
+import java.util.logging.Logger;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+class SchemaCatalogCacheTest {
+    private static final String DB = "test";
+    private static final long TTL_MS = 60000;
+    private static final BsonDocument SCHEMA = new BsonDocument("bsonType", new BsonString("object"));
+
+    @Test
+    void testGetAndExpire() throws InterruptedException {
+        SchemaCatalogCache cache = new SchemaCatalogCache();
+
+        assertNull(cache.get(DB, "foo", TTL_MS));
+        cache.put(DB, "foo", SCHEMA, cache.getGeneration());
+        assertSame(SCHEMA, cache.get(DB, "foo", TTL_MS));
+        assertNull(cache.get("other", "foo", TTL_MS));
+
+        // Each caller applies its own ttl
+        Thread.sleep(5);
+        assertNull(cache.get(DB, "foo", 1));
+        assertSame(SCHEMA, cache.get(DB, "foo", TTL_MS));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void testInvalidate() {
+        SchemaCatalogCache cache = new SchemaCatalogCache();
+        cache.put(DB, "foo", SCHEMA, cache.getGeneration());
+        cache.put(DB, "bar", SCHEMA, cache.getGeneration());
+
+        cache.invalidate(DB, "foo");
+        assertNull(cache.get(DB, "foo", TTL_MS));
+        assertSame(SCHEMA, cache.get(DB, "bar", TTL_MS));
+
+        cache.invalidate(DB);
+        assertNull(cache.get(DB, "bar", TTL_MS));
+        assertEquals(2, cache.getInvalidationCount());
+    }
+
+    @Test
+    void testEvictsPastMaxSize() throws Exception {
+        long schemaSize = CatalogFingerprint.SchemaDigest.of("foo", SCHEMA).getSchemaSize();
+        SchemaCatalogCache cache = new SchemaCatalogCache(2 * schemaSize);
+        cache.put(DB, "foo", SCHEMA, cache.getGeneration());
+        cache.put(DB, "bar", SCHEMA, cache.getGeneration());
+        assertSame(SCHEMA, cache.get(DB, "foo", TTL_MS));
+
+        cache.put(DB, "baz", SCHEMA, cache.getGeneration());
+        assertNull(cache.get(DB, "bar", TTL_MS));
+        assertSame(SCHEMA, cache.get(DB, "foo", TTL_MS));
+        assertSame(SCHEMA, cache.get(DB, "baz", TTL_MS));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2 * schemaSize, cache.getSize());
+    }
+
+    @Test
+    void testSchemaReadBeforeInvalidationIsNotCached() {
+        SchemaCatalogCache cache = new SchemaCatalogCache();
+        long generation = cache.getGeneration();
+        // The schema changes while it is being read
+        cache.invalidate(DB, "foo");
+        cache.put(DB, "foo", SCHEMA, generation);
+        assertNull(cache.get(DB, "foo", TTL_MS));
+    }
+
+    @Test
+    void testDigestIsComputedOncePerCachedSchema() throws Exception {
+        SchemaCatalogCache cache = new SchemaCatalogCache();
+        cache.put(DB, "foo", SCHEMA, cache.getGeneration());
+        BsonValue cached = cache.get(DB, "foo", TTL_MS);
+        assertSame(cache.getDigest(DB, "foo", cached), cache.getDigest(DB, "foo", cached));
+        // A schema which is not the cached one is digested on each call
+        BsonDocument other = SCHEMA.clone();
+        assertNotSame(cache.getDigest(DB, "foo", other), cache.getDigest(DB, "foo", other));
+
+        BsonDocument catalog = new BsonDocument(DB, new BsonDocument("foo", cached));
+        assertEquals(CatalogFingerprint.of(catalog), CatalogFingerprint.of(catalog, cache));
+        assertEquals(
+                CatalogFingerprint.of(catalog),
+                CatalogFingerprint.of(new BsonDocument(DB, new BsonDocument("foo", other))));
+        assertNotEquals(
+                CatalogFingerprint.of(catalog),
+                CatalogFingerprint.of(new BsonDocument(DB, new BsonDocument("bar", other))));
+    }
+
+    @Test
+    void testCachePerClient() {
+        MongoClient client = mock(MongoClient.class);
+        assertSame(SchemaCatalogCache.forClient(client), SchemaCatalogCache.forClient(client));
+        assertNotSame(
+                SchemaCatalogCache.forClient(client),
+                SchemaCatalogCache.forClient(mock(MongoClient.class)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWatchStopsWhenReleased() throws Exception {
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoCollection<BsonDocument> collection = mock(MongoCollection.class);
+        ChangeStreamIterable<BsonDocument> stream = mock(ChangeStreamIterable.class);
+        MongoChangeStreamCursor<ChangeStreamDocument<BsonDocument>> cursor =
+                mock(MongoChangeStreamCursor.class);
+        when(database.getName()).thenReturn(DB);
+        when(database.getCollection(SQL_SCHEMAS_COLLECTION, BsonDocument.class))
+                .thenReturn(collection);
+        when(collection.watch()).thenReturn(stream);
+        when(stream.maxAwaitTime(anyLong(), any())).thenReturn(stream);
+        when(stream.cursor()).thenReturn(cursor);
+        MongoLogger logger =
+                new MongoLogger(Logger.getLogger(SchemaCatalogCacheTest.class.getName()), 1);
+        SchemaCatalogCache cache = new SchemaCatalogCache();
+
+        // Nothing is watched until a connection retains the cache
+        cache.watch(database, logger);
+        assertFalse(cache.isWatching(DB));
+        verify(collection, never()).watch();
+
+        cache.retain();
+        cache.watch(database, logger);
+        assertTrue(cache.isWatching(DB));
+        // Empty polls back off instead of spinning
+        verify(cursor, timeout(5000).atLeast(2)).tryNext();
+
+        cache.release();
+        verify(cursor, timeout(5000)).close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.isWatching(DB) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(cache.isWatching(DB));
+
+        // Stopping is not a failure, watching starts again without waiting for a retry delay
+        cache.retain();
+        cache.watch(database, logger);
+        assertTrue(cache.isWatching(DB));
+        cache.release();
+        verify(collection, timeout(5000).times(2)).watch();
+    }
+}
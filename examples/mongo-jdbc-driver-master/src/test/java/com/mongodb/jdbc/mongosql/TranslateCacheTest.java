@@ -0,0 +1,141 @@
+/*
+ * Copyright 2024-present MongoDB, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.mongodb.jdbc.mongosql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+class TranslateCacheTest {
+    private static final String DB = "test";
+
+    private static CatalogFingerprint catalog(String schema) throws Exception {
+        return CatalogFingerprint.of(
+                new BsonDocument(
+                        DB,
+                        new BsonDocument(
+                                "foo", new BsonDocument("bsonType", new BsonString(schema)))));
+    }
+
+    private static TranslateResult translateResult() {
+        return new TranslateResult(DB, "foo", Collections.emptyList(), null, null);
+    }
+
+    @Test
+    void testFingerprint() throws Exception {
+        // Equal catalogs built separately have the same fingerprint
+        assertEquals(catalog("object"), catalog("object"));
+        assertEquals(catalog("object").hashCode(), catalog("object").hashCode());
+        assertNotEquals(catalog("object"), catalog("array"));
+    }
+
+    @Test
+    void testTranslationHitAndMiss() throws Exception {
+        TranslateCache cache = new TranslateCache(10_000);
+        TranslateResult result = translateResult();
+
+        assertNull(cache.getTranslation(DB, "select * from foo", catalog("object")));
+        cache.putTranslation(DB, "select * from foo", catalog("object"), result);
+
+        assertSame(result, cache.getTranslation(DB, "select * from foo", catalog("object")));
+        // A different schema, sql or database is a miss
+        assertNull(cache.getTranslation(DB, "select * from foo", catalog("array")));
+        assertNull(cache.getTranslation(DB, "select a from foo", catalog("object")));
+        assertNull(cache.getTranslation("other", "select * from foo", catalog("object")));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() throws Exception {
+        CatalogFingerprint catalog = catalog("object");
+        TranslateResult result = translateResult();
+        TranslateCache unbounded = new TranslateCache(Long.MAX_VALUE);
+        unbounded.putTranslation(DB, "q1", catalog, result);
+        long entryWeight = unbounded.getWeight();
+
+        // Room for two entries of the same weight
+        TranslateCache cache = new TranslateCache(2 * entryWeight);
+        cache.putTranslation(DB, "q1", catalog, result);
+        cache.putTranslation(DB, "q2", catalog, result);
+        // Touch q1 so that q2 becomes the eldest entry
+        cache.getTranslation(DB, "q1", catalog);
+        cache.putTranslation(DB, "q3", catalog, result);
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * entryWeight, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(result, cache.getTranslation(DB, "q1", catalog));
+        assertNull(cache.getTranslation(DB, "q2", catalog));
+        assertSame(result, cache.getTranslation(DB, "q3", catalog));
+    }
+
+    @Test
+    void testLargePipelineEvictsMoreEntries() throws Exception {
+        CatalogFingerprint catalog = catalog("object");
+        char[] chars = new char[300];
+        Arrays.fill(chars, 'x');
+        BsonDocument stage = new BsonDocument("$match", new BsonString(new String(chars)));
+        TranslateResult large =
+                new TranslateResult(DB, "foo", Arrays.asList(stage, stage), null, null);
+        TranslateCache unbounded = new TranslateCache(Long.MAX_VALUE);
+        unbounded.putTranslation(DB, "q1", catalog, translateResult());
+        long smallWeight = unbounded.getWeight();
+        unbounded.putTranslation(DB, "q3", catalog, large);
+        long largeWeight = unbounded.getWeight() - smallWeight;
+
+        // The weight is the size of the pipeline, not the number of entries
+        TranslateCache cache = new TranslateCache(largeWeight + smallWeight / 2);
+        cache.putTranslation(DB, "q1", catalog, translateResult());
+        cache.putTranslation(DB, "q2", catalog, translateResult());
+        assertEquals(2, cache.size());
+        cache.putTranslation(DB, "q3", catalog, large);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertSame(large, cache.getTranslation(DB, "q3", catalog));
+    }
+
+    @Test
+    void testNamespaces() {
+        TranslateCache cache = new TranslateCache(10_000);
+        GetNamespacesResult namespaces = new GetNamespacesResult(Collections.emptyList());
+
+        assertNull(cache.getNamespaces(DB, "select 1"));
+        cache.putNamespaces(DB, "select 1", namespaces);
+        assertSame(namespaces, cache.getNamespaces(DB, "select 1"));
+        assertNull(cache.getNamespaces("other", "select 1"));
+    }
+
+    @Test
+    void testDisabledCache() throws Exception {
+        TranslateCache cache = new TranslateCache(0);
+        CatalogFingerprint catalog = catalog("object");
+
+        cache.putTranslation(DB, "q1", catalog, translateResult());
+        assertNull(cache.getTranslation(DB, "q1", catalog));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMissCount());
+    }
+}